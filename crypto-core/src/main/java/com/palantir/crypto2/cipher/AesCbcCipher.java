@@ -17,6 +17,7 @@
 package com.palantir.crypto2.cipher;
 
 import com.google.common.base.Throwables;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.crypto2.keys.serialization.KeyMaterials;
 import com.palantir.logsafe.Preconditions;
@@ -24,20 +25,22 @@ import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
 import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 
 /**
  * An extention of the 'AES/CBC/PKCS5Padding' {@link Cipher} implementation which allows seeking of the cipher in
  * constant time. This is the same Cipher used by the original implementation of the hadoop-s3e-adapter.
+ * <p>
+ * A single {@link Cipher} leased from the {@link CipherPool#getDefault() default pool} is kept per mode and
+ * re-initialized by {@link #initCipher} and {@link #seek}, so a cipher returned by either method is only valid until
+ * the next call for the same mode. The ciphers are returned to the pool by {@link #release}.
  */
 public final class AesCbcCipher implements SeekableCipher {
 
     public static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+    private static final String NO_PADDING_TRANSFORMATION = "AES/CBC/NoPadding";
     private static final String KEY_ALGORITHM = "AES";
     private static final String PROVIDER = Ciphers.getProvider();
     private static final int KEY_SIZE = 256;
@@ -47,6 +50,8 @@ public final class AesCbcCipher implements SeekableCipher {
     private final KeyMaterial keyMaterial;
     private final SecretKey key;
     private final byte[] initIv;
+    private CipherPool.Lease encryptLease;
+    private CipherPool.Lease decryptLease;
     private int currentOpmode;
 
     public AesCbcCipher(KeyMaterial keyMaterial) {
@@ -59,7 +64,7 @@ public final class AesCbcCipher implements SeekableCipher {
     public Cipher initCipher(int opmode) {
         this.currentOpmode = opmode;
         try {
-            Cipher cipher = getInstance();
+            Cipher cipher = getCipher(opmode);
             cipher.init(opmode, key, new IvParameterSpec(initIv));
             return cipher;
         } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
@@ -85,6 +90,18 @@ public final class AesCbcCipher implements SeekableCipher {
         return initCipher(currentOpmode);
     }
 
+    @Override
+    public void release() {
+        if (encryptLease != null) {
+            encryptLease.close();
+            encryptLease = null;
+        }
+        if (decryptLease != null) {
+            decryptLease.close();
+            decryptLease = null;
+        }
+    }
+
     @Override
     public KeyMaterial getKeyMaterial() {
         return keyMaterial;
@@ -99,11 +116,35 @@ public final class AesCbcCipher implements SeekableCipher {
         return KeyMaterials.generateKeyMaterial(KEY_ALGORITHM, KEY_SIZE, IV_SIZE);
     }
 
-    private Cipher getInstance() {
-        try {
-            return Cipher.getInstance(ALGORITHM, PROVIDER);
-        } catch (NoSuchAlgorithmException | NoSuchProviderException | NoSuchPaddingException e) {
-            throw Throwables.propagate(e);
+    private Cipher getCipher(int opmode) {
+        if (opmode == Cipher.ENCRYPT_MODE) {
+            if (encryptLease == null) {
+                encryptLease = borrow();
+            }
+            return encryptLease.getCipher();
+        } else if (opmode == Cipher.DECRYPT_MODE) {
+            if (decryptLease == null) {
+                decryptLease = borrow();
+            }
+            return decryptLease.getCipher();
         }
+        // Ciphers for other modes are not reused and therefore never returned to the pool
+        return borrow().getCipher();
+    }
+
+    /**
+     * Leases an uninitialized {@value #NO_PADDING_TRANSFORMATION} cipher of the provider used by this class from the
+     * {@link CipherPool#getDefault() default pool}, for callers which remove the padding themselves.
+     */
+    public static CipherPool.Lease borrowWithoutPadding() {
+        return borrow(NO_PADDING_TRANSFORMATION);
+    }
+
+    private static CipherPool.Lease borrow() {
+        return borrow(ALGORITHM);
+    }
+
+    private static CipherPool.Lease borrow(String transformation) {
+        return CipherPool.getDefault().borrow(transformation, PROVIDER);
     }
 }
@@ -17,24 +17,27 @@
 package com.palantir.crypto2.cipher;
 
 import com.google.common.base.Throwables;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.crypto2.keys.serialization.KeyMaterials;
 import com.palantir.logsafe.Preconditions;
-import com.palantir.logsafe.SafeArg;
-import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
-import java.math.BigInteger;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
 import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 
 /**
  * An extention of the 'AES/CTR/NoPadding' {@link Cipher} implementation which allows seeking of the cipher in constant
  * time.
+ * <p>
+ * A single {@link Cipher} is kept per mode and re-initialized by {@link #initCipher} and {@link #seek}, so a cipher
+ * returned by either method is only valid until the next call for the same mode. Seeking computes the counter block
+ * in a reusable buffer and allocates nothing other than the {@link IvParameterSpec}, which copies the IV by contract.
+ * The ciphers are leased from the {@link CipherPool#getDefault() default pool} and returned by {@link #release}.
  */
 public final class AesCtrCipher implements SeekableCipher {
 
@@ -48,68 +51,76 @@ public final class AesCtrCipher implements SeekableCipher {
     private final KeyMaterial keyMaterial;
     private final SecretKey key;
     private final byte[] initIv;
+    private final byte[] ivBuffer = new byte[IV_SIZE];
+    private final ByteBuffer ivBufferView = ByteBuffer.wrap(ivBuffer);
+    private final byte[] skipBuffer = new byte[BLOCK_SIZE];
+    private CipherPool.Lease encryptLease;
+    private CipherPool.Lease decryptLease;
+    private final CtrCounter counter;
     private int currentOpmode;
 
     public AesCtrCipher(KeyMaterial keyMaterial) {
         this.key = keyMaterial.getSecretKey();
         this.initIv = keyMaterial.getIv();
         this.keyMaterial = keyMaterial;
+        this.counter = new CtrCounter(initIv);
     }
 
     @Override
     public Cipher initCipher(int opmode) {
         this.currentOpmode = opmode;
-        try {
-            Cipher cipher = getInstance();
-            cipher.init(opmode, key, new IvParameterSpec(initIv));
-            return cipher;
-        } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
-            throw Throwables.propagate(e);
-        }
+        Cipher cipher = getCipher(opmode);
+        init(cipher, opmode, new IvParameterSpec(initIv));
+        return cipher;
     }
 
     @Override
     public Cipher seek(long pos) {
         Preconditions.checkState(
                 currentOpmode == Cipher.DECRYPT_MODE || currentOpmode == Cipher.ENCRYPT_MODE, "Cipher not initialized");
-        if (pos < 0) {
-            throw new SafeIllegalArgumentException("Cannot seek to negative position", SafeArg.of("pos", pos));
-        }
-
-        // Compute the block that the byte 'pos' is located in
-        BigInteger block = BigInteger.valueOf(pos / BLOCK_SIZE);
-
-        // Compute the iv for the block to start decrypting. initIv needs to be treated as an unsigned int
-        BigInteger ivBuffer = new BigInteger(1, initIv).add(block);
-        byte[] ivBytes = ivBuffer.toByteArray();
-
-        // Ensure the iv is exactly BLOCK_SIZE bytes in length
-        final IvParameterSpec newIv;
-        if (ivBytes.length >= IV_SIZE) {
-            newIv = new IvParameterSpec(ivBytes, ivBytes.length - IV_SIZE, IV_SIZE);
-        } else {
-            final byte[] tmpIv = new byte[IV_SIZE];
-            System.arraycopy(ivBytes, 0, tmpIv, IV_SIZE - ivBytes.length, ivBytes.length);
-            newIv = new IvParameterSpec(tmpIv);
-        }
 
-        Cipher cipher = getInstance();
+        // Add the block that the byte 'pos' is located in to the iv, treating both as unsigned and wrapping on overflow
+        counter.write(pos, ivBufferView);
 
-        // Init the cipher with the new iv
-        try {
-            cipher.init(currentOpmode, key, newIv);
-        } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
-            throw Throwables.propagate(e);
-        }
+        // IvParameterSpec is immutable and copies the IV, and Cipher.init only accepts the counter through a spec, so a
+        // single spec cannot be reused for different positions
+        Cipher cipher = getCipher(currentOpmode);
+        init(cipher, currentOpmode, new IvParameterSpec(ivBuffer));
 
         // Skip to the byte offset in the block where 'pos' is located
         int bytesToSkip = (int) (pos % BLOCK_SIZE);
-        byte[] skip = new byte[bytesToSkip];
-        cipher.update(skip, 0, bytesToSkip);
+        if (bytesToSkip > 0) {
+            try {
+                cipher.update(skipBuffer, 0, bytesToSkip, skipBuffer, 0);
+            } catch (ShortBufferException e) {
+                throw new SafeIllegalStateException("Unable to skip within block", e);
+            }
+        }
 
         return cipher;
     }
 
+    /**
+     * Counter mode blocks are independent of each other and {@link #seek} positions the keystream at any byte offset,
+     * so no preceding data needs to be decrypted.
+     */
+    @Override
+    public long getSeekOffset(long pos) {
+        return pos;
+    }
+
+    @Override
+    public void release() {
+        if (encryptLease != null) {
+            encryptLease.close();
+            encryptLease = null;
+        }
+        if (decryptLease != null) {
+            decryptLease.close();
+            decryptLease = null;
+        }
+    }
+
     @Override
     public KeyMaterial getKeyMaterial() {
         return keyMaterial;
@@ -124,11 +135,35 @@ public final class AesCtrCipher implements SeekableCipher {
         return KeyMaterials.generateKeyMaterial(KEY_ALGORITHM, KEY_SIZE, IV_SIZE);
     }
 
-    private Cipher getInstance() {
+    private Cipher getCipher(int opmode) {
+        if (opmode == Cipher.ENCRYPT_MODE) {
+            if (encryptLease == null) {
+                encryptLease = borrow();
+            }
+            return encryptLease.getCipher();
+        } else if (opmode == Cipher.DECRYPT_MODE) {
+            if (decryptLease == null) {
+                decryptLease = borrow();
+            }
+            return decryptLease.getCipher();
+        }
+        // Ciphers for other modes are not reused and therefore never returned to the pool
+        return borrow().getCipher();
+    }
+
+    private void init(Cipher cipher, int opmode, IvParameterSpec iv) {
         try {
-            return Cipher.getInstance(ALGORITHM, PROVIDER);
-        } catch (NoSuchAlgorithmException | NoSuchProviderException | NoSuchPaddingException e) {
+            cipher.init(opmode, key, iv);
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
             throw Throwables.propagate(e);
         }
     }
+
+    /**
+     * Leases an uninitialized {@value #ALGORITHM} cipher of the provider used by this class from the
+     * {@link CipherPool#getDefault() default pool}.
+     */
+    public static CipherPool.Lease borrow() {
+        return CipherPool.getDefault().borrow(ALGORITHM, PROVIDER);
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.cipher;
+
+import com.google.common.base.Throwables;
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.crypto2.keys.serialization.KeyMaterials;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts and decrypts the segments of the authenticated {@value #ALGORITHM} format, which splits the plaintext into
+ * segments of {@value #SEGMENT_SIZE} bytes that are each encrypted using AES/GCM and followed by their
+ * {@value #TAG_SIZE} byte authentication tag. Every segment is therefore independently authenticated and any segment
+ * can be located and decrypted in constant time, which makes the format seekable and allows segments to be encrypted
+ * and decrypted in parallel.
+ * <p>
+ * The nonce of each segment is the IV of the {@link KeyMaterial} with the segment index added to its last 8 bytes, so
+ * segments cannot be reordered. Whether a segment is the last one of the file is authenticated as additional data so
+ * that truncation at a segment boundary is detected. Files always end with a last segment, which is empty for empty
+ * files.
+ * <p>
+ * Unlike the {@link SeekableCipher} implementations the encrypted and plaintext offsets differ, so instances are used
+ * through {@code CryptoStreamFactory} rather than as a {@link SeekableCipher}. Instances are thread safe.
+ */
+public final class AesGcmSegmentedCipher {
+
+    public static final String ALGORITHM = "AES/GCM/Segmented";
+    public static final int SEGMENT_SIZE = 64 * 1024;
+    public static final int TAG_SIZE = 16;
+    public static final int ENCRYPTED_SEGMENT_SIZE = SEGMENT_SIZE + TAG_SIZE;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String PROVIDER = Ciphers.getProvider();
+    private static final String KEY_ALGORITHM = "AES";
+    private static final int KEY_SIZE = 256;
+    private static final int NONCE_SIZE = 12;
+    private static final byte[] INTERMEDIATE_SEGMENT = {0};
+    private static final byte[] LAST_SEGMENT = {1};
+
+    private final KeyMaterial keyMaterial;
+    private final SecretKey key;
+    private final byte[] nonce;
+
+    public AesGcmSegmentedCipher(KeyMaterial keyMaterial) {
+        byte[] iv = keyMaterial.getIv();
+        Preconditions.checkArgument(iv.length == NONCE_SIZE, "IV must be 12 bytes", SafeArg.of("length", iv.length));
+        this.keyMaterial = keyMaterial;
+        this.key = keyMaterial.getSecretKey();
+        this.nonce = iv;
+    }
+
+    public static KeyMaterial generateKeyMaterial() {
+        return KeyMaterials.generateKeyMaterial(KEY_ALGORITHM, KEY_SIZE, NONCE_SIZE);
+    }
+
+    public KeyMaterial getKeyMaterial() {
+        return keyMaterial;
+    }
+
+    /**
+     * Returns the offset of the encrypted segment that contains the plaintext byte at offset {@code pos}.
+     */
+    public static long getEncryptedSegmentOffset(long pos) {
+        return pos / SEGMENT_SIZE * ENCRYPTED_SEGMENT_SIZE;
+    }
+
+    /**
+     * Returns the plaintext length of data of {@code encryptedLength} bytes, each segment of which is followed by its
+     * {@value #TAG_SIZE} byte tag. Lengths too short to hold a single tag have no plaintext.
+     */
+    public static long getPlaintextLength(long encryptedLength) {
+        long segments = (encryptedLength + ENCRYPTED_SEGMENT_SIZE - 1) / ENCRYPTED_SEGMENT_SIZE;
+        return Math.max(0, encryptedLength - segments * TAG_SIZE);
+    }
+
+    /**
+     * Encrypts the {@code length} bytes of plaintext segment {@code index} from {@code input} into {@code output},
+     * returning the number of bytes written which includes the authentication tag. {@code input} and {@code output}
+     * may be the same array provided that the regions start at the same offset.
+     */
+    public int encryptSegment(
+            long index, boolean last, byte[] input, int inputOffset, int length, byte[] output, int outputOffset) {
+        Preconditions.checkArgument(length <= SEGMENT_SIZE, "Segment too large", SafeArg.of("length", length));
+        try (CipherPool.Lease lease = CipherPool.getDefault().borrow(TRANSFORMATION, PROVIDER)) {
+            Cipher cipher = init(lease.getCipher(), Cipher.ENCRYPT_MODE, index, last);
+            return cipher.doFinal(input, inputOffset, length, output, outputOffset);
+        } catch (GeneralSecurityException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Decrypts and authenticates the {@code length} bytes of encrypted segment {@code index}, including its tag, from
+     * {@code input} into {@code output}, returning the number of plaintext bytes written. {@code input} and
+     * {@code output} may be the same array provided that the regions start at the same offset.
+     *
+     * @throws AEADBadTagException if the segment was modified, reordered or truncated
+     */
+    public int decryptSegment(
+            long index, boolean last, byte[] input, int inputOffset, int length, byte[] output, int outputOffset)
+            throws AEADBadTagException {
+        Preconditions.checkArgument(
+                length >= TAG_SIZE && length <= ENCRYPTED_SEGMENT_SIZE,
+                "Invalid encrypted segment length",
+                SafeArg.of("length", length));
+        try (CipherPool.Lease lease = CipherPool.getDefault().borrow(TRANSFORMATION, PROVIDER)) {
+            Cipher cipher = init(lease.getCipher(), Cipher.DECRYPT_MODE, index, last);
+            return cipher.doFinal(input, inputOffset, length, output, outputOffset);
+        } catch (AEADBadTagException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private Cipher init(Cipher cipher, int opmode, long index, boolean last) throws GeneralSecurityException {
+        Preconditions.checkArgument(index >= 0, "Segment index must not be negative", SafeArg.of("index", index));
+        byte[] segmentNonce = nonce.clone();
+        ByteBuffer counter = ByteBuffer.wrap(segmentNonce);
+        counter.putLong(NONCE_SIZE - Long.BYTES, counter.getLong(NONCE_SIZE - Long.BYTES) + index);
+        cipher.init(opmode, key, new GCMParameterSpec(TAG_SIZE * Byte.SIZE, segmentNonce));
+        cipher.updateAAD(last ? LAST_SEGMENT : INTERMEDIATE_SEGMENT);
+        return cipher;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.cipher;
+
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.nio.ByteBuffer;
+
+/**
+ * The initial counter block of {@value AesCtrCipher#ALGORITHM} encrypted data held as an unsigned 128-bit integer,
+ * from which the counter block of any position of the keystream is computed without allocating.
+ */
+public final class CtrCounter {
+
+    private static final int BLOCK_SIZE = 16;
+
+    // High and low 64 bits of the initial IV treated as an unsigned 128-bit counter
+    private final long initIvHigh;
+    private final long initIvLow;
+
+    public CtrCounter(byte[] iv) {
+        // Right align the IV in 128 bits, keeping the least significant bytes of longer IVs
+        byte[] counter = new byte[BLOCK_SIZE];
+        int length = Math.min(iv.length, BLOCK_SIZE);
+        System.arraycopy(iv, iv.length - length, counter, BLOCK_SIZE - length, length);
+        ByteBuffer counterView = ByteBuffer.wrap(counter);
+        this.initIvHigh = counterView.getLong(0);
+        this.initIvLow = counterView.getLong(Long.BYTES);
+    }
+
+    /**
+     * Writes the counter block of the block containing the byte at {@code pos} into the first 16 bytes of
+     * {@code counter}, adding the block index to the initial IV as an unsigned integer and wrapping on overflow.
+     */
+    public void write(long pos, ByteBuffer counter) {
+        if (pos < 0) {
+            throw new SafeIllegalArgumentException("Cannot seek to negative position", SafeArg.of("pos", pos));
+        }
+        long block = pos / BLOCK_SIZE;
+        long low = initIvLow + block;
+        long high = Long.compareUnsigned(low, initIvLow) < 0 ? initIvHigh + 1 : initIvHigh;
+        counter.putLong(0, high).putLong(Long.BYTES, low);
+    }
+}
@@ -37,6 +37,27 @@ public interface SeekableCipher {
      */
     Cipher seek(long pos);
 
+    /**
+     * Returns the offset at or before {@code pos} to which both the encrypted data and this cipher must be seeked in
+     * order to decrypt the byte at offset {@code pos}, after decrypting and discarding the bytes in between. The
+     * default implementation suits block chaining modes that must be updated with the previous encrypted block: it
+     * returns the start of block n - 1 where block n contains {@code pos}, or 0 if {@code pos} is in the first block.
+     */
+    default long getSeekOffset(long pos) {
+        int blockSize = getBlockSize();
+        if (pos < blockSize) {
+            return 0;
+        }
+        return (pos / blockSize - 1) * blockSize;
+    }
+
+    /**
+     * Returns any pooled {@link Cipher} instances held by this {@link SeekableCipher} so that other instances can reuse
+     * them. Ciphers previously returned by {@link #initCipher} or {@link #seek} must not be used afterwards, though
+     * this instance may be initialized again. The default implementation holds no pooled ciphers and does nothing.
+     */
+    default void release() {}
+
     /**
      * Returns the {@link KeyMaterial} being used by this {@link SeekableCipher} for cryptographic operations.
      */
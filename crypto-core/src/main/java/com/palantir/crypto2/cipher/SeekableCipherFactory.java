@@ -24,7 +24,7 @@ public final class SeekableCipherFactory {
 
     /**
      * Generates {@link KeyMaterial} appropriate for the given cipher algorithm. Currently only supports
-     * {@value AesCtrCipher#ALGORITHM} and {@value AesCbcCipher#ALGORITHM}.
+     * {@value AesCtrCipher#ALGORITHM}, {@value AesCbcCipher#ALGORITHM} and {@value AesGcmSegmentedCipher#ALGORITHM}.
      */
     public static KeyMaterial generateKeyMaterial(String cipherAlgorithm) {
         switch (cipherAlgorithm) {
@@ -32,6 +32,8 @@ public final class SeekableCipherFactory {
                 return AesCtrCipher.generateKeyMaterial();
             case AesCbcCipher.ALGORITHM:
                 return AesCbcCipher.generateKeyMaterial();
+            case AesGcmSegmentedCipher.ALGORITHM:
+                return AesGcmSegmentedCipher.generateKeyMaterial();
             default:
                 throw new IllegalArgumentException(
                         String.format("No known SeekableCipher with algorithm: %s", cipherAlgorithm));
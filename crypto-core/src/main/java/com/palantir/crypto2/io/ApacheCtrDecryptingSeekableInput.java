@@ -17,43 +17,64 @@
 package com.palantir.crypto2.io;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.palantir.crypto2.cipher.ApacheCiphers;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.seekio.SeekableInput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Properties;
+import java.nio.channels.ReadableByteChannel;
 import org.apache.commons.crypto.cipher.CryptoCipher;
 import org.apache.commons.crypto.stream.CtrCryptoInputStream;
 import org.apache.commons.crypto.stream.input.Input;
-import org.apache.commons.crypto.utils.Utils;
 
 /**
  * A {@link SeekableInput} that decrypts AES/CTR encrypted SeekableInputs using the given {@link KeyMaterial}. This
  * implementation uses Apache's {@link CtrCryptoInputStream} which uses OpenSSL and supports AES-NI.
+ * <p>
+ * The {@link CryptoCipher} is supplied by the caller and closed when this input is closed, which returns ciphers
+ * borrowed from an {@link OpenSslCipherPool} to the pool. The size of the decrypted buffer and of the reads of the
+ * underlying input follow the given {@link ReadBufferPolicy}.
  */
 public final class ApacheCtrDecryptingSeekableInput extends CtrCryptoInputStream implements SeekableInput {
 
     private static final String ALGORITHM = "AES/CTR/NoPadding";
-    private static final int BUFFER_SIZE = 8192;
-    // Force OpenSSL for AES-NI support
-    private static final Properties PROPS = ApacheCiphers.forceOpenSsl(new Properties());
+    private static final int BLOCK_SIZE = 16;
 
-    /**
-     * Creates a new {@link ApacheCtrDecryptingSeekableInput}. This constructor is expected to succeed if and only if
-     * the OpenSSL library is able to be loaded.
-     */
-    ApacheCtrDecryptingSeekableInput(SeekableInput input, KeyMaterial keyMaterial) throws IOException {
+    private ApacheCtrDecryptingSeekableInput(
+            SeekableInput input, KeyMaterial keyMaterial, CryptoCipher cipher, ReadBufferPolicy policy)
+            throws IOException {
         super(
-                new InputAdapter(input),
-                getCipherInstance(),
-                BUFFER_SIZE,
+                new InputAdapter(input, policy),
+                cipher,
+                policy.getStreamBufferSize(),
                 keyMaterial.getSecretKey().getEncoded(),
                 keyMaterial.getIv());
     }
 
+    /**
+     * Creates a new {@link ApacheCtrDecryptingSeekableInput} that decrypts using the given {@code cipher}, closing
+     * the cipher if the input cannot be created. This is expected to succeed if and only if the OpenSSL library is
+     * able to be loaded.
+     */
+    static ApacheCtrDecryptingSeekableInput create(
+            SeekableInput input, KeyMaterial keyMaterial, CryptoCipher cipher, ReadBufferPolicy policy)
+            throws IOException {
+        try {
+            return new ApacheCtrDecryptingSeekableInput(input, keyMaterial, cipher, policy);
+        } catch (IOException | RuntimeException e) {
+            cipher.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the direct memory allocated by an input created with the given {@code policy}.
+     */
+    static long directMemory(ReadBufferPolicy policy) {
+        return OpenSslCipherPool.directMemoryPerStream(policy.getStreamBufferSize(), BLOCK_SIZE);
+    }
+
     static CryptoCipher getCipherInstance() throws IOException {
-        return Utils.getCipherInstance(ALGORITHM, PROPS);
+        return OpenSslCipherPool.getCipherInstance(ALGORITHM);
     }
 
     @Override
@@ -76,28 +97,98 @@ public final class ApacheCtrDecryptingSeekableInput extends CtrCryptoInputStream
         super.close();
     }
 
+    /**
+     * Adapts a {@link SeekableInput} to the {@link Input} read by {@link CtrCryptoInputStream} and sizes the reads of
+     * the underlying input according to the detected access pattern. While reading sequentially each read fills the
+     * destination buffer. A backwards seek, or a forward seek further than the current read size, shrinks the read size
+     * to {@link ReadBufferPolicy#getMinBufferSize()} so that only the data around the seek is read and decrypted, and
+     * every subsequent contiguous read doubles it again until {@link ReadBufferPolicy#getMaxBufferSize()} is reached.
+     * <p>
+     * Inputs that also implement {@link ReadableByteChannel} read the ciphertext straight into the direct buffer of the
+     * decrypting stream. Other inputs are read into a heap buffer which is then copied into the direct buffer.
+     */
     @VisibleForTesting
     static final class InputAdapter implements Input {
         private final SeekableInput input;
-        private final byte[] readBuffer = new byte[BUFFER_SIZE];
+        private final ReadBufferPolicy policy;
+        private byte[] readBuffer = new byte[0];
+        private int readSize;
+        private long position;
 
         InputAdapter(SeekableInput input) {
+            this(input, ReadBufferPolicy.defaults());
+        }
+
+        InputAdapter(SeekableInput input, ReadBufferPolicy policy) {
             this.input = input;
+            this.policy = policy;
+            this.readSize = policy.getAccessPattern() == ReadBufferPolicy.AccessPattern.RANDOM
+                    ? policy.getMinBufferSize()
+                    : policy.getMaxBufferSize();
         }
 
         @Override
-        public int read(long position, byte[] buffer, int offset, int length) throws IOException {
-            input.seek(position);
-            return input.read(buffer, offset, length);
+        public int read(long readPosition, byte[] buffer, int offset, int length) throws IOException {
+            seek(readPosition);
+            int read = input.read(buffer, offset, length);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
         }
 
         @Override
         public int read(ByteBuffer dst) throws IOException {
-            int toRead = dst.remaining();
+            boolean sequential = readSize >= policy.getMaxBufferSize();
+            int toRead = sequential ? dst.remaining() : Math.min(dst.remaining(), readSize);
+            int totalRead = input instanceof ReadableByteChannel
+                    ? readDirect((ReadableByteChannel) input, dst, toRead)
+                    : readCopying(dst, toRead);
+            if (totalRead == -1) {
+                return -1;
+            }
+
+            position += totalRead;
+            if (!sequential && policy.getAccessPattern() == ReadBufferPolicy.AccessPattern.ADAPTIVE) {
+                readSize = (int) Math.min((long) readSize * 2, policy.getMaxBufferSize());
+            }
+            return totalRead;
+        }
+
+        /**
+         * Reads up to {@code toRead} bytes straight into {@code dst}, returning -1 if the first read hit EOF.
+         */
+        private static int readDirect(ReadableByteChannel channel, ByteBuffer dst, int toRead) throws IOException {
+            int limit = dst.limit();
+            dst.limit(dst.position() + toRead);
+            int totalRead = 0;
+            try {
+                while (dst.hasRemaining()) {
+                    int read = channel.read(dst);
+                    if (read == -1) {
+                        return totalRead == 0 ? -1 : totalRead;
+                    }
+                    totalRead += read;
+                }
+            } finally {
+                dst.limit(limit);
+            }
+            return totalRead;
+        }
+
+        /**
+         * Reads up to {@code toRead} bytes into {@code dst} through a heap buffer for inputs that can only read into
+         * arrays, returning -1 if the first read hit EOF.
+         */
+        private int readCopying(ByteBuffer dst, int toRead) throws IOException {
+            if (readBuffer.length < Math.min(toRead, readSize)) {
+                readBuffer = new byte[Math.min(toRead, readSize)];
+            }
+            int remaining = toRead;
             int totalRead = 0;
 
-            while (toRead > 0) {
-                int chunk = Math.min(toRead, readBuffer.length);
+            while (remaining > 0) {
+                int chunk = Math.min(remaining, readBuffer.length);
                 int read = input.read(readBuffer, 0, chunk);
 
                 if (read == -1) {
@@ -105,21 +196,20 @@ public final class ApacheCtrDecryptingSeekableInput extends CtrCryptoInputStream
                         // first read hit EOF
                         return -1;
                     } else {
-                        return totalRead;
+                        break;
                     }
                 } else {
                     dst.put(readBuffer, 0, read);
                     totalRead += read;
-                    toRead -= read;
+                    remaining -= read;
                 }
             }
-
             return totalRead;
         }
 
         @Override
         public long skip(long bytes) throws IOException {
-            input.seek(input.getPos() + bytes);
+            seek(input.getPos() + bytes);
             return bytes;
         }
 
@@ -129,8 +219,18 @@ public final class ApacheCtrDecryptingSeekableInput extends CtrCryptoInputStream
         }
 
         @Override
-        public void seek(long position) throws IOException {
-            input.seek(position);
+        public void seek(long newPosition) throws IOException {
+            if (policy.getAccessPattern() == ReadBufferPolicy.AccessPattern.ADAPTIVE
+                    && (newPosition < position || newPosition - position > readSize)) {
+                readSize = policy.getMinBufferSize();
+            }
+            input.seek(newPosition);
+            position = newPosition;
+        }
+
+        @VisibleForTesting
+        int getReadSize() {
+            return readSize;
         }
 
         @Override
@@ -0,0 +1,63 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.keys.KeyMaterial;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.commons.crypto.cipher.CryptoCipher;
+import org.apache.commons.crypto.stream.CtrCryptoOutputStream;
+
+/**
+ * A {@link CtrCryptoOutputStream} that encrypts using the given OpenSSL backed {@link CryptoCipher} and always closes
+ * the cipher when this stream is closed, even if flushing the final block fails, so that ciphers borrowed from an
+ * {@link OpenSslCipherPool} are returned to the pool.
+ */
+final class ApacheCtrEncryptingOutputStream extends CtrCryptoOutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BLOCK_SIZE = 16;
+    static final long DIRECT_MEMORY = OpenSslCipherPool.directMemoryPerStream(BUFFER_SIZE, BLOCK_SIZE);
+
+    private ApacheCtrEncryptingOutputStream(OutputStream output, KeyMaterial keyMaterial, CryptoCipher cipher)
+            throws IOException {
+        super(output, cipher, BUFFER_SIZE, keyMaterial.getSecretKey().getEncoded(), keyMaterial.getIv());
+    }
+
+    /**
+     * Creates a new {@link ApacheCtrEncryptingOutputStream} that encrypts using the given {@code cipher}, closing
+     * the cipher if the stream cannot be created.
+     */
+    static ApacheCtrEncryptingOutputStream create(OutputStream output, KeyMaterial keyMaterial, CryptoCipher cipher)
+            throws IOException {
+        try {
+            return new ApacheCtrEncryptingOutputStream(output, keyMaterial, cipher);
+        } catch (IOException | RuntimeException e) {
+            cipher.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            getCipher().close();
+        }
+    }
+}
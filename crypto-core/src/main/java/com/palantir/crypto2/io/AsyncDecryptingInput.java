@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decrypts {@value AesCtrCipher#ALGORITHM} encrypted data read from an asynchronous {@link Source} without blocking.
+ * Each read reads the encrypted bytes straight into the caller's buffer and decrypts them in place when the read
+ * completes, on the thread that completes it, using {@link CtrDecryption} starting at the read's offset. Any number of
+ * reads may therefore be outstanding at once.
+ */
+public final class AsyncDecryptingInput implements Closeable {
+
+    /** An asynchronous source of encrypted bytes which may serve concurrent reads. */
+    public interface Source extends Closeable {
+
+        /**
+         * Reads a sequence of bytes into {@code dst} starting at the given position, completing with the number of
+         * bytes read or -1 if {@code position} is at or beyond the end of the source.
+         */
+        CompletableFuture<Integer> read(long position, ByteBuffer dst);
+    }
+
+    private final Source source;
+    private final KeyMaterial keyMaterial;
+
+    AsyncDecryptingInput(Source source, KeyMaterial keyMaterial) {
+        this.source = source;
+        this.keyMaterial = keyMaterial;
+    }
+
+    /** Returns a {@link Source} that reads the given {@link AsynchronousFileChannel}. */
+    public static Source source(AsynchronousFileChannel channel) {
+        return new FileChannelSource(channel);
+    }
+
+    /**
+     * Reads and decrypts a sequence of bytes into {@code dst} starting at the given position. The returned future
+     * completes with the number of bytes read, or -1 if {@code position} is at or beyond the end of the input, once
+     * they have been decrypted. {@code dst} must not be used until the future completes.
+     */
+    public CompletableFuture<Integer> read(long position, ByteBuffer dst) {
+        if (position < 0) {
+            throw new SafeIllegalArgumentException("Negative position", SafeArg.of("position", position));
+        }
+        int start = dst.position();
+        return source.read(position, dst).thenApply(bytesRead -> {
+            if (bytesRead > 0) {
+                ByteBuffer encrypted = dst.duplicate().position(start).limit(start + bytesRead);
+                CtrDecryption.decrypt(keyMaterial, position, encrypted, encrypted);
+            }
+            return bytesRead;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private static final class FileChannelSource implements Source {
+        private final AsynchronousFileChannel channel;
+
+        FileChannelSource(AsynchronousFileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public CompletableFuture<Integer> read(long position, ByteBuffer dst) {
+            CompletableFuture<Integer> result = new CompletableFuture<>();
+            channel.read(dst, position, result, new CompletionHandler<Integer, CompletableFuture<Integer>>() {
+                @Override
+                public void completed(Integer bytesRead, CompletableFuture<Integer> future) {
+                    future.complete(bytesRead);
+                }
+
+                @Override
+                public void failed(Throwable exc, CompletableFuture<Integer> future) {
+                    future.completeExceptionally(exc);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
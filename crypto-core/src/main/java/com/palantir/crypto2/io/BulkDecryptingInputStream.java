@@ -0,0 +1,163 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+
+/**
+ * Decrypts an {@link InputStream} using a {@link Cipher} like {@link CipherInputStream}, but reads the encrypted data
+ * in chunks of up to {@code bufferSize} bytes and decrypts each chunk using a single {@link Cipher#update} call
+ * directly into the caller's array whenever the output fits. {@link CipherInputStream} decrypts through a 512 byte
+ * buffer, so large reads are split into many small updates that never reach the intrinsified bulk AES path.
+ * <p>
+ * Output that does not fit into the caller's array, for example single byte reads or bytes released by block modes
+ * once a full block is available, is kept in an internal buffer and returned by subsequent reads. The cipher is
+ * finalized once the underlying stream is exhausted, which fails if the padding of the encrypted data is invalid.
+ */
+final class BulkDecryptingInputStream extends InputStream {
+
+    private final InputStream input;
+    private final Cipher cipher;
+    private final byte[] encrypted;
+
+    private byte[] decrypted = new byte[0];
+    private int decryptedPos;
+    private int decryptedLimit;
+    private boolean finalized;
+
+    BulkDecryptingInputStream(InputStream input, Cipher cipher, int bufferSize) {
+        Preconditions.checkArgument(
+                bufferSize > 0, "bufferSize must be positive", SafeArg.of("bufferSize", bufferSize));
+        this.input = input;
+        this.cipher = cipher;
+        this.encrypted = new byte[bufferSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (decryptedPos == decryptedLimit) {
+            if (finalized) {
+                return -1;
+            }
+            fill(encrypted.length);
+        }
+        return decrypted[decryptedPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || bytes.length - length < offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+
+        while (true) {
+            if (decryptedPos < decryptedLimit) {
+                int bytesRead = Math.min(length, decryptedLimit - decryptedPos);
+                System.arraycopy(decrypted, decryptedPos, bytes, offset, bytesRead);
+                decryptedPos += bytesRead;
+                return bytesRead;
+            }
+            if (finalized) {
+                return -1;
+            }
+
+            int encryptedLength = readEncrypted(Math.min(length, encrypted.length));
+            if (encryptedLength == -1) {
+                doFinal();
+            } else if (cipher.getOutputSize(encryptedLength) <= length) {
+                int bytesRead = update(encryptedLength, bytes, offset);
+                if (bytesRead > 0) {
+                    return bytesRead;
+                }
+            } else {
+                updateBuffered(encryptedLength);
+            }
+        }
+    }
+
+    @Override
+    public int available() {
+        return decryptedLimit - decryptedPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Decrypts up to {@code length} more encrypted bytes into the internal buffer, finalizing the cipher once the
+     * underlying stream is exhausted.
+     */
+    private void fill(int length) throws IOException {
+        int encryptedLength = readEncrypted(length);
+        if (encryptedLength == -1) {
+            doFinal();
+        } else {
+            updateBuffered(encryptedLength);
+        }
+    }
+
+    private int readEncrypted(int length) throws IOException {
+        int bytesRead;
+        do {
+            bytesRead = input.read(encrypted, 0, length);
+        } while (bytesRead == 0);
+        return bytesRead;
+    }
+
+    private int update(int encryptedLength, byte[] output, int outputOffset) throws IOException {
+        try {
+            return cipher.update(encrypted, 0, encryptedLength, output, outputOffset);
+        } catch (GeneralSecurityException e) {
+            throw new SafeIoException("Unable to decrypt", e);
+        }
+    }
+
+    private void updateBuffered(int encryptedLength) throws IOException {
+        ensureDecryptedCapacity(cipher.getOutputSize(encryptedLength));
+        decryptedPos = 0;
+        decryptedLimit = update(encryptedLength, decrypted, 0);
+    }
+
+    private void doFinal() throws IOException {
+        finalized = true;
+        ensureDecryptedCapacity(cipher.getOutputSize(0));
+        decryptedPos = 0;
+        try {
+            decryptedLimit = cipher.doFinal(decrypted, 0);
+        } catch (GeneralSecurityException e) {
+            throw new SafeIoException("Unable to finalize decryption", e);
+        }
+    }
+
+    private void ensureDecryptedCapacity(int capacity) {
+        if (decrypted.length < capacity) {
+            decrypted = new byte[capacity];
+        }
+    }
+}
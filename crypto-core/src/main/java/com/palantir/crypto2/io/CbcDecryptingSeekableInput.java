@@ -0,0 +1,336 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import com.palantir.seekio.SeekableInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import org.apache.commons.crypto.cipher.CryptoCipher;
+
+/**
+ * A {@link SeekableInput} that decrypts {@value AesCbcCipher#ALGORITHM} encrypted data. Each plaintext block depends
+ * only on its own ciphertext block and the previous one, so the IV for block n is taken straight from ciphertext
+ * block n - 1 instead of decrypting it, and reads of several segments are decrypted concurrently on the common
+ * {@link ForkJoinPool} with each segment using the ciphertext block before it as its IV. Segments are decrypted using
+ * pooled OpenSSL ciphers when OpenSSL is available, and the JCE implementation otherwise.
+ * <p>
+ * Ciphertext is read into a window plus one block of lookahead which identifies the final padded block without knowing
+ * the length of the data. Reads following a seek only decrypt the blocks they cover, while sequential reads decrypt
+ * windows of at least 16 KB, and no window exceeds 4 MB. Buffers larger than the minimum window are released once the
+ * read they were allocated for has been served. Seeks are lazy: the encrypted input is only seeked when a read falls
+ * outside the decrypted window and is not contiguous with it, and the IV block is read contiguously with the blocks
+ * that follow it. The encrypted input is never seeked while reading sequentially from the start, so inputs that cannot
+ * seek may be read.
+ */
+public final class CbcDecryptingSeekableInput implements SeekableInput {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int MIN_WINDOW_SIZE = 16 * 1024;
+    private static final int MAX_WINDOW_SIZE = 4 * 1024 * 1024;
+    private static final int SEGMENT_SIZE = 256 * 1024;
+    // The IV block, the minimum window and the lookahead block
+    private static final int MIN_CAPACITY = BLOCK_SIZE + MIN_WINDOW_SIZE + BLOCK_SIZE;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final SeekableInput encryptedInput;
+    private final KeyMaterial keyMaterial;
+    private final boolean useOpenSsl;
+    private final Executor executor;
+    private final byte[] iv;
+
+    // The ciphertext block before block nextBlock, which is its IV
+    private final byte[] previousBlock = new byte[BLOCK_SIZE];
+    // Block nextBlock, when it has been read as lookahead but not decrypted
+    private final byte[] pendingBlock = new byte[BLOCK_SIZE];
+    private boolean hasPendingBlock;
+    private long nextBlock;
+    private long encryptedPos;
+
+    // The IV block followed by the ciphertext of the current window, and the decrypted window
+    private byte[] encrypted = EMPTY;
+    private byte[] decrypted = EMPTY;
+    private long windowStart;
+    private int windowLength;
+
+    private long position;
+    // Unknown until the final block has been decrypted
+    private long dataLength = -1;
+
+    public CbcDecryptingSeekableInput(SeekableInput encryptedInput, KeyMaterial keyMaterial) {
+        this(encryptedInput, keyMaterial, CryptoStreamFactory.openSslIsAvailable());
+    }
+
+    CbcDecryptingSeekableInput(SeekableInput encryptedInput, KeyMaterial keyMaterial, boolean useOpenSsl) {
+        this(encryptedInput, keyMaterial, useOpenSsl, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    CbcDecryptingSeekableInput(
+            SeekableInput encryptedInput, KeyMaterial keyMaterial, boolean useOpenSsl, Executor executor) {
+        this.iv = keyMaterial.getIv();
+        Preconditions.checkArgument(
+                iv.length == BLOCK_SIZE, "IV must be one block long", SafeArg.of("ivLength", iv.length));
+        this.encryptedInput = encryptedInput;
+        this.keyMaterial = keyMaterial;
+        this.useOpenSsl = useOpenSsl;
+        this.executor = executor;
+        System.arraycopy(iv, 0, previousBlock, 0, BLOCK_SIZE);
+    }
+
+    @Override
+    public void seek(long offset) throws IOException {
+        if (offset < 0) {
+            throw new EOFException("Cannot seek to negative offset");
+        }
+        position = offset;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (dataLength >= 0 && position >= dataLength) {
+            return -1;
+        }
+        if ((position < windowStart || position >= windowStart + windowLength) && !load(position, length)) {
+            return -1;
+        }
+
+        int windowOffset = (int) (position - windowStart);
+        int bytesRead = Math.min(length, windowLength - windowOffset);
+        System.arraycopy(decrypted, windowOffset, bytes, offset, bytesRead);
+        position += bytesRead;
+
+        // Release the buffers of a large read once it has been served rather than holding them until closed, keeping
+        // the few decrypted bytes left in the window so that sequential reads continue without seeking
+        int remaining = windowLength - windowOffset - bytesRead;
+        if (encrypted.length > MIN_CAPACITY && remaining <= MIN_WINDOW_SIZE) {
+            if (remaining == 0) {
+                encrypted = EMPTY;
+                decrypted = EMPTY;
+            } else {
+                byte[] tail = new byte[MIN_CAPACITY - BLOCK_SIZE];
+                System.arraycopy(decrypted, windowOffset + bytesRead, tail, 0, remaining);
+                encrypted = new byte[MIN_CAPACITY];
+                decrypted = tail;
+            }
+            windowStart = position;
+            windowLength = remaining;
+        }
+        return bytesRead;
+    }
+
+    @VisibleForTesting
+    int getBufferCapacity() {
+        return encrypted.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        encryptedInput.close();
+    }
+
+    /**
+     * Decrypts a window starting at the block containing {@code pos} and large enough to serve a read of
+     * {@code length} bytes, returning false if {@code pos} is at or beyond the end of the data. Reads continuing from
+     * the previous window decrypt at least {@link #MIN_WINDOW_SIZE} bytes, other reads only the blocks they cover.
+     */
+    private boolean load(long pos, int length) throws IOException {
+        long block = pos / BLOCK_SIZE;
+        boolean sequential = block == nextBlock;
+        if (!positionAt(block)) {
+            return false;
+        }
+
+        long wanted = (pos % BLOCK_SIZE + length + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+        int windowSize = (int) Math.min(MAX_WINDOW_SIZE, sequential ? Math.max(MIN_WINDOW_SIZE, wanted) : wanted);
+        int capacity = BLOCK_SIZE + windowSize + BLOCK_SIZE;
+        int retainedCapacity = Math.max(capacity, MIN_CAPACITY);
+        if (encrypted.length < capacity || encrypted.length > retainedCapacity) {
+            encrypted = new byte[retainedCapacity];
+            decrypted = new byte[retainedCapacity - BLOCK_SIZE];
+        }
+
+        System.arraycopy(previousBlock, 0, encrypted, 0, BLOCK_SIZE);
+        int filled = BLOCK_SIZE;
+        if (hasPendingBlock) {
+            System.arraycopy(pendingBlock, 0, encrypted, filled, BLOCK_SIZE);
+            filled += BLOCK_SIZE;
+        }
+        boolean endOfData = false;
+        while (filled < capacity) {
+            int bytesRead = encryptedInput.read(encrypted, filled, capacity - filled);
+            if (bytesRead == -1) {
+                endOfData = true;
+                break;
+            }
+            filled += bytesRead;
+            encryptedPos += bytesRead;
+        }
+
+        int encryptedLength = filled - BLOCK_SIZE;
+        if (encryptedLength % BLOCK_SIZE != 0) {
+            throw new SafeIoException(
+                    "Encrypted data is not a multiple of the block size",
+                    SafeArg.of("blockSize", BLOCK_SIZE),
+                    SafeArg.of("encryptedLength", block * BLOCK_SIZE + encryptedLength));
+        }
+        if (encryptedLength == 0) {
+            return false;
+        }
+
+        // Unless the end was reached the last block read is kept as lookahead
+        int decryptLength = endOfData ? encryptedLength : encryptedLength - BLOCK_SIZE;
+        decryptSegments(decryptLength);
+
+        windowStart = block * BLOCK_SIZE;
+        windowLength = decryptLength;
+        System.arraycopy(encrypted, decryptLength, previousBlock, 0, BLOCK_SIZE);
+        nextBlock = block + decryptLength / BLOCK_SIZE;
+        if (endOfData) {
+            windowLength -= paddingLength(decrypted, decryptLength);
+            dataLength = windowStart + windowLength;
+            hasPendingBlock = false;
+        } else {
+            System.arraycopy(encrypted, BLOCK_SIZE + decryptLength, pendingBlock, 0, BLOCK_SIZE);
+            hasPendingBlock = true;
+        }
+        return pos < windowStart + windowLength;
+    }
+
+    /**
+     * Prepares to decrypt from {@code block}, reading the previous ciphertext block as its IV unless the encrypted
+     * input is already positioned there. Returns false if the previous block is beyond the end of the data.
+     */
+    private boolean positionAt(long block) throws IOException {
+        if (block == nextBlock) {
+            return true;
+        }
+        if (hasPendingBlock && block == nextBlock + 1) {
+            System.arraycopy(pendingBlock, 0, previousBlock, 0, BLOCK_SIZE);
+            hasPendingBlock = false;
+            nextBlock = block;
+            return true;
+        }
+
+        hasPendingBlock = false;
+        if (block == 0) {
+            seekEncrypted(0);
+            System.arraycopy(iv, 0, previousBlock, 0, BLOCK_SIZE);
+            nextBlock = 0;
+            return true;
+        }
+
+        seekEncrypted((block - 1) * BLOCK_SIZE);
+        int filled = 0;
+        while (filled < BLOCK_SIZE) {
+            int bytesRead = encryptedInput.read(previousBlock, filled, BLOCK_SIZE - filled);
+            if (bytesRead == -1) {
+                // Resynchronize on the next read since the previous block is now incomplete
+                nextBlock = -1;
+                return false;
+            }
+            filled += bytesRead;
+            encryptedPos += bytesRead;
+        }
+        nextBlock = block;
+        return true;
+    }
+
+    private void seekEncrypted(long offset) throws IOException {
+        if (offset != encryptedPos) {
+            encryptedInput.seek(offset);
+            encryptedPos = offset;
+        }
+    }
+
+    /**
+     * Decrypts the first {@code length} bytes of ciphertext following the IV block of {@link #encrypted} into
+     * {@link #decrypted}, splitting them into segments which each use the ciphertext block before them as their IV.
+     */
+    private void decryptSegments(int length) throws IOException {
+        byte[] input = encrypted;
+        byte[] output = decrypted;
+        int segments = (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        ParallelSegments.decrypt(
+                segments,
+                index -> {
+                    int start = index * SEGMENT_SIZE;
+                    int segmentLength = Math.min(SEGMENT_SIZE, length - start);
+                    decryptSegment(input, output, start, segmentLength);
+                    return segmentLength;
+                },
+                executor);
+    }
+
+    /**
+     * Decrypts {@code length} bytes of {@code output} starting at {@code start} from the ciphertext following the IV
+     * block of {@code input}, where the IV of the segment is the ciphertext block immediately before it.
+     */
+    private void decryptSegment(byte[] input, byte[] output, int start, int length) {
+        IvParameterSpec segmentIv = new IvParameterSpec(input, start, BLOCK_SIZE);
+        try {
+            if (useOpenSsl) {
+                try (CryptoCipher cipher = OpenSslCipherPool.getDefault(OpenSslCipherPool.CBC_NO_PADDING)
+                        .borrow()) {
+                    cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getSecretKey(), segmentIv);
+                    cipher.doFinal(input, BLOCK_SIZE + start, length, output, start);
+                }
+            } else {
+                try (CipherPool.Lease lease = AesCbcCipher.borrowWithoutPadding()) {
+                    Cipher cipher = lease.getCipher();
+                    cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getSecretKey(), segmentIv);
+                    cipher.doFinal(input, BLOCK_SIZE + start, length, output, start);
+                }
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            throw new SafeIllegalStateException("Unable to decrypt segment", e, SafeArg.of("start", start));
+        }
+    }
+
+    /** Returns the length of the PKCS5 padding at the end of the {@code length} decrypted bytes. */
+    private static int paddingLength(byte[] plaintext, int length) throws IOException {
+        int padding = plaintext[length - 1] & 0xFF;
+        boolean valid = padding >= 1 && padding <= BLOCK_SIZE;
+        for (int i = length - padding; valid && i < length; i++) {
+            valid = plaintext[i] == (byte) padding;
+        }
+        if (!valid) {
+            throw new SafeIoException("Encrypted data has invalid padding");
+        }
+        return padding;
+    }
+}
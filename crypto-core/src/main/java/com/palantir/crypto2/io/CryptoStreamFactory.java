@@ -18,11 +18,16 @@ package com.palantir.crypto2.io;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
-import com.palantir.crypto2.cipher.ApacheCiphers;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
 import com.palantir.crypto2.cipher.SeekableCipher;
 import com.palantir.crypto2.cipher.SeekableCipherFactory;
 import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.logsafe.exceptions.SafeIoException;
 import com.palantir.logsafe.exceptions.SafeNullPointerException;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
@@ -31,23 +36,58 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Properties;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import javax.crypto.Cipher;
 import javax.crypto.CipherOutputStream;
-import javax.crypto.SecretKey;
-import org.apache.commons.crypto.stream.CtrCryptoOutputStream;
+import org.apache.commons.crypto.cipher.CryptoCipher;
 
+/**
+ * Creates encrypting and decrypting streams. The OpenSSL backed streams share a pool of native cipher contexts which
+ * are returned to the pool when the streams are closed, and the direct memory held by open OpenSSL streams is bounded:
+ * once the limit is reached new streams use the JCE implementation until OpenSSL streams are closed. Streams must
+ * therefore always be closed.
+ * <p>
+ * {@value AesCbcCipher#ALGORITHM} data is decrypted by a {@link CbcDecryptingSeekableInput}, which decrypts large reads
+ * in parallel using OpenSSL when it is available. Both {@value AesCtrCipher#ALGORITHM} and
+ * {@value AesCbcCipher#ALGORITHM} are encrypted using OpenSSL when it is available.
+ * <p>
+ * Data encrypted using the authenticated {@value AesGcmSegmentedCipher#ALGORITHM} format is encrypted and decrypted
+ * in parallel using the JCE implementation, and reads fail if the data fails authentication.
+ */
 public final class CryptoStreamFactory {
 
+    /**
+     * System property setting the maximum number of bytes of direct memory held by the buffers of open OpenSSL streams,
+     * 268435456 (256 MB) by default. Streams created while the limit is reached use the JCE implementation.
+     */
+    public static final String OPENSSL_MAX_DIRECT_MEMORY_PROPERTY = "crypto2.openssl.maxDirectMemory";
+
+    /**
+     * Chunk size of 16 KB is small enough to allow cipher implementations to become hot and optimize properly
+     * when given large inputs. Otherwise large array writes into a {@link CipherOutputStream} or large cipher updates
+     * fail to use intrinsified implementations. If 16 KB chunks aren't enough to produce hot methods, the I/O is small
+     * and infrequent enough that performance isn't relevant.
+     * For more information, see the details around {@code com.sun.crypto.provider.GHASH::processBlocks} in
+     * <a href="https://github.com/palantir/hadoop-crypto/pull/586#issuecomment-964394587">
+     * hadoop-crypto#586 (comment)</a>
+     */
+    static final int CHUNK_SIZE = 16 * 1024;
+
     private static final SafeLogger log = SafeLoggerFactory.get(CryptoStreamFactory.class);
-    private static final Properties PROPS = ApacheCiphers.forceOpenSsl(new Properties());
     private static final String AES_ALGORITHM = "AES/CTR/NoPadding";
+    private static final AtomicBoolean DIRECT_MEMORY_LIMIT_REACHED = new AtomicBoolean();
 
     private static final Supplier<Boolean> OPENSSL_IS_AVAILABLE = Suppliers.memoize(() -> {
         try {
             ApacheCtrDecryptingSeekableInput.getCipherInstance().close();
-            log.info("Detected OpenSSL: the openssl native implementation will be used for AES/CTR/NoPadding");
+            log.info("Detected OpenSSL: the openssl native implementation will be used for AES/CTR and AES/CBC");
             return true;
         } catch (Throwable t) {
             log.info(
@@ -60,34 +100,118 @@ public final class CryptoStreamFactory {
 
     private CryptoStreamFactory() {}
 
+    /** Returns whether the OpenSSL native implementation of {@value AesCtrCipher#ALGORITHM} can be used. */
+    static boolean openSslIsAvailable() {
+        return OPENSSL_IS_AVAILABLE.get();
+    }
+
     /**
      * Returns a {@link SeekableInput} that decrypts the given SeekableInput using the given {@link KeyMaterial} and
      * cipher {@code algorithm}. When OpenSSL is available an implementation that uses AES-NI will be returned.
      */
     public static SeekableInput decrypt(SeekableInput encryptedInput, KeyMaterial keyMaterial, String algorithm) {
-        return decrypt(encryptedInput, keyMaterial, algorithm, false);
+        return decrypt(encryptedInput, keyMaterial, algorithm, ReadBufferPolicy.defaults());
+    }
+
+    /**
+     * Returns a {@link SeekableInput} that decrypts the given SeekableInput using the given {@link KeyMaterial} and
+     * cipher {@code algorithm}. When OpenSSL is available an implementation that uses AES-NI and sizes its buffers
+     * according to the given {@link ReadBufferPolicy} will be returned.
+     */
+    public static SeekableInput decrypt(
+            SeekableInput encryptedInput, KeyMaterial keyMaterial, String algorithm, ReadBufferPolicy policy) {
+        return decrypt(encryptedInput, keyMaterial, algorithm, policy, false);
     }
 
     @VisibleForTesting
     static SeekableInput decrypt(
             SeekableInput encryptedInput, KeyMaterial keyMaterial, String algorithm, boolean forceJce) {
+        return decrypt(encryptedInput, keyMaterial, algorithm, ReadBufferPolicy.defaults(), forceJce);
+    }
+
+    private static SeekableInput decrypt(
+            SeekableInput encryptedInput,
+            KeyMaterial keyMaterial,
+            String algorithm,
+            ReadBufferPolicy policy,
+            boolean forceJce) {
+        if (algorithm.equals(AesGcmSegmentedCipher.ALGORITHM)) {
+            return new SegmentedGcmDecryptingSeekableInput(encryptedInput, keyMaterial);
+        }
+        if (algorithm.equals(AesCbcCipher.ALGORITHM)) {
+            return new CbcDecryptingSeekableInput(encryptedInput, keyMaterial, OPENSSL_IS_AVAILABLE.get() && !forceJce);
+        }
         if (!algorithm.equals(AES_ALGORITHM) || !OPENSSL_IS_AVAILABLE.get() || forceJce) {
-            return new DecryptingSeekableInput(encryptedInput, SeekableCipherFactory.getCipher(algorithm, keyMaterial));
+            return createDefaultDecryptedInput(encryptedInput, keyMaterial, algorithm);
         }
 
         try {
-            return new ApacheCtrDecryptingSeekableInput(encryptedInput, keyMaterial);
+            Optional<CryptoCipher> cipher =
+                    OpenSslCipherPool.getDefault().tryBorrow(ApacheCtrDecryptingSeekableInput.directMemory(policy));
+            if (!cipher.isPresent()) {
+                logDirectMemoryLimitReached("decryption");
+                return createDefaultDecryptedInput(encryptedInput, keyMaterial, algorithm);
+            }
+            return ApacheCtrDecryptingSeekableInput.create(encryptedInput, keyMaterial, cipher.get(), policy);
         } catch (IOException e) {
             throw new SafeIllegalStateException("Failed to create ApacheCtrDecryptingSeekableInput", e);
         }
     }
 
+    /**
+     * Returns a {@link SeekableInput} that decrypts the given local {@code file} using the given {@link KeyMaterial}
+     * and cipher {@code algorithm}, reading the file through a {@link MappedFileSeekableInput}. {@value
+     * AesCtrCipher#ALGORITHM} encrypted files are decrypted straight from the mapped file into the caller's buffer.
+     */
+    public static SeekableInput decrypt(Path file, KeyMaterial keyMaterial, String algorithm) throws IOException {
+        MappedFileSeekableInput encryptedInput = MappedFileSeekableInput.open(file);
+        if (!algorithm.equals(AES_ALGORITHM)) {
+            return decrypt(encryptedInput, keyMaterial, algorithm);
+        }
+        return new MappedCtrDecryptingSeekableInput(encryptedInput, new AesCtrCipher(keyMaterial));
+    }
+
+    /**
+     * Returns a {@link DecryptingSeekableByteChannel} that decrypts the given {@value AesCtrCipher#ALGORITHM} encrypted
+     * channel using the given {@link KeyMaterial}. Positional reads of the returned channel are thread safe. Other
+     * algorithms cannot decrypt arbitrary positions independently and are rejected.
+     */
+    public static DecryptingSeekableByteChannel decrypt(
+            SeekableByteChannel encryptedChannel, KeyMaterial keyMaterial, String algorithm) {
+        checkPositionalDecryption(algorithm);
+        return new DecryptingSeekableByteChannel(encryptedChannel, keyMaterial);
+    }
+
+    /**
+     * Returns an {@link AsyncDecryptingInput} that decrypts the given {@value AesCtrCipher#ALGORITHM} encrypted file
+     * channel using the given {@link KeyMaterial} without blocking. Other algorithms are rejected.
+     */
+    public static AsyncDecryptingInput decrypt(
+            AsynchronousFileChannel encryptedChannel, KeyMaterial keyMaterial, String algorithm) {
+        return decrypt(AsyncDecryptingInput.source(encryptedChannel), keyMaterial, algorithm);
+    }
+
+    /**
+     * Returns an {@link AsyncDecryptingInput} that decrypts the given {@value AesCtrCipher#ALGORITHM} encrypted
+     * asynchronous source using the given {@link KeyMaterial} without blocking. Other algorithms are rejected.
+     */
+    public static AsyncDecryptingInput decrypt(
+            AsyncDecryptingInput.Source encryptedSource, KeyMaterial keyMaterial, String algorithm) {
+        checkPositionalDecryption(algorithm);
+        return new AsyncDecryptingInput(encryptedSource, keyMaterial);
+    }
+
     /**
      * Returns an {@link InputStream} that decrypts the given InputStream using the given {@link KeyMaterial} and
      * cipher {@code algorithm}. When OpenSSL is available an implementation that uses AES-NI will be returned.
      */
     public static InputStream decrypt(InputStream input, KeyMaterial keyMaterial, String algorithm) {
-        return new DefaultSeekableInputStream(decrypt(new StreamSeekableInput(input), keyMaterial, algorithm));
+        // Streams cannot seek so are always read sequentially
+        return new DefaultSeekableInputStream(decrypt(
+                new StreamSeekableInput(input),
+                keyMaterial,
+                algorithm,
+                ReadBufferPolicy.of(ReadBufferPolicy.AccessPattern.SEQUENTIAL)));
     }
 
     /**
@@ -98,30 +222,82 @@ public final class CryptoStreamFactory {
         return encrypt(output, keyMaterial, algorithm, false);
     }
 
+    /**
+     * Returns a {@link WritableByteChannel} that encrypts the given WritableByteChannel using the given
+     * {@link KeyMaterial} and cipher {@code algorithm}. {@value AesCtrCipher#ALGORITHM} data is encrypted from the
+     * written buffers into a direct buffer, other algorithms are encrypted through an {@link OutputStream}.
+     */
+    public static WritableByteChannel encrypt(WritableByteChannel channel, KeyMaterial keyMaterial, String algorithm) {
+        if (algorithm.equals(AES_ALGORITHM)) {
+            return new CtrEncryptingWritableByteChannel(channel, keyMaterial);
+        }
+        return Channels.newChannel(encrypt(Channels.newOutputStream(channel), keyMaterial, algorithm));
+    }
+
     @VisibleForTesting
     static OutputStream encrypt(OutputStream output, KeyMaterial keyMaterial, String algorithm, boolean forceJce) {
-        if (!algorithm.equals(AES_ALGORITHM) || !OPENSSL_IS_AVAILABLE.get() || forceJce) {
+        if (algorithm.equals(AesGcmSegmentedCipher.ALGORITHM)) {
+            return new SegmentedGcmEncryptingOutputStream(output, keyMaterial);
+        }
+        boolean isCtr = algorithm.equals(AES_ALGORITHM);
+        boolean isCbc = algorithm.equals(AesCbcCipher.ALGORITHM);
+        if (!(isCtr || isCbc) || !OPENSSL_IS_AVAILABLE.get() || forceJce) {
             return createDefaultEncryptedStream(output, keyMaterial, algorithm);
         }
 
         try {
-            return createApacheEncryptedStream(output, keyMaterial);
+            Optional<CryptoCipher> cipher = OpenSslCipherPool.getDefault(algorithm)
+                    .tryBorrow(
+                            isCtr
+                                    ? ApacheCtrEncryptingOutputStream.DIRECT_MEMORY
+                                    : ApacheCbcEncryptingOutputStream.DIRECT_MEMORY);
+            if (!cipher.isPresent()) {
+                logDirectMemoryLimitReached("encryption");
+                return createDefaultEncryptedStream(output, keyMaterial, algorithm);
+            }
+            return isCtr
+                    ? ApacheCtrEncryptingOutputStream.create(output, keyMaterial, cipher.get())
+                    : ApacheCbcEncryptingOutputStream.create(output, keyMaterial, cipher.get());
         } catch (IOException e) {
-            throw new SafeIllegalStateException("Failed to create CtrCryptoOutputStream", e);
+            throw new SafeIllegalStateException("Failed to create OpenSSL encrypting stream", e);
         }
     }
 
-    private static OutputStream createApacheEncryptedStream(OutputStream output, KeyMaterial keyMaterial)
-            throws IOException {
-        SecretKey secretKey = keyMaterial.getSecretKey();
-        byte[] iv = keyMaterial.getIv();
-        return new CtrCryptoOutputStream(PROPS, output, secretKey.getEncoded(), iv);
+    /** Warns the first time the limit is reached since falling back to JCE silently slows down every later stream. */
+    private static void logDirectMemoryLimitReached(String operation) {
+        if (DIRECT_MEMORY_LIMIT_REACHED.compareAndSet(false, true)) {
+            log.warn(
+                    "OpenSSL direct memory limit reached, falling back to JCE implementation until OpenSSL streams are"
+                            + " closed. Ensure streams are closed or raise the limit using the system property.",
+                    SafeArg.of("operation", operation),
+                    SafeArg.of("maxDirectMemory", OpenSslCipherPool.getDefault().getMaxDirectMemory()),
+                    SafeArg.of("property", OPENSSL_MAX_DIRECT_MEMORY_PROPERTY));
+        } else {
+            log.debug(
+                    "OpenSSL direct memory limit reached, falling back to JCE implementation",
+                    SafeArg.of("operation", operation));
+        }
+    }
+
+    /** Only counter mode can decrypt reads at arbitrary positions independently of each other. */
+    private static void checkPositionalDecryption(String algorithm) {
+        if (!algorithm.equals(AES_ALGORITHM)) {
+            throw new SafeIllegalArgumentException(
+                    "Positional decryption only supports AES/CTR/NoPadding", SafeArg.of("algorithm", algorithm));
+        }
+    }
+
+    private static SeekableInput createDefaultDecryptedInput(
+            SeekableInput encryptedInput, KeyMaterial keyMaterial, String algorithm) {
+        return new DecryptingSeekableInput(encryptedInput, SeekableCipherFactory.getCipher(algorithm, keyMaterial));
     }
 
     private static OutputStream createDefaultEncryptedStream(
             OutputStream output, KeyMaterial keyMaterial, String algorithm) {
         SeekableCipher cipher = SeekableCipherFactory.getCipher(algorithm, keyMaterial);
-        return new ChunkingOutputStream(new CipherOutputStream(output, cipher.initCipher(Cipher.ENCRYPT_MODE)));
+        return new CipherReleasingOutputStream(
+                new ChunkingOutputStream(new CipherOutputStream(output, cipher.initCipher(Cipher.ENCRYPT_MODE))),
+                cipher);
     }
 
     private static class StreamSeekableInput implements SeekableInput {
@@ -152,6 +328,53 @@ public final class CryptoStreamFactory {
         }
     }
 
+    /**
+     * Returns the pooled ciphers of the given {@link SeekableCipher} once the wrapped stream has been closed. Writes
+     * fail once closed since the wrapped stream keeps using the returned ciphers, which may already be in use by
+     * another stream.
+     */
+    private static final class CipherReleasingOutputStream extends FilterOutputStream {
+        private final SeekableCipher cipher;
+        private boolean closed;
+
+        CipherReleasingOutputStream(OutputStream delegate, SeekableCipher cipher) {
+            super(delegate);
+            this.cipher = cipher;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            checkOpen();
+            out.write(value);
+        }
+
+        @Override
+        public void write(byte[] buffer, int off, int len) throws IOException {
+            checkOpen();
+            out.write(buffer, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                super.close();
+            } finally {
+                cipher.release();
+            }
+        }
+
+        private void checkOpen() throws IOException {
+            if (closed) {
+                throw new SafeIoException("Stream is closed");
+            }
+        }
+    }
+
     /**
      * {@link ChunkingOutputStream} limits the size of individual writes to the wrapped {@link OutputStream}
      * in order to prevent degraded performance on large buffers as described in
@@ -159,17 +382,6 @@ public final class CryptoStreamFactory {
      */
     static final class ChunkingOutputStream extends FilterOutputStream {
 
-        /**
-         * Chunk size of 16 KB is small enough to allow cipher implementations to become hot and optimize properly
-         * when given large inputs. Otherwise large array writes into a {@link CipherOutputStream} fail to use
-         * intrinsified implementations. If 16 KB chunks aren't enough to produce hot methods, the I/O is small
-         * and infrequent enough that performance isn't relevant.
-         * For more information, see the details around {@code com.sun.crypto.provider.GHASH::processBlocks} in
-         * <a href="https://github.com/palantir/hadoop-crypto/pull/586#issuecomment-964394587">
-         * hadoop-crypto#586 (comment)</a>
-         */
-        private static final int CHUNK_SIZE = 16 * 1024;
-
         ChunkingOutputStream(OutputStream delegate) {
             super(delegate);
         }
@@ -0,0 +1,246 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * A {@link Flow.Processor} that encrypts or decrypts a stream of {@link ByteBuffer}s using the same
+ * {@value AesCtrCipher#ALGORITHM} keystream as {@link CryptoStreamFactory#encrypt}, so that encryption can run as a
+ * non-blocking pipeline stage.
+ * <p>
+ * Each published buffer is transformed in place and published downstream as the same buffer, so the processor
+ * allocates nothing and buffers keep flowing back to whichever pool the publisher draws them from. The processor takes
+ * ownership of each buffer's remaining bytes until it is published downstream; read-only buffers are copied. Every
+ * buffer produces exactly one downstream buffer so demand is forwarded upstream unchanged, preserving backpressure.
+ * Only a single subscriber is supported.
+ */
+public final class CtrCipherProcessor implements Flow.Processor<ByteBuffer, ByteBuffer> {
+
+    private final SeekableCipher seekableCipher;
+    private final Cipher cipher;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super ByteBuffer> downstream;
+    private boolean downstreamReady;
+    private long pendingDemand;
+    private boolean done;
+    private boolean completed;
+    private Throwable error;
+
+    private CtrCipherProcessor(KeyMaterial keyMaterial, int opmode) {
+        this.seekableCipher = new AesCtrCipher(keyMaterial);
+        this.cipher = seekableCipher.initCipher(opmode);
+    }
+
+    /** Returns a processor that encrypts plaintext buffers into ciphertext buffers. */
+    public static CtrCipherProcessor encrypt(KeyMaterial keyMaterial) {
+        return new CtrCipherProcessor(keyMaterial, Cipher.ENCRYPT_MODE);
+    }
+
+    /** Returns a processor that decrypts ciphertext buffers into plaintext buffers. */
+    public static CtrCipherProcessor decrypt(KeyMaterial keyMaterial) {
+        return new CtrCipherProcessor(keyMaterial, Cipher.DECRYPT_MODE);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        synchronized (lock) {
+            if (downstream != null) {
+                subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+                subscriber.onError(new SafeIllegalStateException("CtrCipherProcessor supports a single subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+
+        // Terminal signals received before the subscriber was ready are delivered once it is
+        boolean deliverComplete;
+        Throwable deliverError;
+        synchronized (lock) {
+            downstreamReady = true;
+            deliverComplete = completed;
+            deliverError = error;
+        }
+        if (deliverError != null) {
+            subscriber.onError(deliverError);
+        } else if (deliverComplete) {
+            subscriber.onComplete();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        long demand;
+        synchronized (lock) {
+            if (upstream != null || done) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            demand = pendingDemand;
+            pendingDemand = 0;
+        }
+        if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        ByteBuffer buffer = item.isReadOnly()
+                ? ByteBuffer.allocate(item.remaining()).put(item).flip()
+                : item;
+        Flow.Subscriber<? super ByteBuffer> subscriber;
+        ShortBufferException failure = null;
+        // Transform under the lock so that a concurrent cancel cannot release the cipher while it is in use
+        synchronized (lock) {
+            if (done) {
+                return;
+            }
+            subscriber = downstream;
+            try {
+                transformInPlace(buffer);
+            } catch (ShortBufferException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            cancelUpstream();
+            onError(new SafeIllegalStateException("Unable to transform buffer", failure));
+            return;
+        }
+        subscriber.onNext(buffer);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Flow.Subscriber<? super ByteBuffer> subscriber = terminate(throwable);
+        if (subscriber != null) {
+            subscriber.onError(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        Flow.Subscriber<? super ByteBuffer> subscriber = terminate(null);
+        if (subscriber != null) {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Marks the processor as done and returns the subscriber to signal, or null if the signal must be deferred until a
+     * subscriber is ready or the processor was already done.
+     */
+    private Flow.Subscriber<? super ByteBuffer> terminate(Throwable throwable) {
+        synchronized (lock) {
+            if (done) {
+                return null;
+            }
+            done = true;
+            seekableCipher.release();
+            if (!downstreamReady) {
+                completed = throwable == null;
+                error = throwable;
+                return null;
+            }
+            return downstream;
+        }
+    }
+
+    private void transformInPlace(ByteBuffer buffer) throws ShortBufferException {
+        ByteBuffer input = buffer.duplicate();
+        ByteBuffer output = buffer.duplicate();
+        while (input.hasRemaining()) {
+            int length = Math.min(input.remaining(), CryptoStreamFactory.CHUNK_SIZE);
+            // Cipher#update rejects identical input and output buffers but supports overlapping views
+            cipher.update(input.slice(input.position(), length), output);
+            input.position(input.position() + length);
+        }
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription;
+        synchronized (lock) {
+            subscription = upstream;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private final class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onError(new SafeIllegalArgumentException("Demand must be positive", SafeArg.of("n", n)));
+                cancelUpstream();
+                return;
+            }
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                if (upstream == null) {
+                    pendingDemand = saturatedAdd(pendingDemand, n);
+                    return;
+                }
+                subscription = upstream;
+            }
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (lock) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                seekableCipher.release();
+            }
+            cancelUpstream();
+        }
+
+        private long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+
+    private enum CancelledSubscription implements Flow.Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long _n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
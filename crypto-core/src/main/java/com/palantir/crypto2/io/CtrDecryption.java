@@ -0,0 +1,255 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.CtrCounter;
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import org.apache.commons.crypto.cipher.CryptoCipher;
+
+/**
+ * Stateless random access decryption of {@value AesCtrCipher#ALGORITHM} encrypted data held by the caller, for
+ * example pages of a cache, without any stream machinery. Each call positions a cipher at the given plaintext offset
+ * using the same {@link CtrCounter} arithmetic as {@link AesCtrCipher#seek}, so calls are independent of each other and
+ * may be made concurrently from any number of threads.
+ * <p>
+ * Cipher contexts and the buffers used to position them are kept in a small shared pool rather than created for every
+ * call, and arrays are decrypted in place rather than wrapped or copied. The JCE cipher of each context is leased using
+ * {@link AesCtrCipher#borrow}, so it comes from the same provider as every other JCE decryption path. Each context
+ * keeps the counter of the last {@link KeyMaterial} it decrypted with, so calls with a different key material instance
+ * than the previous call on the same context copy its IV. Every call also allocates the {@link IvParameterSpec} each
+ * cipher must be initialized with, besides any allocations made internally by the cipher implementation. Arrays and
+ * direct buffers are decrypted using OpenSSL when it is available. Otherwise, and for buffers which are neither both
+ * direct nor both array-backed, the JCE implementation is used, which uses the AES intrinsics of the JVM.
+ */
+public final class CtrDecryption {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int MAX_IDLE_CONTEXTS = 64;
+
+    private static final BlockingQueue<Context> IDLE_CONTEXTS = new ArrayBlockingQueue<>(MAX_IDLE_CONTEXTS);
+
+    private CtrDecryption() {}
+
+    /**
+     * Decrypts the remaining bytes of {@code src}, which were encrypted starting at the plaintext {@code offset}, into
+     * {@code dst}, advancing the position of both buffers. {@code src} and {@code dst} may be the same buffer or views
+     * of the same memory, in which case the bytes are decrypted in place. Returns the number of bytes decrypted.
+     */
+    public static int decrypt(KeyMaterial keyMaterial, long offset, ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        checkArguments(offset, length, dst.remaining());
+        if (src.hasArray() && dst.hasArray()) {
+            decryptArrays(
+                    keyMaterial,
+                    offset,
+                    src.array(),
+                    src.arrayOffset() + src.position(),
+                    length,
+                    dst.array(),
+                    dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + length);
+            if (src != dst) {
+                src.position(src.position() + length);
+            }
+            return length;
+        }
+
+        // Cipher implementations require distinct input and output buffer objects
+        ByteBuffer input = src == dst ? src.duplicate() : src;
+        Context context = borrow();
+        try {
+            if (input.isDirect() && dst.isDirect() && CryptoStreamFactory.openSslIsAvailable()) {
+                context.initOpenSsl(keyMaterial, offset).update(input, dst);
+            } else {
+                context.decryptJce(keyMaterial, offset, input, dst);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new SafeIllegalStateException("Unable to decrypt", e, SafeArg.of("offset", offset));
+        } finally {
+            release(context);
+        }
+        if (src == dst) {
+            src.position(input.position());
+        }
+        return length;
+    }
+
+    /**
+     * Decrypts {@code length} bytes of {@code src} starting at {@code srcOffset}, which were encrypted starting at the
+     * plaintext {@code offset}, into {@code dst} starting at {@code dstOffset}. The arrays may be the same, in which
+     * case the bytes are decrypted in place when the offsets are equal.
+     */
+    public static void decrypt(
+            KeyMaterial keyMaterial, long offset, byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        checkArguments(offset, length, dst.length - dstOffset);
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        decryptArrays(keyMaterial, offset, src, srcOffset, length, dst, dstOffset);
+    }
+
+    @VisibleForTesting
+    static int getIdleContexts() {
+        return IDLE_CONTEXTS.size();
+    }
+
+    private static void checkArguments(long offset, int length, int dstRemaining) {
+        if (offset < 0) {
+            throw new SafeIllegalArgumentException("Negative offset", SafeArg.of("offset", offset));
+        }
+        Preconditions.checkArgument(
+                dstRemaining >= length,
+                "Destination is smaller than source",
+                SafeArg.of("length", length),
+                SafeArg.of("dstRemaining", dstRemaining));
+    }
+
+    private static void decryptArrays(
+            KeyMaterial keyMaterial, long offset, byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        Context context = borrow();
+        try {
+            // OpenSSL decrypts in place, but not between partially overlapping ranges of the same array
+            if (CryptoStreamFactory.openSslIsAvailable() && (src != dst || srcOffset == dstOffset)) {
+                context.initOpenSsl(keyMaterial, offset).update(src, srcOffset, length, dst, dstOffset);
+            } else {
+                context.decryptJce(keyMaterial, offset, src, srcOffset, length, dst, dstOffset);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new SafeIllegalStateException("Unable to decrypt", e, SafeArg.of("offset", offset));
+        } finally {
+            release(context);
+        }
+    }
+
+    private static Context borrow() {
+        Context context = IDLE_CONTEXTS.poll();
+        return context == null ? new Context() : context;
+    }
+
+    private static void release(Context context) {
+        if (!IDLE_CONTEXTS.offer(context)) {
+            context.close();
+        }
+    }
+
+    /** A JCE cipher, an OpenSSL cipher once needed, and the buffers used to position them. */
+    private static final class Context {
+        private final byte[] counterBlock = new byte[BLOCK_SIZE];
+        private final ByteBuffer counterBlockView = ByteBuffer.wrap(counterBlock);
+        private final byte[] skipInput = new byte[BLOCK_SIZE];
+        private final byte[] skipOutput = new byte[BLOCK_SIZE];
+        private CipherPool.Lease jceLease;
+        private CryptoCipher openSslCipher;
+        private KeyMaterial counterKeyMaterial;
+        private CtrCounter counter;
+
+        void decryptJce(
+                KeyMaterial keyMaterial, long offset, byte[] src, int srcOffset, int length, byte[] dst, int dstOffset)
+                throws GeneralSecurityException {
+            Cipher cipher = initJce(keyMaterial, offset);
+            for (int done = 0; done < length; done += CryptoStreamFactory.CHUNK_SIZE) {
+                int chunk = Math.min(length - done, CryptoStreamFactory.CHUNK_SIZE);
+                cipher.update(src, srcOffset + done, chunk, dst, dstOffset + done);
+            }
+        }
+
+        void decryptJce(KeyMaterial keyMaterial, long offset, ByteBuffer src, ByteBuffer dst)
+                throws GeneralSecurityException {
+            Cipher cipher = initJce(keyMaterial, offset);
+            int limit = src.limit();
+            try {
+                while (src.hasRemaining()) {
+                    src.limit(Math.min(limit, src.position() + CryptoStreamFactory.CHUNK_SIZE));
+                    cipher.update(src, dst);
+                    src.limit(limit);
+                }
+            } finally {
+                src.limit(limit);
+            }
+        }
+
+        private Cipher initJce(KeyMaterial keyMaterial, long offset) throws GeneralSecurityException {
+            if (jceLease == null) {
+                jceLease = AesCtrCipher.borrow();
+            }
+            Cipher cipher = jceLease.getCipher();
+            cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getSecretKey(), seek(keyMaterial, offset));
+            int bytesToSkip = (int) (offset % BLOCK_SIZE);
+            if (bytesToSkip > 0) {
+                cipher.update(skipInput, 0, bytesToSkip, skipOutput, 0);
+            }
+            return cipher;
+        }
+
+        CryptoCipher initOpenSsl(KeyMaterial keyMaterial, long offset) throws GeneralSecurityException {
+            if (openSslCipher == null) {
+                try {
+                    openSslCipher = ApacheCtrDecryptingSeekableInput.getCipherInstance();
+                } catch (IOException e) {
+                    throw new SafeIllegalStateException("Unable to create OpenSSL cipher", e);
+                }
+            }
+            CryptoCipher cipher = openSslCipher;
+            cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getSecretKey(), seek(keyMaterial, offset));
+            int bytesToSkip = (int) (offset % BLOCK_SIZE);
+            if (bytesToSkip > 0) {
+                cipher.update(skipInput, 0, bytesToSkip, skipOutput, 0);
+            }
+            return cipher;
+        }
+
+        /**
+         * Returns the counter block of the block containing {@code offset}, only copying the IV when
+         * {@code keyMaterial} differs from the one used by the previous call on this context.
+         */
+        private IvParameterSpec seek(KeyMaterial keyMaterial, long offset) {
+            if (keyMaterial != counterKeyMaterial) {
+                counter = new CtrCounter(keyMaterial.getIv());
+                counterKeyMaterial = keyMaterial;
+            }
+            counter.write(offset, counterBlockView);
+            return new IvParameterSpec(counterBlock);
+        }
+
+        void close() {
+            if (jceLease != null) {
+                jceLease.close();
+            }
+            if (openSslCipher != null) {
+                try {
+                    openSslCipher.close();
+                } catch (IOException e) {
+                    // Nothing more can be done with a cipher that failed to close
+                }
+            }
+        }
+    }
+}
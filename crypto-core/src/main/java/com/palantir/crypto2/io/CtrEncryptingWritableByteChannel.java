@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * A {@link WritableByteChannel} that encrypts using {@value AesCtrCipher#ALGORITHM} into a direct buffer which is
+ * written to the underlying channel, so the encrypted data needs no intermediate stream buffer. The JCE cipher may
+ * still copy direct input through heap arrays internally. Counter mode does not pad, so every write is fully encrypted
+ * and written before returning.
+ */
+final class CtrEncryptingWritableByteChannel implements WritableByteChannel {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final SeekableCipher seekableCipher;
+    private final Cipher cipher;
+    private final ByteBuffer encrypted = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private boolean closed;
+
+    CtrEncryptingWritableByteChannel(WritableByteChannel channel, KeyMaterial keyMaterial) {
+        this.channel = channel;
+        this.seekableCipher = new AesCtrCipher(keyMaterial);
+        this.cipher = seekableCipher.initCipher(Cipher.ENCRYPT_MODE);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        int bytesWritten = src.remaining();
+        while (src.hasRemaining()) {
+            int length = Math.min(src.remaining(), BUFFER_SIZE);
+            ByteBuffer input = src.slice(src.position(), length);
+            encrypted.clear();
+            try {
+                cipher.update(input, encrypted);
+            } catch (ShortBufferException e) {
+                throw new SafeIoException("Unable to encrypt", e);
+            }
+            src.position(src.position() + length);
+
+            encrypted.flip();
+            while (encrypted.hasRemaining()) {
+                channel.write(encrypted);
+            }
+        }
+        return bytesWritten;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed && channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } finally {
+            seekableCipher.release();
+        }
+    }
+}
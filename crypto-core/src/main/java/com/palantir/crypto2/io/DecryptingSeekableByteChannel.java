@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A read-only {@link SeekableByteChannel} that decrypts a {@value AesCtrCipher#ALGORITHM} encrypted channel. The
+ * encrypted bytes are read straight into the caller's buffer, heap or direct, and decrypted in place.
+ * <p>
+ * Every read is decrypted by {@link CtrDecryption} starting at the requested offset, so
+ * {@link #read(ByteBuffer, long)} may be called concurrently by many threads sharing one channel. Positional reads of
+ * a {@link FileChannel} do not move the file position; other channels are positioned and read under a lock. The
+ * channel's own position is only used by {@link #read(ByteBuffer)}, which is not thread safe.
+ */
+public final class DecryptingSeekableByteChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel channel;
+    private final KeyMaterial keyMaterial;
+
+    private long position;
+
+    DecryptingSeekableByteChannel(SeekableByteChannel channel, KeyMaterial keyMaterial) {
+        this.channel = channel;
+        this.keyMaterial = keyMaterial;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int bytesRead = read(dst, position);
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    /**
+     * Reads and decrypts a sequence of bytes starting at the given position without changing this channel's position.
+     * Returns the number of bytes read, which may be zero, or -1 if {@code position} is at or beyond the end of the
+     * channel.
+     */
+    public int read(ByteBuffer dst, long position) throws IOException {
+        if (position < 0) {
+            throw new SafeIllegalArgumentException("Negative position", SafeArg.of("position", position));
+        }
+        int start = dst.position();
+        int bytesRead = readEncrypted(dst, position);
+        if (bytesRead > 0) {
+            ByteBuffer encrypted = dst.duplicate().position(start).limit(start + bytesRead);
+            CtrDecryption.decrypt(keyMaterial, position, encrypted, encrypted);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int write(ByteBuffer _src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) {
+        if (newPosition < 0) {
+            throw new SafeIllegalArgumentException("Negative position", SafeArg.of("position", newPosition));
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        // Counter mode does not pad so the decrypted data is exactly as long as the encrypted data
+        return channel.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long _size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readEncrypted(ByteBuffer dst, long readPosition) throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).read(dst, readPosition);
+        }
+        synchronized (channel) {
+            channel.position(readPosition);
+            return channel.read(dst);
+        }
+    }
+}
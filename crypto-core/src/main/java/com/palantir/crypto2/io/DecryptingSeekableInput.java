@@ -16,58 +16,63 @@
 
 package com.palantir.crypto2.io;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.io.ByteStreams;
-import com.palantir.crypto2.cipher.CipherStreamSupplier;
-import com.palantir.crypto2.cipher.CipherStreamSupplierImpl;
 import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.logsafe.exceptions.SafeIoException;
 import com.palantir.seekio.SeekableInput;
 import java.io.IOException;
 import javax.crypto.Cipher;
-import javax.crypto.CipherInputStream;
 
 public final class DecryptingSeekableInput implements SeekableInput {
 
-    /** Size of the {@link CipherInputStream} internal buffer. */
-    private static final int CIPHER_INPUT_STREAM_BUFFER_SIZE = 512;
+    /** Default number of encrypted bytes decrypted by a single {@link Cipher#update} call. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Forward seeks shorter than this, beyond the bytes already decrypted, read forward rather than seek. */
+    private static final int MIN_SKIP_THRESHOLD = 512;
 
     private final DefaultSeekableInputStream delegate;
     private final SeekableCipher seekableCipher;
-    private final CipherStreamSupplier supplier;
+    private final int bufferSize;
     private final long skipThreshold;
 
-    private CipherInputStream decryptedStream;
+    private BulkDecryptingInputStream decryptedStream;
     private long decryptedStreamPos;
+    private boolean closed;
 
     public DecryptingSeekableInput(SeekableInput delegate, SeekableCipher cipher) {
-        this(delegate, cipher, new CipherStreamSupplierImpl());
+        this(delegate, cipher, DEFAULT_BUFFER_SIZE);
     }
 
-    @VisibleForTesting
-    DecryptingSeekableInput(SeekableInput input, SeekableCipher cipher, CipherStreamSupplier supplier) {
+    /**
+     * Creates a {@link DecryptingSeekableInput} which reads and decrypts up to {@code bufferSize} encrypted bytes at a
+     * time.
+     */
+    public DecryptingSeekableInput(SeekableInput input, SeekableCipher cipher, int bufferSize) {
         this.delegate = new DefaultSeekableInputStream(input);
         this.seekableCipher = cipher;
-        this.supplier = supplier;
+        this.bufferSize = bufferSize;
 
         /* small forward seeks can generate reverse seeks in some circumstances:
          *  1. seeking within the current block or the next block causes reading of the previous block (negative seek).
-         *  2. CipherInputStream consumes CIPHER_INPUT_STREAM_BUFFER_SIZE bytes of the underlying stream, seeking
-         *     more than a block ahead but less than this buffer results in needing to move the underlying stream
-         *     backwards.
+         *  2. BulkDecryptingInputStream consumes the underlying stream ahead of the bytes it has returned, seeking
+         *     into the bytes it has already decrypted results in needing to move the underlying stream backwards.
+         *     Such seeks skip the decrypted bytes instead, see seek.
          */
-        this.skipThreshold = Math.max(seekableCipher.getBlockSize() * 2, CIPHER_INPUT_STREAM_BUFFER_SIZE);
+        this.skipThreshold = Math.max(seekableCipher.getBlockSize() * 2, MIN_SKIP_THRESHOLD);
 
-        decryptedStream = supplier.getInputStream(delegate, cipher.initCipher(Cipher.DECRYPT_MODE));
+        decryptedStream = new BulkDecryptingInputStream(delegate, cipher.initCipher(Cipher.DECRYPT_MODE), bufferSize);
         decryptedStreamPos = 0L;
     }
 
     /**
-     * Seeking can only be done to a block offset such that pos % blockSize == 0. "AES/CBC" must be updated with the
-     * previous encrypted block in order to properly decrypt after seeking. It should therefore be seeked to block n - 1
-     * and then updated by one block in order to be initialized correctly.
+     * Seeks the underlying input and cipher to {@link SeekableCipher#getSeekOffset}. "AES/CBC" must be updated with the
+     * previous encrypted block in order to properly decrypt after seeking, so it is seeked to block n - 1 and then
+     * updated by one block in order to be initialized correctly. "AES/CTR" is seeked directly to {@code pos}.
      */
     @Override
     public void seek(long pos) throws IOException {
+        checkOpen();
         if (pos == decryptedStreamPos) {
             // short-circuit if no work to do
             return;
@@ -76,41 +81,23 @@ public final class DecryptingSeekableInput implements SeekableInput {
         // read forward within a small range to prevent forward seeks in this stream causing reverse seeks in the
         // underlying stream
         long jump = pos - decryptedStreamPos;
-        if (0 < jump && jump < skipThreshold) {
+        if (0 < jump && jump < skipThreshold + decryptedStream.available()) {
             ByteStreams.skipFully(decryptedStream, jump);
             decryptedStreamPos = pos;
             return;
         }
 
-        int blockSize = seekableCipher.getBlockSize();
-
-        // TODO(markelliot): (#34) not all SeekableCipher implementations require reading the previous blocks, we can
-        // read and decrypt less (i.e. do less work) if we were able to switch this calculation into the right mode by
-        // SeekableCipher implementation
-
-        // If pos is in the first block then seek to 0 and skip pos bytes
-        // else seek to block n - 1 where block n is the block containing the byte at offset pos
-        // in order to initialize the Cipher with the previous encrypted block
-        final long prevBlock;
-        final int bytesToSkip;
-
-        if (pos < blockSize) {
-            prevBlock = 0;
-            bytesToSkip = (int) pos;
-        } else {
-            prevBlock = pos / blockSize - 1;
-            bytesToSkip = (int) (pos % blockSize + blockSize);
-        }
-
-        long prevBlockOffset = prevBlock * blockSize;
-        Cipher cipher = seekableCipher.seek(prevBlockOffset);
-        delegate.seek(prevBlockOffset);
+        // Seek to the offset the cipher requires in order to decrypt pos, e.g. block n - 1 for ciphers that must be
+        // initialized with the previous encrypted block, or pos itself for ciphers that can seek directly
+        long seekOffset = seekableCipher.getSeekOffset(pos);
+        Cipher cipher = seekableCipher.seek(seekOffset);
+        delegate.seek(seekOffset);
 
         // Need a new cipher stream since seeking the stream and cipher invalidate the cipher stream's buffer
-        decryptedStream = supplier.getInputStream(delegate, cipher);
+        decryptedStream = new BulkDecryptingInputStream(delegate, cipher, bufferSize);
 
-        // Skip to the byte offset in the block where 'pos' is located
-        ByteStreams.skipFully(decryptedStream, bytesToSkip);
+        // Skip any bytes between the seek offset and pos
+        ByteStreams.skipFully(decryptedStream, pos - seekOffset);
         decryptedStreamPos = pos;
     }
 
@@ -121,6 +108,7 @@ public final class DecryptingSeekableInput implements SeekableInput {
 
     @Override
     public int read(byte[] buffer, int offset, int length) throws IOException {
+        checkOpen();
         int bytesRead = decryptedStream.read(buffer, offset, length);
         if (bytesRead != -1) {
             decryptedStreamPos += bytesRead;
@@ -128,12 +116,27 @@ public final class DecryptingSeekableInput implements SeekableInput {
         return bytesRead;
     }
 
+    /**
+     * Closes the underlying input and returns the pooled ciphers. Reads and seeks fail once closed since the returned
+     * ciphers may already be in use by another stream.
+     */
     @Override
     public void close() throws IOException {
-        delegate.close();
-        // TODO(davids): really this should close decryptedStream, but https://bugs.openjdk.java.net/browse/JDK-8064546
-        // causes "java.io.IOException: javax.crypto.BadPaddingException: Given final block not properly padded" and
-        // is not fixed until Java 7u85 (not publicly available) and Java 8u51.
-        // decryptedStream.close();
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            delegate.close();
+        } finally {
+            seekableCipher.release();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new SafeIoException("Stream is closed");
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import com.palantir.seekio.SeekableInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * Decrypts a {@value AesCtrCipher#ALGORITHM} encrypted {@link MappedFileSeekableInput} straight from the mapped file
+ * into the caller's buffer, without intermediate buffering. Seeking only repositions the cipher.
+ */
+final class MappedCtrDecryptingSeekableInput implements SeekableInput, ReadableByteChannel {
+
+    private final MappedFileSeekableInput input;
+    private final SeekableCipher seekableCipher;
+
+    private Cipher cipher;
+    private long position;
+    private boolean closed;
+
+    MappedCtrDecryptingSeekableInput(MappedFileSeekableInput input, SeekableCipher seekableCipher) {
+        this.input = input;
+        this.seekableCipher = seekableCipher;
+        this.cipher = seekableCipher.initCipher(Cipher.DECRYPT_MODE);
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        checkOpen();
+        if (pos == position) {
+            return;
+        }
+        if (pos < 0) {
+            throw new EOFException("Cannot seek to negative offset");
+        }
+        cipher = seekableCipher.seek(pos);
+        position = pos;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        checkOpen();
+        return read(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        int totalRead = 0;
+        while (dst.hasRemaining()) {
+            ByteBuffer src = input.slice(position, Math.min(dst.remaining(), CryptoStreamFactory.CHUNK_SIZE));
+            if (!src.hasRemaining()) {
+                return totalRead == 0 ? -1 : totalRead;
+            }
+            int length = src.remaining();
+            try {
+                cipher.update(src, dst);
+            } catch (ShortBufferException e) {
+                throw new SafeIoException("Unable to decrypt mapped file", e);
+            }
+            position += length;
+            totalRead += length;
+        }
+        return totalRead;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed && input.isOpen();
+    }
+
+    /**
+     * Closes the mapped file and returns the pooled ciphers. Reads and seeks fail once closed since the returned
+     * ciphers may already be in use by another stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            input.close();
+        } finally {
+            seekableCipher.release();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new SafeIoException("Stream is closed");
+        }
+    }
+}
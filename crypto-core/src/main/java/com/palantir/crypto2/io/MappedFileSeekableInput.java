@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.seekio.SeekableInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link SeekableInput} over a local file which reads by copying directly out of memory mapped regions of the file
+ * rather than issuing read system calls. Files larger than the window size are mapped one window at a time as they are
+ * read. The file is expected not to change size while it is open.
+ * <p>
+ * Implements {@link ReadableByteChannel} so that decrypting inputs can read directly into their own buffers.
+ * Previously mapped windows are unmapped once they are garbage collected.
+ */
+public final class MappedFileSeekableInput implements SeekableInput, ReadableByteChannel {
+
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+
+    private ByteBuffer window = ByteBuffer.allocate(0);
+    private long windowStart;
+    private long position;
+
+    private MappedFileSeekableInput(FileChannel channel, int windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Opens the given file, mapping at most 64 MB of it at a time.
+     */
+    public static MappedFileSeekableInput open(Path file) throws IOException {
+        return open(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens the given file, mapping at most {@code windowSize} bytes of it at a time.
+     */
+    public static MappedFileSeekableInput open(Path file, int windowSize) throws IOException {
+        Preconditions.checkArgument(
+                windowSize > 0, "windowSize must be positive", SafeArg.of("windowSize", windowSize));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedFileSeekableInput(channel, windowSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void seek(long offset) throws IOException {
+        if (offset < 0) {
+            throw new EOFException("Cannot seek to negative offset");
+        }
+        position = offset;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        return read(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ByteBuffer src = slice(position, dst.remaining());
+        if (!src.hasRemaining() && dst.hasRemaining()) {
+            return -1;
+        }
+        int length = src.remaining();
+        dst.put(src);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Returns a view of at most {@code maxLength} bytes of the file starting at {@code pos} without copying them,
+     * which is shorter than {@code maxLength} when the end of the current mapped window or of the file is reached and
+     * empty when {@code pos} is at or beyond the end of the file. The returned view is only valid until the next call.
+     */
+    ByteBuffer slice(long pos, int maxLength) throws IOException {
+        if (pos >= size) {
+            return window.slice(0, 0);
+        }
+        if (pos < windowStart || pos >= windowStart + window.limit()) {
+            map(pos);
+        }
+        int offset = (int) (pos - windowStart);
+        return window.slice(offset, Math.min(maxLength, window.limit() - offset));
+    }
+
+    private void map(long pos) throws IOException {
+        long start = pos - pos % windowSize;
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        window = mapped;
+        windowStart = start;
+    }
+
+    @VisibleForTesting
+    long getWindowStart() {
+        return windowStart;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = ByteBuffer.allocate(0);
+        channel.close();
+    }
+}
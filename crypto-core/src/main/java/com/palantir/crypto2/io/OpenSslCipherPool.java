@@ -0,0 +1,340 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.ApacheCiphers;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.BadPaddingException;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+import org.apache.commons.crypto.cipher.CryptoCipher;
+import org.apache.commons.crypto.utils.Utils;
+
+/**
+ * A bounded pool of OpenSSL backed {@link CryptoCipher} instances for one transformation shared by the encrypting and
+ * decrypting streams created by {@link CryptoStreamFactory}, which avoids creating and freeing a native cipher context
+ * for every stream.
+ * <p>
+ * Each borrowed cipher also reserves the direct memory that the borrowing stream allocates for its buffers, and
+ * {@link #tryBorrow} refuses to lend a cipher once the total reserved direct memory would exceed the configured
+ * maximum so that callers can fall back to a heap based implementation. The default pools share a maximum of {@value
+ * #DEFAULT_MAX_DIRECT_MEMORY} bytes, which may be overridden using the {@value
+ * CryptoStreamFactory#OPENSSL_MAX_DIRECT_MEMORY_PROPERTY} system property. Closing the borrowed cipher, which the
+ * commons crypto streams do when they are closed, returns the native cipher to the pool and releases the reservation.
+ * Borrowed ciphers that become unreachable without being closed, for example those of leaked streams, are returned
+ * once they have been garbage collected.
+ */
+final class OpenSslCipherPool {
+
+    static final String CBC_NO_PADDING = "AES/CBC/NoPadding";
+
+    private static final SafeLogger log = SafeLoggerFactory.get(OpenSslCipherPool.class);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int DEFAULT_MAX_IDLE_CIPHERS = 64;
+    static final long DEFAULT_MAX_DIRECT_MEMORY = 256L * 1024 * 1024;
+    private static final long MAX_DIRECT_MEMORY = readMaxDirectMemory();
+    // Force OpenSSL for AES-NI support
+    private static final Properties PROPS = ApacheCiphers.forceOpenSsl(new Properties());
+    private static final AtomicLong DEFAULT_RESERVED_DIRECT_MEMORY = new AtomicLong();
+    private static final OpenSslCipherPool DEFAULT = defaultPool(AesCtrCipher.ALGORITHM);
+    private static final OpenSslCipherPool DEFAULT_CBC = defaultPool(AesCbcCipher.ALGORITHM);
+    private static final OpenSslCipherPool DEFAULT_CBC_NO_PADDING = defaultPool(CBC_NO_PADDING);
+
+    private final BlockingQueue<CryptoCipher> idleCiphers;
+    private final long maxDirectMemory;
+    private final CipherFactory cipherFactory;
+    private final AtomicLong reservedDirectMemory;
+
+    @VisibleForTesting
+    OpenSslCipherPool(int maxIdleCiphers, long maxDirectMemory, CipherFactory cipherFactory) {
+        this(maxIdleCiphers, maxDirectMemory, cipherFactory, new AtomicLong());
+    }
+
+    private OpenSslCipherPool(
+            int maxIdleCiphers, long maxDirectMemory, CipherFactory cipherFactory, AtomicLong reservedDirectMemory) {
+        this.idleCiphers = new ArrayBlockingQueue<>(maxIdleCiphers);
+        this.maxDirectMemory = maxDirectMemory;
+        this.cipherFactory = cipherFactory;
+        this.reservedDirectMemory = reservedDirectMemory;
+    }
+
+    /** Returns the default pool of {@value AesCtrCipher#ALGORITHM} ciphers. */
+    static OpenSslCipherPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the default pool of ciphers for the given {@code transformation}. The default pools share a single
+     * direct memory limit.
+     */
+    static OpenSslCipherPool getDefault(String transformation) {
+        switch (transformation) {
+            case AesCtrCipher.ALGORITHM:
+                return DEFAULT;
+            case AesCbcCipher.ALGORITHM:
+                return DEFAULT_CBC;
+            case CBC_NO_PADDING:
+                return DEFAULT_CBC_NO_PADDING;
+            default:
+                throw new SafeIllegalArgumentException(
+                        "No OpenSSL cipher pool for transformation", SafeArg.of("transformation", transformation));
+        }
+    }
+
+    /** Returns a new OpenSSL backed {@link CryptoCipher} for the given {@code transformation}. */
+    static CryptoCipher getCipherInstance(String transformation) throws IOException {
+        return Utils.getCipherInstance(transformation, PROPS);
+    }
+
+    /**
+     * Returns the direct memory allocated by a commons crypto stream with the given {@code bufferSize}, which holds
+     * an input buffer of {@code bufferSize} bytes and an output buffer that is one cipher block larger.
+     */
+    static long directMemoryPerStream(int bufferSize, int blockSize) {
+        return 2L * bufferSize + blockSize;
+    }
+
+    /**
+     * Borrows a cipher and reserves {@code directMemory} bytes of direct memory for the stream that will use it, or
+     * returns {@link Optional#empty()} if the reservation would exceed the maximum direct memory of this pool.
+     */
+    Optional<CryptoCipher> tryBorrow(long directMemory) throws IOException {
+        if (!tryReserve(directMemory)) {
+            return Optional.empty();
+        }
+
+        CryptoCipher cipher = idleCiphers.poll();
+        if (cipher == null) {
+            try {
+                cipher = cipherFactory.create();
+            } catch (IOException | RuntimeException e) {
+                reservedDirectMemory.addAndGet(-directMemory);
+                throw e;
+            }
+        }
+        return Optional.of(new PooledCryptoCipher(cipher, directMemory));
+    }
+
+    /**
+     * Borrows a cipher for use without any stream buffers, which reserves no direct memory and therefore always
+     * succeeds.
+     */
+    CryptoCipher borrow() throws IOException {
+        CryptoCipher cipher = idleCiphers.poll();
+        return new PooledCryptoCipher(cipher == null ? cipherFactory.create() : cipher, 0);
+    }
+
+    long getMaxDirectMemory() {
+        return maxDirectMemory;
+    }
+
+    @VisibleForTesting
+    int getIdleCiphers() {
+        return idleCiphers.size();
+    }
+
+    @VisibleForTesting
+    long getReservedDirectMemory() {
+        return reservedDirectMemory.get();
+    }
+
+    private boolean tryReserve(long directMemory) {
+        long reserved;
+        do {
+            reserved = reservedDirectMemory.get();
+            if (reserved + directMemory > maxDirectMemory) {
+                return false;
+            }
+        } while (!reservedDirectMemory.compareAndSet(reserved, reserved + directMemory));
+        return true;
+    }
+
+    private void release(CryptoCipher cipher, long directMemory) throws IOException {
+        reservedDirectMemory.addAndGet(-directMemory);
+        if (!idleCiphers.offer(cipher)) {
+            cipher.close();
+        }
+    }
+
+    interface CipherFactory {
+        CryptoCipher create() throws IOException;
+    }
+
+    private static OpenSslCipherPool defaultPool(String transformation) {
+        return new OpenSslCipherPool(
+                DEFAULT_MAX_IDLE_CIPHERS,
+                MAX_DIRECT_MEMORY,
+                () -> getCipherInstance(transformation),
+                DEFAULT_RESERVED_DIRECT_MEMORY);
+    }
+
+    private static long readMaxDirectMemory() {
+        long maxDirectMemory =
+                Long.getLong(CryptoStreamFactory.OPENSSL_MAX_DIRECT_MEMORY_PROPERTY, DEFAULT_MAX_DIRECT_MEMORY);
+        Preconditions.checkArgument(
+                maxDirectMemory >= 0,
+                "OpenSSL maximum direct memory must be non-negative",
+                SafeArg.of("property", CryptoStreamFactory.OPENSSL_MAX_DIRECT_MEMORY_PROPERTY),
+                SafeArg.of("maxDirectMemory", maxDirectMemory));
+        return maxDirectMemory;
+    }
+
+    /**
+     * Delegates to a pooled {@link CryptoCipher} until closed. Streams re-initialize their cipher with their own key
+     * and IV before use, so no state is carried over from the previous borrower. Once closed the delegate may already
+     * be lent to another borrower, so any further use fails.
+     */
+    private final class PooledCryptoCipher implements CryptoCipher {
+        private final CryptoCipher delegate;
+        private final Reservation reservation;
+        private final Cleaner.Cleanable cleanable;
+        private boolean closed;
+
+        private PooledCryptoCipher(CryptoCipher delegate, long directMemory) {
+            this.delegate = delegate;
+            this.reservation = new Reservation(OpenSslCipherPool.this, delegate, directMemory);
+            this.cleanable = CLEANER.register(this, reservation);
+        }
+
+        @Override
+        public int getBlockSize() {
+            checkOpen();
+            return delegate.getBlockSize();
+        }
+
+        @Override
+        public String getAlgorithm() {
+            checkOpen();
+            return delegate.getAlgorithm();
+        }
+
+        @Override
+        public void init(int mode, Key key, AlgorithmParameterSpec params)
+                throws InvalidKeyException, InvalidAlgorithmParameterException {
+            checkOpen();
+            delegate.init(mode, key, params);
+        }
+
+        @Override
+        public int update(ByteBuffer inBuffer, ByteBuffer outBuffer) throws ShortBufferException {
+            checkOpen();
+            return delegate.update(inBuffer, outBuffer);
+        }
+
+        @Override
+        public int update(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+                throws ShortBufferException {
+            checkOpen();
+            return delegate.update(input, inputOffset, inputLen, output, outputOffset);
+        }
+
+        @Override
+        public int doFinal(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+                throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+            checkOpen();
+            return delegate.doFinal(input, inputOffset, inputLen, output, outputOffset);
+        }
+
+        @Override
+        public int doFinal(ByteBuffer inBuffer, ByteBuffer outBuffer)
+                throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+            checkOpen();
+            return delegate.doFinal(inBuffer, outBuffer);
+        }
+
+        @Override
+        public void updateAAD(byte[] aad) {
+            checkOpen();
+            delegate.updateAAD(aad);
+        }
+
+        @Override
+        public void updateAAD(ByteBuffer aad) {
+            checkOpen();
+            delegate.updateAAD(aad);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    reservation.release();
+                } finally {
+                    cleanable.clean();
+                }
+            }
+        }
+
+        private void checkOpen() {
+            Preconditions.checkState(!closed, "Pooled cipher already closed");
+        }
+    }
+
+    /**
+     * Returns a borrowed cipher and its direct memory reservation to the pool exactly once, either when the
+     * {@link PooledCryptoCipher} is closed or after it has been garbage collected. It must not reference the
+     * {@link PooledCryptoCipher}, which would otherwise never become unreachable.
+     */
+    private static final class Reservation implements Runnable {
+        private final OpenSslCipherPool pool;
+        private final CryptoCipher cipher;
+        private final long directMemory;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(OpenSslCipherPool pool, CryptoCipher cipher, long directMemory) {
+            this.pool = pool;
+            this.cipher = cipher;
+            this.directMemory = directMemory;
+        }
+
+        void release() throws IOException {
+            if (released.compareAndSet(false, true)) {
+                pool.release(cipher, directMemory);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                release();
+            } catch (IOException e) {
+                log.warn("Failed to close an unreachable pooled OpenSSL cipher", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.seekio.SeekableInput;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link SeekableInput} that decrypts {@value AesCtrCipher#ALGORITHM} encrypted data and splits reads of at least
+ * {@code parallelThreshold} bytes into segments that are decrypted concurrently on the common {@link ForkJoinPool}.
+ * Each CTR keystream block depends only on the key, IV and block index, so every segment is decrypted in place in the
+ * caller's buffer by {@link CtrDecryption} starting at the segment's offset. Smaller reads are served by the given
+ * {@code decrypted} input. Parallel reads restore the position of the encrypted input and then seek the decrypted
+ * input past the bytes read.
+ */
+public final class ParallelCtrDecryptingSeekableInput implements SeekableInput {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    private final SeekableInput encryptedInput;
+    private final SeekableInput decrypted;
+    private final KeyMaterial keyMaterial;
+    private final int parallelThreshold;
+    private final Executor executor;
+
+    /**
+     * Creates a new {@link ParallelCtrDecryptingSeekableInput} where {@code decrypted} must be a decrypting view of
+     * {@code encryptedInput}, for example as returned by {@link CryptoStreamFactory#decrypt}.
+     */
+    public ParallelCtrDecryptingSeekableInput(
+            SeekableInput encryptedInput, SeekableInput decrypted, KeyMaterial keyMaterial, int parallelThreshold) {
+        this(encryptedInput, decrypted, keyMaterial, parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    ParallelCtrDecryptingSeekableInput(
+            SeekableInput encryptedInput,
+            SeekableInput decrypted,
+            KeyMaterial keyMaterial,
+            int parallelThreshold,
+            Executor executor) {
+        Preconditions.checkArgument(
+                parallelThreshold > 0,
+                "Parallel decryption threshold must be positive",
+                SafeArg.of("parallelThreshold", parallelThreshold));
+        this.encryptedInput = encryptedInput;
+        this.decrypted = decrypted;
+        this.keyMaterial = keyMaterial;
+        this.parallelThreshold = parallelThreshold;
+        this.executor = executor;
+    }
+
+    @Override
+    public void seek(long offset) throws IOException {
+        decrypted.seek(offset);
+    }
+
+    @Override
+    public long getPos() throws IOException {
+        return decrypted.getPos();
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length < parallelThreshold) {
+            return decrypted.read(bytes, offset, length);
+        }
+
+        long position = decrypted.getPos();
+        // The decrypted input may have buffered past its position and only move its buffer pointer on short seeks, so
+        // the encrypted input must be returned to exactly where the decrypted input left it
+        long encryptedPosition = encryptedInput.getPos();
+        encryptedInput.seek(position);
+        int bytesRead;
+        try {
+            bytesRead = readFully(bytes, offset, length);
+        } finally {
+            encryptedInput.seek(encryptedPosition);
+        }
+        if (bytesRead > 0) {
+            decryptSegments(position, bytes, offset, bytesRead);
+        }
+
+        decrypted.seek(position + Math.max(bytesRead, 0));
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        decrypted.close();
+    }
+
+    private int readFully(byte[] bytes, int offset, int length) throws IOException {
+        int totalRead = 0;
+        while (totalRead < length) {
+            int bytesRead = encryptedInput.read(bytes, offset + totalRead, length - totalRead);
+            if (bytesRead == -1) {
+                return totalRead == 0 ? -1 : totalRead;
+            }
+            totalRead += bytesRead;
+        }
+        return totalRead;
+    }
+
+    private void decryptSegments(long position, byte[] bytes, int offset, int length) throws IOException {
+        int segments = (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        ParallelSegments.decrypt(
+                segments,
+                index -> {
+                    int start = index * SEGMENT_SIZE;
+                    int segmentLength = Math.min(SEGMENT_SIZE, length - start);
+                    CtrDecryption.decrypt(
+                            keyMaterial, position + start, bytes, offset + start, segmentLength, bytes, offset + start);
+                    return segmentLength;
+                },
+                executor);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Decrypts independent segments of a buffer concurrently. The first segment is decrypted on the calling thread rather
+ * than waiting idly, and the call only returns once every segment has finished, even if one of them failed, so that no
+ * segment writes to the buffer after the caller reuses it.
+ */
+final class ParallelSegments {
+
+    private ParallelSegments() {}
+
+    /**
+     * Applies {@code decryptSegment} to the index of each of the given number of {@code segments}, returning the sum of
+     * the results. An {@link UncheckedIOException} thrown by a segment is rethrown as its cause.
+     */
+    static int decrypt(int segments, IntUnaryOperator decryptSegment, Executor executor) throws IOException {
+        List<CompletableFuture<Integer>> remaining = new ArrayList<>();
+        for (int i = 1; i < segments; i++) {
+            int index = i;
+            remaining.add(CompletableFuture.supplyAsync(() -> decryptSegment.applyAsInt(index), executor));
+        }
+
+        try {
+            int total = segments > 0 ? decryptSegment.applyAsInt(0) : 0;
+            for (CompletableFuture<Integer> segment : remaining) {
+                total += segment.join();
+            }
+            return total;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new SafeIoException("Failed to decrypt segment", e.getCause());
+        } finally {
+            CompletableFuture.allOf(remaining.toArray(new CompletableFuture<?>[0]))
+                    .exceptionally(_e -> null)
+                    .join();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * An {@link OutputStream} that encrypts using {@value AesCtrCipher#ALGORITHM} and overlaps encryption with writes to
+ * the underlying stream. Written bytes are collected into chunks of {@code chunkSize} bytes. Every full chunk is
+ * encrypted in place on the common {@link ForkJoinPool} by a cipher seeked to the chunk's offset, so independent chunks
+ * are encrypted in parallel, and the encrypted chunks are then written to the underlying stream in order on a
+ * background thread. At most {@code maxChunksInFlight} chunks are being encrypted or written at any time, after which
+ * writes block until the oldest chunk has been written. Ciphers are reused across chunks, and each chunk is encrypted
+ * in 16 KB slices since large cipher updates do not use the intrinsified AES implementation.
+ * <p>
+ * {@link #flush()} and {@link #close()} wait for every chunk written so far to reach the underlying stream before
+ * flushing or closing it. Failures to encrypt or write a chunk are thrown from the next call that waits for it.
+ * Instances are not thread safe.
+ */
+public final class PipelinedCtrEncryptingOutputStream extends OutputStream {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 4;
+    private static final Executor WRITE_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("pipelined-encrypted-write-%d")
+            .setDaemon(true)
+            .build());
+
+    private final OutputStream output;
+    private final KeyMaterial keyMaterial;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final Executor encryptExecutor;
+    private final Deque<Chunk> chunksInFlight = new ArrayDeque<>();
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+    private final Queue<SeekableCipher> idleCiphers = new ConcurrentLinkedQueue<>();
+    private final byte[] oneByte = new byte[1];
+
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    private byte[] buffer;
+    private int bufferPos;
+    private long chunkOffset;
+    private boolean closed;
+
+    public PipelinedCtrEncryptingOutputStream(OutputStream output, KeyMaterial keyMaterial) {
+        this(output, keyMaterial, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PipelinedCtrEncryptingOutputStream(OutputStream output, KeyMaterial keyMaterial, int chunkSize) {
+        this(output, keyMaterial, chunkSize, DEFAULT_MAX_CHUNKS_IN_FLIGHT, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    PipelinedCtrEncryptingOutputStream(
+            OutputStream output,
+            KeyMaterial keyMaterial,
+            int chunkSize,
+            int maxChunksInFlight,
+            Executor encryptExecutor) {
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive", SafeArg.of("chunkSize", chunkSize));
+        Preconditions.checkArgument(
+                maxChunksInFlight > 0,
+                "Maximum chunks in flight must be positive",
+                SafeArg.of("maxChunksInFlight", maxChunksInFlight));
+        this.output = output;
+        this.keyMaterial = keyMaterial;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.encryptExecutor = encryptExecutor;
+    }
+
+    @Override
+    public void write(int byteValue) throws IOException {
+        oneByte[0] = (byte) byteValue;
+        write(oneByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        checkOpen();
+        if (off < 0 || len < 0 || bytes.length - len < off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        int currentOffset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (buffer == null) {
+                buffer = freeBuffers.isEmpty() ? new byte[chunkSize] : freeBuffers.pop();
+            }
+            int toCopy = Math.min(remaining, chunkSize - bufferPos);
+            System.arraycopy(bytes, currentOffset, buffer, bufferPos, toCopy);
+            bufferPos += toCopy;
+            currentOffset += toCopy;
+            remaining -= toCopy;
+
+            if (bufferPos == chunkSize) {
+                submitChunk();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        submitChunk();
+        awaitChunksInFlight();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            submitChunk();
+            awaitChunksInFlight();
+            output.flush();
+        } finally {
+            try {
+                output.close();
+            } finally {
+                releaseCiphers();
+            }
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new SafeIoException("Stream is closed");
+        }
+    }
+
+    /**
+     * Schedules the encryption of the current buffer followed by its write to the underlying stream after all
+     * previously submitted chunks have been written.
+     */
+    private void submitChunk() throws IOException {
+        if (bufferPos == 0) {
+            return;
+        }
+
+        while (chunksInFlight.size() >= maxChunksInFlight) {
+            awaitOldestChunk();
+        }
+
+        byte[] chunk = buffer;
+        int length = bufferPos;
+        long offset = chunkOffset;
+        CompletableFuture<Void> encrypted =
+                CompletableFuture.runAsync(() -> encrypt(chunk, length, offset), encryptExecutor);
+        lastWrite =
+                lastWrite.thenCombineAsync(encrypted, (_written, _encrypted) -> write(chunk, length), WRITE_EXECUTOR);
+        chunksInFlight.add(new Chunk(chunk, lastWrite));
+
+        chunkOffset += length;
+        buffer = null;
+        bufferPos = 0;
+    }
+
+    private void awaitChunksInFlight() throws IOException {
+        while (!chunksInFlight.isEmpty()) {
+            awaitOldestChunk();
+        }
+    }
+
+    private void awaitOldestChunk() throws IOException {
+        Chunk chunk = chunksInFlight.pop();
+        try {
+            chunk.written.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new SafeIoException("Failed to encrypt chunk", e.getCause());
+        }
+        freeBuffers.push(chunk.buffer);
+    }
+
+    /**
+     * Encrypts the chunk using an idle cipher of this stream, or a new one if all are in use, so that at most
+     * {@code maxChunksInFlight} ciphers are created.
+     */
+    private void encrypt(byte[] chunk, int length, long offset) {
+        SeekableCipher seekableCipher = idleCiphers.poll();
+        if (seekableCipher == null) {
+            seekableCipher = new AesCtrCipher(keyMaterial);
+            seekableCipher.initCipher(Cipher.ENCRYPT_MODE);
+        }
+        try {
+            Cipher cipher = seekableCipher.seek(offset);
+            for (int done = 0; done < length; done += CryptoStreamFactory.CHUNK_SIZE) {
+                int slice = Math.min(length - done, CryptoStreamFactory.CHUNK_SIZE);
+                cipher.update(chunk, done, slice, chunk, done);
+            }
+        } catch (ShortBufferException e) {
+            throw new SafeIllegalStateException("Unable to encrypt chunk", e, SafeArg.of("offset", offset));
+        } finally {
+            idleCiphers.add(seekableCipher);
+        }
+    }
+
+    /**
+     * Returns the pooled ciphers of every idle cipher. Ciphers of chunks still being encrypted after a failure are not
+     * returned, which only means that the pool creates new ones.
+     */
+    private void releaseCiphers() {
+        SeekableCipher cipher;
+        while ((cipher = idleCiphers.poll()) != null) {
+            cipher.release();
+        }
+    }
+
+    private Void write(byte[] chunk, int length) {
+        try {
+            output.write(chunk, 0, length);
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] buffer;
+        private final CompletableFuture<Void> written;
+
+        private Chunk(byte[] buffer, CompletableFuture<Void> written) {
+            this.buffer = buffer;
+            this.written = written;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import org.immutables.value.Value;
+
+/**
+ * Controls the size of the buffers used by the OpenSSL backed decrypting input returned by {@link
+ * CryptoStreamFactory#decrypt(com.palantir.seekio.SeekableInput, com.palantir.crypto2.keys.KeyMaterial, String,
+ * ReadBufferPolicy)}. Sequential reads are served by large reads of the underlying input whereas random reads only read
+ * and decrypt up to {@link #getMinBufferSize()} bytes after each seek.
+ * <p>
+ * Every OpenSSL backed input reserves twice its stream buffer size of direct memory from the shared limit of the
+ * {@link OpenSslCipherPool} for its whole life, so both sizes default to 8 KB. Raising {@link #getMaxBufferSize()}
+ * speeds up sequential reads at the cost of fewer concurrently open OpenSSL backed inputs.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class ReadBufferPolicy {
+
+    /** Smallest buffer size supported by the commons crypto streams. */
+    private static final int MIN_SUPPORTED_BUFFER_SIZE = 512;
+
+    public enum AccessPattern {
+        /**
+         * Starts out reading sequentially and switches to random reads after a backwards seek or a forward seek
+         * further than the current buffer size. Every subsequent contiguous read doubles the buffer size until
+         * {@link #getMaxBufferSize()} is reached, at which point the input reads sequentially again.
+         */
+        ADAPTIVE,
+        /** Always reads {@link #getMaxBufferSize()} bytes at a time, suitable for whole file scans. */
+        SEQUENTIAL,
+        /** Always reads at most {@link #getMinBufferSize()} bytes at a time, suitable for point reads. */
+        RANDOM
+    }
+
+    @Value.Default
+    public AccessPattern getAccessPattern() {
+        return AccessPattern.ADAPTIVE;
+    }
+
+    @Value.Default
+    public int getMinBufferSize() {
+        return 8 * 1024;
+    }
+
+    @Value.Default
+    public int getMaxBufferSize() {
+        return 8 * 1024;
+    }
+
+    /**
+     * Size of the buffer decrypted at once by the decrypting stream, which is also the largest read of the underlying
+     * input.
+     */
+    int getStreamBufferSize() {
+        return getAccessPattern() == AccessPattern.RANDOM ? getMinBufferSize() : getMaxBufferSize();
+    }
+
+    @Value.Check
+    protected final void check() {
+        Preconditions.checkArgument(
+                getMinBufferSize() >= MIN_SUPPORTED_BUFFER_SIZE,
+                "Minimum buffer size is too small",
+                SafeArg.of("minBufferSize", getMinBufferSize()),
+                SafeArg.of("minSupportedBufferSize", MIN_SUPPORTED_BUFFER_SIZE));
+        Preconditions.checkArgument(
+                getMinBufferSize() <= getMaxBufferSize(),
+                "Minimum buffer size must not exceed the maximum buffer size",
+                SafeArg.of("minBufferSize", getMinBufferSize()),
+                SafeArg.of("maxBufferSize", getMaxBufferSize()));
+    }
+
+    public static ReadBufferPolicy defaults() {
+        return builder().build();
+    }
+
+    public static ReadBufferPolicy of(AccessPattern accessPattern) {
+        return builder().accessPattern(accessPattern).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends ImmutableReadBufferPolicy.Builder {}
+}
@@ -0,0 +1,255 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import com.palantir.seekio.SeekableInput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link SeekableInput} that asynchronously reads ahead of the current position of the given {@code input}, which is
+ * typically a decrypting input returned by {@link CryptoStreamFactory#decrypt}. Up to {@code readaheadBuffers} buffers
+ * of {@code bufferSize} bytes are fetched and decrypted in the background while the caller consumes the current buffer.
+ * <p>
+ * Seeking forward within the bytes that have already been requested discards the buffers before the new position.
+ * Any other seek cancels the outstanding readahead, waiting for at most one in-progress read of the given input to
+ * finish, before seeking the given input. Instances are not thread safe.
+ */
+public final class ReadaheadSeekableInput implements SeekableInput {
+
+    private static final Executor READAHEAD_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("seekable-input-readahead-%d")
+            .setDaemon(true)
+            .build());
+
+    private final SeekableInput input;
+    private final int bufferSize;
+    private final int readaheadBuffers;
+    private final Executor executor;
+    private final Deque<CompletableFuture<Chunk>> readahead = new ArrayDeque<>();
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+    // Incremented to make outstanding fetches skip reading from the input
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private CompletableFuture<Chunk> lastFetch;
+    private Chunk current;
+    private boolean initialized;
+    private boolean reachedEof;
+    private long position;
+    private long fetchPosition;
+
+    public ReadaheadSeekableInput(SeekableInput input, int bufferSize, int readaheadBuffers) {
+        this(input, bufferSize, readaheadBuffers, READAHEAD_EXECUTOR);
+    }
+
+    @VisibleForTesting
+    ReadaheadSeekableInput(SeekableInput input, int bufferSize, int readaheadBuffers, Executor executor) {
+        Preconditions.checkArgument(
+                bufferSize > 0, "Readahead buffer size must be positive", SafeArg.of("bufferSize", bufferSize));
+        Preconditions.checkArgument(
+                readaheadBuffers > 0,
+                "Number of readahead buffers must be positive",
+                SafeArg.of("readaheadBuffers", readaheadBuffers));
+        this.input = input;
+        this.bufferSize = bufferSize;
+        this.readaheadBuffers = readaheadBuffers;
+        this.executor = executor;
+        this.lastFetch = CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void seek(long offset) throws IOException {
+        initialize();
+        if (offset == position) {
+            return;
+        }
+
+        if (current != null && current.start <= offset && offset <= current.start + current.length) {
+            current.pos = (int) (offset - current.start);
+            position = offset;
+            return;
+        }
+
+        if (position < offset && offset < fetchPosition) {
+            while (advance()) {
+                if (offset <= current.start + current.length) {
+                    current.pos = (int) (offset - current.start);
+                    position = offset;
+                    return;
+                }
+            }
+        }
+
+        cancelReadahead();
+        input.seek(offset);
+        position = offset;
+        fetchPosition = offset;
+        reachedEof = false;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+        initialize();
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        initialize();
+        if (length == 0) {
+            return 0;
+        }
+
+        if ((current == null || current.remaining() == 0) && !advance()) {
+            return -1;
+        }
+
+        int bytesRead = Math.min(length, current.remaining());
+        System.arraycopy(current.data, current.pos, bytes, offset, bytesRead);
+        current.pos += bytesRead;
+        position += bytesRead;
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        cancelReadahead();
+        input.close();
+    }
+
+    private void initialize() throws IOException {
+        if (!initialized) {
+            position = input.getPos();
+            fetchPosition = position;
+            initialized = true;
+        }
+    }
+
+    /**
+     * Replaces the current buffer with the next buffer of readahead, returning false if the end of the input has been
+     * reached.
+     */
+    private boolean advance() throws IOException {
+        if (current != null) {
+            freeBuffers.push(current.data);
+            current = null;
+        }
+
+        fillReadahead();
+        if (readahead.isEmpty()) {
+            return false;
+        }
+
+        current = await(readahead.pop());
+        if (current.length == 0) {
+            reachedEof = true;
+            return false;
+        }
+        position = current.start;
+        fillReadahead();
+        return true;
+    }
+
+    private void fillReadahead() {
+        while (!reachedEof && readahead.size() < readaheadBuffers) {
+            byte[] buffer = freeBuffers.isEmpty() ? new byte[bufferSize] : freeBuffers.pop();
+            long start = fetchPosition;
+            int fetchGeneration = generation.get();
+            // Fetches are chained so that only one thread reads from the input at a time
+            lastFetch = lastFetch.thenApplyAsync(_previous -> fetch(buffer, start, fetchGeneration), executor);
+            readahead.add(lastFetch);
+            fetchPosition += bufferSize;
+        }
+    }
+
+    private Chunk fetch(byte[] buffer, long start, int fetchGeneration) {
+        int length = 0;
+        try {
+            while (generation.get() == fetchGeneration && length < buffer.length) {
+                int bytesRead = input.read(buffer, length, buffer.length - length);
+                if (bytesRead == -1) {
+                    break;
+                }
+                length += bytesRead;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Chunk(buffer, start, length);
+    }
+
+    private void cancelReadahead() throws IOException {
+        generation.incrementAndGet();
+        try {
+            lastFetch.join();
+        } catch (CompletionException e) {
+            // The input is repositioned after cancelling so earlier failures are irrelevant
+        }
+
+        for (CompletableFuture<Chunk> chunk : readahead) {
+            if (!chunk.isCompletedExceptionally()) {
+                freeBuffers.push(chunk.join().data);
+            }
+        }
+        readahead.clear();
+        lastFetch = CompletableFuture.completedFuture(null);
+        if (current != null) {
+            freeBuffers.push(current.data);
+            current = null;
+        }
+    }
+
+    private static Chunk await(CompletableFuture<Chunk> chunk) throws IOException {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new SafeIoException("Failed to read ahead", e.getCause());
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] data;
+        private final long start;
+        private final int length;
+        private int pos;
+
+        private Chunk(byte[] data, long start, int length) {
+            this.data = data;
+            this.start = start;
+            this.length = length;
+        }
+
+        private int remaining() {
+            return length - pos;
+        }
+    }
+}
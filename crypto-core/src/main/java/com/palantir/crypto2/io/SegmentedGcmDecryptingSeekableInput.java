@@ -0,0 +1,242 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import com.palantir.seekio.SeekableInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import javax.crypto.AEADBadTagException;
+
+/**
+ * A {@link SeekableInput} that decrypts and authenticates data encrypted using the
+ * {@value AesGcmSegmentedCipher#ALGORITHM} format. Seeking is free as the encrypted input is only repositioned when
+ * the segment containing the new position is read. Reads load the segments they span, up to
+ * {@value #MAX_SEGMENTS_PER_LOAD} at a time, and decrypt them concurrently on the common {@link ForkJoinPool}.
+ * <p>
+ * A read fails with an {@link IOException} if a segment it loads fails authentication because the encrypted data was
+ * modified, reordered or truncated. Decrypted bytes are only returned once the segment they belong to has been
+ * authenticated.
+ */
+public final class SegmentedGcmDecryptingSeekableInput implements SeekableInput {
+
+    private static final int MAX_SEGMENTS_PER_LOAD = 16;
+
+    private final SeekableInput encryptedInput;
+    private final AesGcmSegmentedCipher cipher;
+    private final Executor executor;
+
+    private byte[] encrypted = new byte[0];
+    private byte[] window = new byte[0];
+    private long windowStart;
+    private int windowLength;
+    private long position;
+    private long encryptedPos;
+    // Length of the decrypted data once its last segment has been authenticated, or -1 if not yet known
+    private long dataLength = -1;
+
+    // The byte following the segments that were last loaded, which was read to determine whether they were last
+    private boolean hasLookahead;
+    private byte lookahead;
+    private long lookaheadOffset;
+
+    public SegmentedGcmDecryptingSeekableInput(SeekableInput encryptedInput, KeyMaterial keyMaterial) {
+        this(encryptedInput, keyMaterial, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    SegmentedGcmDecryptingSeekableInput(SeekableInput encryptedInput, KeyMaterial keyMaterial, Executor executor) {
+        this.encryptedInput = encryptedInput;
+        this.cipher = new AesGcmSegmentedCipher(keyMaterial);
+        this.executor = executor;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0) {
+            throw new EOFException("Cannot seek to negative offset");
+        }
+        position = pos;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (dataLength >= 0 && position >= dataLength) {
+            return -1;
+        }
+        if (position < windowStart || position >= windowStart + windowLength) {
+            if (!load(length)) {
+                return -1;
+            }
+        }
+
+        int windowOffset = (int) (position - windowStart);
+        int bytesRead = Math.min(length, windowLength - windowOffset);
+        System.arraycopy(window, windowOffset, bytes, offset, bytesRead);
+        position += bytesRead;
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        encryptedInput.close();
+    }
+
+    /**
+     * Decrypts the segments spanned by a read of {@code length} bytes at the current position into the window,
+     * returning false if the current position is at or beyond the end of the data.
+     */
+    private boolean load(int length) throws IOException {
+        long firstSegment = position / AesGcmSegmentedCipher.SEGMENT_SIZE;
+        long offsetInSegment = position % AesGcmSegmentedCipher.SEGMENT_SIZE;
+        int segments = (int) Math.max(
+                1,
+                Math.min(
+                        MAX_SEGMENTS_PER_LOAD,
+                        (offsetInSegment + length + AesGcmSegmentedCipher.SEGMENT_SIZE - 1)
+                                / AesGcmSegmentedCipher.SEGMENT_SIZE));
+
+        // Read one more byte than the segments to determine whether the last segment read is the last of the data
+        int toRead = segments * AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE + 1;
+        if (encrypted.length < toRead) {
+            encrypted = new byte[toRead];
+            window = new byte[segments * AesGcmSegmentedCipher.SEGMENT_SIZE];
+        }
+        long encryptedOffset = firstSegment * AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE;
+        int bytesRead = readEncrypted(encryptedOffset, toRead);
+
+        windowStart = firstSegment * AesGcmSegmentedCipher.SEGMENT_SIZE;
+        windowLength = 0;
+        if (bytesRead <= 0) {
+            authenticateLastSegment(firstSegment);
+            return false;
+        }
+
+        int segmentsRead = Math.min(
+                segments,
+                (bytesRead + AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE - 1)
+                        / AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE);
+        windowLength =
+                ParallelSegments.decrypt(segmentsRead, index -> decrypt(firstSegment, index, bytesRead), executor);
+        if (bytesRead < toRead) {
+            // No encrypted bytes follow the loaded segments so the last of them was the last segment of the data
+            dataLength = windowStart + windowLength;
+        }
+        return position < windowStart + windowLength;
+    }
+
+    /**
+     * Authenticates the last segment of the data once the encrypted data was found to end before segment
+     * {@code endSegment}, so that reaching the end of the data fails if the encrypted data was truncated, even to
+     * nothing, rather than appearing to be a shorter file.
+     */
+    private void authenticateLastSegment(long endSegment) throws IOException {
+        // Binary search for the last segment that has any encrypted bytes
+        long present = -1;
+        long missing = endSegment;
+        while (missing - present > 1) {
+            long segment = present + (missing - present) / 2;
+            if (readEncrypted(segment * AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE, 1) > 0) {
+                present = segment;
+            } else {
+                missing = segment;
+            }
+        }
+        if (present < 0) {
+            throw new SafeIoException("Encrypted segment is truncated", SafeArg.of("segment", 0L));
+        }
+
+        // Loading the segment authenticates it as the last one, as no encrypted bytes follow it
+        long pos = position;
+        position = present * AesGcmSegmentedCipher.SEGMENT_SIZE;
+        try {
+            load(1);
+        } finally {
+            position = pos;
+        }
+    }
+
+    /**
+     * Decrypts the {@code index}-th of the loaded segments into the window, where {@code bytesRead} bytes of encrypted
+     * data were loaded. A segment is the last one of the data if no encrypted bytes follow it.
+     */
+    private int decrypt(long firstSegment, int index, int bytesRead) {
+        int start = index * AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE;
+        int length = Math.min(AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE, bytesRead - start);
+        boolean last = bytesRead - start <= AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE;
+        long segment = firstSegment + index;
+        if (length < AesGcmSegmentedCipher.TAG_SIZE) {
+            throw new UncheckedIOException(
+                    new SafeIoException("Encrypted segment is truncated", SafeArg.of("segment", segment)));
+        }
+        try {
+            return cipher.decryptSegment(
+                    segment, last, encrypted, start, length, window, index * AesGcmSegmentedCipher.SEGMENT_SIZE);
+        } catch (AEADBadTagException e) {
+            throw new UncheckedIOException(
+                    new SafeIoException("Encrypted segment failed authentication", e, SafeArg.of("segment", segment)));
+        }
+    }
+
+    /**
+     * Reads up to {@code length} bytes of encrypted data at {@code offset} into the encrypted buffer, stopping early
+     * only at the end of the data. The encrypted input is only repositioned if it is not already at {@code offset}.
+     */
+    private int readEncrypted(long offset, int length) throws IOException {
+        int totalRead = 0;
+        if (hasLookahead && lookaheadOffset == offset) {
+            encrypted[0] = lookahead;
+            totalRead = 1;
+        }
+        hasLookahead = false;
+
+        if (encryptedPos != offset + totalRead) {
+            encryptedInput.seek(offset + totalRead);
+            encryptedPos = offset + totalRead;
+        }
+        while (totalRead < length) {
+            int bytesRead = encryptedInput.read(encrypted, totalRead, length - totalRead);
+            if (bytesRead == -1) {
+                break;
+            }
+            totalRead += bytesRead;
+            encryptedPos += bytesRead;
+        }
+
+        if (totalRead == length) {
+            hasLookahead = true;
+            lookahead = encrypted[length - 1];
+            lookaheadOffset = offset + length - 1;
+        }
+        return totalRead;
+    }
+}
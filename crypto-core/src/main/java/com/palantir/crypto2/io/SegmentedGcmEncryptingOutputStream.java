@@ -0,0 +1,187 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An {@link OutputStream} that encrypts using the {@value AesGcmSegmentedCipher#ALGORITHM} format. Written bytes are
+ * collected into chunks of several segments and every chunk is encrypted on the common {@link ForkJoinPool}, so
+ * independent chunks are encrypted in parallel while they are written to the underlying stream in order. At most
+ * {@code maxChunksInFlight} chunks are being encrypted at any time, after which writes block until the oldest chunk
+ * has been written.
+ * <p>
+ * Only the last segment of the format may be shorter than {@value AesGcmSegmentedCipher#SEGMENT_SIZE} bytes, so
+ * buffered bytes are only encrypted and written once the segment they belong to is complete or the stream is closed.
+ * {@link #flush()} therefore only waits for complete chunks to reach the underlying stream. Instances are not thread
+ * safe.
+ */
+public final class SegmentedGcmEncryptingOutputStream extends OutputStream {
+
+    private static final int SEGMENTS_PER_CHUNK = 16;
+    private static final int CHUNK_SIZE = SEGMENTS_PER_CHUNK * AesGcmSegmentedCipher.SEGMENT_SIZE;
+    private static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 4;
+
+    private final OutputStream output;
+    private final AesGcmSegmentedCipher cipher;
+    private final int maxChunksInFlight;
+    private final Executor encryptExecutor;
+    private final Deque<CompletableFuture<byte[]>> chunksInFlight = new ArrayDeque<>();
+    private final byte[] oneByte = new byte[1];
+
+    private byte[] buffer = new byte[CHUNK_SIZE];
+    private int bufferPos;
+    private long nextSegment;
+    private boolean closed;
+
+    public SegmentedGcmEncryptingOutputStream(OutputStream output, KeyMaterial keyMaterial) {
+        this(output, keyMaterial, DEFAULT_MAX_CHUNKS_IN_FLIGHT, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    SegmentedGcmEncryptingOutputStream(
+            OutputStream output, KeyMaterial keyMaterial, int maxChunksInFlight, Executor encryptExecutor) {
+        Preconditions.checkArgument(
+                maxChunksInFlight > 0,
+                "Maximum chunks in flight must be positive",
+                SafeArg.of("maxChunksInFlight", maxChunksInFlight));
+        this.output = output;
+        this.cipher = new AesGcmSegmentedCipher(keyMaterial);
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.encryptExecutor = encryptExecutor;
+    }
+
+    @Override
+    public void write(int byteValue) throws IOException {
+        oneByte[0] = (byte) byteValue;
+        write(oneByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        checkOpen();
+        if (off < 0 || len < 0 || bytes.length - len < off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        int currentOffset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            // A full chunk is only submitted once more bytes arrive as its last segment may be the last of the file
+            if (bufferPos == CHUNK_SIZE) {
+                submitChunk(false);
+            }
+            int toCopy = Math.min(remaining, CHUNK_SIZE - bufferPos);
+            System.arraycopy(bytes, currentOffset, buffer, bufferPos, toCopy);
+            bufferPos += toCopy;
+            currentOffset += toCopy;
+            remaining -= toCopy;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        awaitChunksInFlight();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            submitChunk(true);
+            awaitChunksInFlight();
+            output.flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new SafeIoException("Stream is closed");
+        }
+    }
+
+    /**
+     * Schedules the encryption of the current buffer, marking its final segment as the last segment of the file if
+     * {@code last} is set.
+     */
+    private void submitChunk(boolean last) throws IOException {
+        while (chunksInFlight.size() >= maxChunksInFlight) {
+            writeOldestChunk();
+        }
+
+        byte[] chunk = buffer;
+        int length = bufferPos;
+        long firstSegment = nextSegment;
+        int segments =
+                Math.max(1, (length + AesGcmSegmentedCipher.SEGMENT_SIZE - 1) / AesGcmSegmentedCipher.SEGMENT_SIZE);
+        chunksInFlight.add(CompletableFuture.supplyAsync(
+                () -> encrypt(chunk, length, firstSegment, segments, last), encryptExecutor));
+
+        nextSegment += segments;
+        buffer = last ? null : new byte[CHUNK_SIZE];
+        bufferPos = 0;
+    }
+
+    private void awaitChunksInFlight() throws IOException {
+        while (!chunksInFlight.isEmpty()) {
+            writeOldestChunk();
+        }
+    }
+
+    private void writeOldestChunk() throws IOException {
+        byte[] encrypted;
+        try {
+            encrypted = chunksInFlight.pop().join();
+        } catch (CompletionException e) {
+            throw new SafeIoException("Failed to encrypt chunk", e.getCause());
+        }
+        output.write(encrypted);
+    }
+
+    private byte[] encrypt(byte[] chunk, int length, long firstSegment, int segments, boolean last) {
+        byte[] encrypted = new byte[length + segments * AesGcmSegmentedCipher.TAG_SIZE];
+        int encryptedPos = 0;
+        for (int i = 0; i < segments; i++) {
+            int start = i * AesGcmSegmentedCipher.SEGMENT_SIZE;
+            int segmentLength = Math.min(AesGcmSegmentedCipher.SEGMENT_SIZE, length - start);
+            encryptedPos += cipher.encryptSegment(
+                    firstSegment + i, last && i == segments - 1, chunk, start, segmentLength, encrypted, encryptedPos);
+        }
+        return encrypted;
+    }
+}
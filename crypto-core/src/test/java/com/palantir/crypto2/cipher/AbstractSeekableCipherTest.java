@@ -101,6 +101,26 @@ public abstract class AbstractSeekableCipherTest {
         assertThat(lastBlockData).isEqualTo(expected);
     }
 
+    @Test
+    public final void testSeek_toSeekOffset() throws BadPaddingException, IllegalBlockSizeException {
+        int blockSize = seekableCipher.getBlockSize();
+        byte[] data = new byte[blockSize * NUM_BLOCKS];
+        random.nextBytes(data);
+        byte[] encryptedData = encryptCipher.doFinal(data);
+
+        seekableCipher.initCipher(Cipher.DECRYPT_MODE);
+        for (int pos : new int[] {0, 5, blockSize, blockSize + 3, 10 * blockSize + 7, data.length - 1}) {
+            int seekOffset = (int) seekableCipher.getSeekOffset(pos);
+            assertThat(seekOffset).isBetween(0, pos);
+
+            // Decrypt from the seek offset and discard the bytes before pos
+            Cipher cipher = seekableCipher.seek(seekOffset);
+            byte[] decrypted = cipher.doFinal(encryptedData, seekOffset, encryptedData.length - seekOffset);
+            assertThat(Arrays.copyOfRange(decrypted, pos - seekOffset, decrypted.length))
+                    .isEqualTo(Arrays.copyOfRange(data, pos, data.length));
+        }
+    }
+
     @Test
     public final void testSeek_seekNegativeValue() {
         long negPos = -1;
@@ -118,6 +138,16 @@ public abstract class AbstractSeekableCipherTest {
                 .withMessage("Cipher not initialized");
     }
 
+    @Test
+    public final void testRelease_canBeInitializedAgain() throws BadPaddingException, IllegalBlockSizeException {
+        seekableCipher.release();
+        seekableCipher.release();
+
+        encryptCipher = seekableCipher.initCipher(Cipher.ENCRYPT_MODE);
+        decryptCipher = seekableCipher.initCipher(Cipher.DECRYPT_MODE);
+        testEncryptDecrypt(encryptCipher, decryptCipher);
+    }
+
     @Test
     public final void testGetKeyMaterial() {
         assertThat(seekableCipher.getKeyMaterial()).isEqualTo(keyMaterial);
@@ -16,7 +16,11 @@
 
 package com.palantir.crypto2.cipher;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
+import org.junit.jupiter.api.Test;
 
 public final class AesCbcCipherTest extends AbstractSeekableCipherTest {
 
@@ -29,4 +33,21 @@ public final class AesCbcCipherTest extends AbstractSeekableCipherTest {
     SeekableCipher getCipher(KeyMaterial initKeyMaterial) {
         return new AesCbcCipher(initKeyMaterial);
     }
+
+    @Test
+    public void testGetSeekOffset_seeksToPreviousBlock() {
+        SeekableCipher cipher = getCipher(generateKeyMaterial());
+        assertThat(cipher.getSeekOffset(0)).isZero();
+        assertThat(cipher.getSeekOffset(15)).isZero();
+        assertThat(cipher.getSeekOffset(16)).isZero();
+        assertThat(cipher.getSeekOffset(35)).isEqualTo(16);
+    }
+
+    @Test
+    public void testBorrowWithoutPadding_usesConfiguredProvider() {
+        try (CipherPool.Lease lease = AesCbcCipher.borrowWithoutPadding()) {
+            assertThat(lease.getCipher().getAlgorithm()).isEqualTo("AES/CBC/NoPadding");
+            assertThat(lease.getCipher().getProvider().getName()).isEqualTo(Ciphers.getProvider());
+        }
+    }
 }
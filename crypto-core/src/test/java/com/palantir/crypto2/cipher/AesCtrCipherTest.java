@@ -17,9 +17,12 @@
 package com.palantir.crypto2.cipher;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import com.google.common.io.BaseEncoding;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -104,6 +107,51 @@ public final class AesCtrCipherTest extends AbstractSeekableCipherTest {
         testEncryptDecrypt(encryptCipher, decryptCipher);
     }
 
+    @Test
+    public void testSeek_carriesIntoHighBitsOfIv() throws BadPaddingException, IllegalBlockSizeException {
+        KeyMaterial baseKeyMaterial = generateKeyMaterial();
+        byte[] iv = new byte[baseKeyMaterial.getIv().length];
+
+        // Set the low 64 bits of the iv to their maximum value so the second block carries into the high 64 bits
+        Arrays.fill(iv, 8, 16, (byte) 0xFF);
+        KeyMaterial keyMaterial = KeyMaterial.of(baseKeyMaterial.getSecretKey(), iv);
+
+        byte[] data = new byte[3 * AesCtrCipher.BLOCK_SIZE];
+        Arrays.fill(data, (byte) 0x01);
+        SeekableCipher cipher = getCipher(keyMaterial);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+
+        cipher.initCipher(Cipher.DECRYPT_MODE);
+        int pos = AesCtrCipher.BLOCK_SIZE + 5;
+        byte[] decrypted = cipher.seek(pos).doFinal(encrypted, pos, encrypted.length - pos);
+        assertThat(decrypted).isEqualTo(Arrays.copyOfRange(data, pos, data.length));
+    }
+
+    @Test
+    public void testSeek_beforeInitCipherFails() {
+        SeekableCipher cipher = getCipher(generateKeyMaterial());
+        assertThatExceptionOfType(SafeIllegalStateException.class).isThrownBy(() -> cipher.seek(100));
+    }
+
+    @Test
+    public void testSeek_reusesCipherPerMode() {
+        SeekableCipher cipher = getCipher(generateKeyMaterial());
+        Cipher encrypt = cipher.initCipher(Cipher.ENCRYPT_MODE);
+        assertThat(cipher.seek(100)).isSameAs(encrypt);
+
+        Cipher decrypt = cipher.initCipher(Cipher.DECRYPT_MODE);
+        assertThat(decrypt).isNotSameAs(encrypt);
+        assertThat(cipher.seek(100)).isSameAs(decrypt);
+    }
+
+    @Test
+    public void testBorrow_usesConfiguredProvider() {
+        try (CipherPool.Lease lease = AesCtrCipher.borrow()) {
+            assertThat(lease.getCipher().getAlgorithm()).isEqualTo(AesCtrCipher.ALGORITHM);
+            assertThat(lease.getCipher().getProvider().getName()).isEqualTo(AesCtrCipher.PROVIDER);
+        }
+    }
+
     @Test
     public void testIvOverflow() {
         KeyMaterial baseKeyMaterial = generateKeyMaterial();
@@ -132,6 +180,15 @@ public final class AesCtrCipherTest extends AbstractSeekableCipherTest {
         cipher.seek(100);
     }
 
+    @Test
+    public void testGetSeekOffset_seeksDirectlyToPosition() {
+        SeekableCipher cipher = getCipher(generateKeyMaterial());
+        assertThat(cipher.getSeekOffset(0)).isZero();
+        assertThat(cipher.getSeekOffset(5)).isEqualTo(5);
+        assertThat(cipher.getSeekOffset(1000 * AesCtrCipher.BLOCK_SIZE + 3))
+                .isEqualTo(1000 * AesCtrCipher.BLOCK_SIZE + 3);
+    }
+
     private static byte[] hexToBinary(String hex) {
         return BaseEncoding.base16().lowerCase().decode(hex);
     }
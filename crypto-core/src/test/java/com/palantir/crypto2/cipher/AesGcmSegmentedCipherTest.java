@@ -0,0 +1,98 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.cipher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.crypto.AEADBadTagException;
+import org.junit.jupiter.api.Test;
+
+public final class AesGcmSegmentedCipherTest {
+
+    private static final byte[] PLAINTEXT = "segment".getBytes(StandardCharsets.UTF_8);
+
+    private final AesGcmSegmentedCipher cipher = new AesGcmSegmentedCipher(AesGcmSegmentedCipher.generateKeyMaterial());
+
+    @Test
+    public void testEncryptDecrypt() throws AEADBadTagException {
+        byte[] encrypted = encrypt(3, false);
+        assertThat(encrypted).hasSize(PLAINTEXT.length + AesGcmSegmentedCipher.TAG_SIZE);
+
+        byte[] decrypted = new byte[PLAINTEXT.length];
+        assertThat(cipher.decryptSegment(3, false, encrypted, 0, encrypted.length, decrypted, 0))
+                .isEqualTo(PLAINTEXT.length);
+        assertThat(decrypted).isEqualTo(PLAINTEXT);
+    }
+
+    @Test
+    public void testSegmentsUseDistinctNonces() {
+        assertThat(encrypt(0, false)).isNotEqualTo(encrypt(1, false));
+    }
+
+    @Test
+    public void testDecrypt_wrongIndexFails() {
+        byte[] encrypted = encrypt(3, false);
+        assertThatExceptionOfType(AEADBadTagException.class)
+                .isThrownBy(() -> cipher.decryptSegment(4, false, encrypted, 0, encrypted.length, new byte[100], 0));
+    }
+
+    @Test
+    public void testDecrypt_wrongLastFlagFails() {
+        byte[] encrypted = encrypt(3, false);
+        assertThatExceptionOfType(AEADBadTagException.class)
+                .isThrownBy(() -> cipher.decryptSegment(3, true, encrypted, 0, encrypted.length, new byte[100], 0));
+    }
+
+    @Test
+    public void testDecrypt_modifiedSegmentFails() {
+        byte[] encrypted = encrypt(3, true);
+        encrypted[0] ^= 1;
+        assertThatExceptionOfType(AEADBadTagException.class)
+                .isThrownBy(() -> cipher.decryptSegment(3, true, encrypted, 0, encrypted.length, new byte[100], 0));
+    }
+
+    @Test
+    public void testEncryptedSegmentOffset() {
+        assertThat(AesGcmSegmentedCipher.getEncryptedSegmentOffset(AesGcmSegmentedCipher.SEGMENT_SIZE - 1))
+                .isZero();
+        assertThat(AesGcmSegmentedCipher.getEncryptedSegmentOffset(2L * AesGcmSegmentedCipher.SEGMENT_SIZE + 5))
+                .isEqualTo(2L * AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE);
+    }
+
+    @Test
+    public void testPlaintextLength() {
+        int tag = AesGcmSegmentedCipher.TAG_SIZE;
+        int segment = AesGcmSegmentedCipher.SEGMENT_SIZE;
+        int encryptedSegment = AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE;
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(0)).isZero();
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(tag)).isZero();
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(tag + 7)).isEqualTo(7);
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(encryptedSegment)).isEqualTo(segment);
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(encryptedSegment + tag + 1))
+                .isEqualTo(segment + 1);
+        assertThat(AesGcmSegmentedCipher.getPlaintextLength(3L * encryptedSegment)).isEqualTo(3L * segment);
+    }
+
+    private byte[] encrypt(long index, boolean last) {
+        byte[] encrypted = new byte[PLAINTEXT.length + AesGcmSegmentedCipher.TAG_SIZE];
+        int length = cipher.encryptSegment(index, last, PLAINTEXT, 0, PLAINTEXT.length, encrypted, 0);
+        return Arrays.copyOf(encrypted, length);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.cipher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public final class CtrCounterTest {
+
+    private final ByteBuffer counter = ByteBuffer.allocate(16);
+
+    @Test
+    public void testWrite_addsBlockIndex() {
+        byte[] iv = new byte[16];
+        iv[15] = 1;
+        new CtrCounter(iv).write(5 * 16 + 3, counter);
+        assertThat(counter.getLong(0)).isZero();
+        assertThat(counter.getLong(8)).isEqualTo(6);
+    }
+
+    @Test
+    public void testWrite_carriesIntoHighBits() {
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, 8, 16, (byte) 0xFF);
+        new CtrCounter(iv).write(16, counter);
+        assertThat(counter.getLong(0)).isOne();
+        assertThat(counter.getLong(8)).isZero();
+    }
+
+    @Test
+    public void testWrite_wrapsOnOverflow() {
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, (byte) 0xFF);
+        new CtrCounter(iv).write(2 * 16, counter);
+        assertThat(counter.getLong(0)).isZero();
+        assertThat(counter.getLong(8)).isOne();
+    }
+
+    @Test
+    public void testWrite_rightAlignsShortIvs() {
+        new CtrCounter(new byte[] {1, 2}).write(0, counter);
+        assertThat(counter.getLong(0)).isZero();
+        assertThat(counter.getLong(8)).isEqualTo(0x0102);
+    }
+
+    @Test
+    public void testWrite_negativePositionFails() {
+        assertThatExceptionOfType(SafeIllegalArgumentException.class)
+                .isThrownBy(() -> new CtrCounter(new byte[16]).write(-1, counter));
+    }
+}
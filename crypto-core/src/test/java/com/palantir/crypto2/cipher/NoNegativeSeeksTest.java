@@ -16,6 +16,7 @@
 
 package com.palantir.crypto2.cipher;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
 import com.palantir.crypto2.io.DecryptingSeekableInput;
@@ -41,8 +42,25 @@ public final class NoNegativeSeeksTest {
         }
     }
 
+    @Test
+    public void testDecryptingSeekableInput_ctrSeeksDirectlyToPosition() throws IOException {
+        KeyMaterial keyMaterial = SeekableCipherFactory.generateKeyMaterial(AesCtrCipher.ALGORITHM);
+        SeekableCipher cipher = SeekableCipherFactory.getCipher(AesCtrCipher.ALGORITHM, keyMaterial);
+        DisallowNegativeSeeksSeekableInput input = new DisallowNegativeSeeksSeekableInput();
+
+        try (DecryptingSeekableInput stream = new DecryptingSeekableInput(input, cipher)) {
+            for (long pos : new long[] {1000, 4099, 1024 * 1024 + 7}) {
+                stream.seek(pos);
+                // Neither the previous block nor any bytes before pos are read
+                assertThat(input.getPos()).isEqualTo(pos);
+                assertThat(input.bytesRead).isZero();
+            }
+        }
+    }
+
     private static final class DisallowNegativeSeeksSeekableInput implements SeekableInput {
         private long pos = 0;
+        private long bytesRead = 0;
 
         @Override
         public void close() throws IOException {}
@@ -63,6 +81,7 @@ public final class NoNegativeSeeksTest {
         @Override
         public int read(byte[] _bytes, int _offset, int length) throws IOException {
             pos += length;
+            bytesRead += length;
             return length;
         }
     }
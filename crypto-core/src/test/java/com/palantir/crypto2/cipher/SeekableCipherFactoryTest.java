@@ -42,6 +42,13 @@ public final class SeekableCipherFactoryTest {
         assertThat(algorithm).isEqualTo("AES");
     }
 
+    @Test
+    public void testGenerateKeyMaterial_aesGcmSegmented() {
+        KeyMaterial keyMaterial = SeekableCipherFactory.generateKeyMaterial(AesGcmSegmentedCipher.ALGORITHM);
+        assertThat(keyMaterial.getSecretKey().getAlgorithm()).isEqualTo("AES");
+        assertThat(keyMaterial.getIv()).hasSize(12);
+    }
+
     @Test
     public void testGetAesCtr_noKeyMaterial() {
         SeekableCipher cipher = SeekableCipherFactory.getCipher(AES_CTR);
@@ -19,8 +19,11 @@ package com.palantir.crypto2.io;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.palantir.seekio.InMemorySeekableDataInput;
+import com.palantir.seekio.SeekableInput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.Random;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -65,7 +68,146 @@ public final class ApacheCtrDecryptingSeekableInputTests {
         assertThat(dst.position()).isEqualTo(toRead);
     }
 
+    @Test
+    public void testAdaptiveRead_shrinksAfterRandomSeekAndGrowsWhenSequential() throws IOException {
+        ReadBufferPolicy policy = ReadBufferPolicy.builder()
+                .minBufferSize(1024)
+                .maxBufferSize(4096)
+                .build();
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new InMemorySeekableDataInput(data), policy);
+        ByteBuffer dst = ByteBuffer.allocate(8192);
+
+        assertThat(adapter.read(dst)).isEqualTo(8192);
+
+        adapter.seek(NUM_BYTES / 2);
+        assertThat(adapter.getReadSize()).isEqualTo(1024);
+        assertThat(adapter.read(dst.clear())).isEqualTo(1024);
+        assertThat(dst.array()).startsWith(Arrays.copyOfRange(data, NUM_BYTES / 2, NUM_BYTES / 2 + 1024));
+        assertThat(adapter.read(dst.clear())).isEqualTo(2048);
+        assertThat(adapter.getReadSize()).isEqualTo(4096);
+        assertThat(adapter.read(dst.clear())).isEqualTo(8192);
+    }
+
+    @Test
+    public void testAdaptiveRead_shortForwardSeekIsSequential() throws IOException {
+        ReadBufferPolicy policy = ReadBufferPolicy.builder()
+                .minBufferSize(1024)
+                .maxBufferSize(4096)
+                .build();
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new InMemorySeekableDataInput(data), policy);
+
+        adapter.read(ByteBuffer.allocate(100));
+        adapter.seek(100 + 4096);
+        assertThat(adapter.getReadSize()).isEqualTo(4096);
+        adapter.seek(0);
+        assertThat(adapter.getReadSize()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testRandomRead_neverGrows() throws IOException {
+        ReadBufferPolicy policy = ReadBufferPolicy.builder()
+                .accessPattern(ReadBufferPolicy.AccessPattern.RANDOM)
+                .minBufferSize(1024)
+                .maxBufferSize(4096)
+                .build();
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new InMemorySeekableDataInput(data), policy);
+        ByteBuffer dst = ByteBuffer.allocate(8192);
+
+        assertThat(adapter.read(dst)).isEqualTo(1024);
+        assertThat(adapter.read(dst.clear())).isEqualTo(1024);
+        assertThat(adapter.getReadSize()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testSequentialRead_ignoresSeeks() throws IOException {
+        ReadBufferPolicy policy = ReadBufferPolicy.builder()
+                .accessPattern(ReadBufferPolicy.AccessPattern.SEQUENTIAL)
+                .minBufferSize(1024)
+                .maxBufferSize(4096)
+                .build();
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new InMemorySeekableDataInput(data), policy);
+
+        adapter.seek(NUM_BYTES / 2);
+        adapter.seek(0);
+        assertThat(adapter.getReadSize()).isEqualTo(4096);
+        assertThat(adapter.read(ByteBuffer.allocate(8192))).isEqualTo(8192);
+    }
+
+    @Test
+    public void testChannelRead_readsDirectlyIntoBuffer() throws IOException {
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new ChannelSeekableInput(data));
+        ByteBuffer dst = ByteBuffer.allocateDirect(2 * NUM_BYTES);
+
+        assertThat(adapter.read(dst)).isEqualTo(NUM_BYTES);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data));
+        assertThat(adapter.read(dst.clear())).isEqualTo(-1);
+    }
+
+    @Test
+    public void testChannelRead_respectsReadSize() throws IOException {
+        ReadBufferPolicy policy = ReadBufferPolicy.of(ReadBufferPolicy.AccessPattern.RANDOM);
+        ApacheCtrDecryptingSeekableInput.InputAdapter adapter =
+                new ApacheCtrDecryptingSeekableInput.InputAdapter(new ChannelSeekableInput(data), policy);
+        ByteBuffer dst = ByteBuffer.allocateDirect(NUM_BYTES);
+
+        adapter.seek(1024);
+        assertThat(adapter.read(dst)).isEqualTo(policy.getMinBufferSize());
+        assertThat(dst.limit()).isEqualTo(NUM_BYTES);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 1024, policy.getMinBufferSize()));
+    }
+
     private ApacheCtrDecryptingSeekableInput.InputAdapter inputAdapter(byte[] inputData) {
         return new ApacheCtrDecryptingSeekableInput.InputAdapter(new InMemorySeekableDataInput(inputData));
     }
+
+    /**
+     * {@link SeekableInput} which only supports reading through {@link ReadableByteChannel}.
+     */
+    private static final class ChannelSeekableInput implements SeekableInput, ReadableByteChannel {
+        private final byte[] bytes;
+        private int position;
+
+        private ChannelSeekableInput(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void seek(long offset) {
+            position = Math.toIntExact(offset);
+        }
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public int read(byte[] _bytes, int _offset, int _length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position >= bytes.length) {
+                return -1;
+            }
+            int read = Math.min(dst.remaining(), bytes.length - position);
+            dst.put(bytes, position, read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
 }
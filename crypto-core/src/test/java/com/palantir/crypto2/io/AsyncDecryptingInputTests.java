@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class AsyncDecryptingInputTests {
+
+    private static final int NUM_BYTES = 1024 * 1024 + 7;
+
+    @TempDir
+    public Path folder;
+
+    private final byte[] data = new byte[NUM_BYTES];
+    private KeyMaterial keyMaterial;
+    private Path file;
+
+    @BeforeEach
+    public void before() throws IOException {
+        new Random(0).nextBytes(data);
+        keyMaterial = AesCtrCipher.generateKeyMaterial();
+        file = folder.resolve("file");
+        try (OutputStream os =
+                CryptoStreamFactory.encrypt(Files.newOutputStream(file), keyMaterial, AesCtrCipher.ALGORITHM)) {
+            os.write(data);
+        }
+    }
+
+    @Test
+    public void testConcurrentReads() throws IOException {
+        try (AsyncDecryptingInput input = open()) {
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                int position = i * 4093;
+                ByteBuffer dst = i % 2 == 0 ? ByteBuffer.allocateDirect(1000) : ByteBuffer.allocate(1000);
+                reads.add(input.read(position, dst).thenAccept(bytesRead -> {
+                    assertThat(bytesRead).isPositive();
+                    assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, position, bytesRead));
+                }));
+            }
+            CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).join();
+        }
+    }
+
+    @Test
+    public void testReadAtOffsetInBuffer() throws IOException {
+        try (AsyncDecryptingInput input = open()) {
+            ByteBuffer dst = ByteBuffer.allocate(110).position(10);
+            int bytesRead = input.read(NUM_BYTES - 100, dst).join();
+
+            assertThat(bytesRead).isEqualTo(100);
+            assertThat(dst.flip().position(10)).isEqualTo(ByteBuffer.wrap(data, NUM_BYTES - 100, 100));
+        }
+    }
+
+    @Test
+    public void testReadPastEnd() throws IOException {
+        try (AsyncDecryptingInput input = open()) {
+            assertThat(input.read(NUM_BYTES, ByteBuffer.allocate(10)).join()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testFailedSourceRead() throws IOException {
+        AsyncDecryptingInput input = open();
+        input.close();
+
+        assertThatThrownBy(() -> input.read(0, ByteBuffer.allocate(10)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    private AsyncDecryptingInput open() throws IOException {
+        return CryptoStreamFactory.decrypt(AsynchronousFileChannel.open(file), keyMaterial, AesCtrCipher.ALGORITHM);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.io.ByteStreams;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.KeyMaterial;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class BulkDecryptingInputStreamTests {
+
+    private static final int NUM_BYTES = 100 * 1024 + 7;
+    private static final int BUFFER_SIZE = 4096;
+
+    @ParameterizedTest
+    @ValueSource(strings = {AesCtrCipher.ALGORITHM, AesCbcCipher.ALGORITHM})
+    public void testBulkRead(String algorithm) throws Exception {
+        byte[] data = randomBytes(NUM_BYTES);
+        SeekableCipher cipher = cipher(algorithm);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+
+        try (InputStream stream = decryptingStream(cipher, encrypted)) {
+            assertThat(ByteStreams.toByteArray(stream)).isEqualTo(data);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {AesCtrCipher.ALGORITHM, AesCbcCipher.ALGORITHM})
+    public void testSingleByteAndOddSizedReads(String algorithm) throws Exception {
+        byte[] data = randomBytes(NUM_BYTES);
+        SeekableCipher cipher = cipher(algorithm);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+
+        byte[] decrypted = new byte[NUM_BYTES];
+        try (InputStream stream = decryptingStream(cipher, encrypted)) {
+            int pos = 0;
+            while (pos < NUM_BYTES) {
+                if (pos % 3 == 0) {
+                    decrypted[pos++] = (byte) stream.read();
+                } else {
+                    int bytesRead = stream.read(decrypted, pos, Math.min(NUM_BYTES - pos, 13 + pos % 5000));
+                    assertThat(bytesRead).isPositive();
+                    pos += bytesRead;
+                }
+            }
+            assertThat(stream.read()).isEqualTo(-1);
+            assertThat(stream.read(new byte[1], 0, 1)).isEqualTo(-1);
+        }
+        assertThat(decrypted).isEqualTo(data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {AesCtrCipher.ALGORITHM, AesCbcCipher.ALGORITHM})
+    public void testEmptyInput(String algorithm) throws Exception {
+        SeekableCipher cipher = cipher(algorithm);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(new byte[0]);
+
+        try (InputStream stream = decryptingStream(cipher, encrypted)) {
+            assertThat(stream.read()).isEqualTo(-1);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {AesCtrCipher.ALGORITHM, AesCbcCipher.ALGORITHM})
+    public void testLargeReadDecryptsDirectlyIntoArray(String algorithm) throws Exception {
+        byte[] data = randomBytes(NUM_BYTES);
+        SeekableCipher cipher = cipher(algorithm);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+
+        try (InputStream stream = decryptingStream(cipher, encrypted)) {
+            byte[] decrypted = new byte[NUM_BYTES];
+            int bytesRead = stream.read(decrypted, 0, NUM_BYTES);
+
+            assertThat(bytesRead).isGreaterThanOrEqualTo(BUFFER_SIZE - cipher.getBlockSize());
+            assertThat(stream.available()).isZero();
+            assertThat(Arrays.copyOf(decrypted, bytesRead)).isEqualTo(Arrays.copyOf(data, bytesRead));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {17, 4095, 4097})
+    public void testInvalidPadding(int length) throws Exception {
+        SeekableCipher cipher = cipher(AesCbcCipher.ALGORITHM);
+        byte[] encrypted = cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(randomBytes(length));
+        // Flipping a bit of the previous ciphertext block flips the same bit of the last byte of padding
+        encrypted[encrypted.length - cipher.getBlockSize() - 1] ^= 1;
+
+        try (InputStream stream = decryptingStream(cipher, encrypted)) {
+            assertThatThrownBy(() -> ByteStreams.toByteArray(stream))
+                    .isInstanceOf(IOException.class)
+                    .hasCauseInstanceOf(BadPaddingException.class);
+        }
+    }
+
+    private static InputStream decryptingStream(SeekableCipher cipher, byte[] encrypted) {
+        return new BulkDecryptingInputStream(
+                new ByteArrayInputStream(encrypted), cipher.initCipher(Cipher.DECRYPT_MODE), BUFFER_SIZE);
+    }
+
+    private static SeekableCipher cipher(String algorithm) {
+        KeyMaterial keyMaterial = SeekableCipherFactory.generateKeyMaterial(algorithm);
+        return SeekableCipherFactory.getCipher(algorithm, keyMaterial);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(0).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.io.ByteStreams;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class ByteChannelTests {
+
+    private static final boolean FORCE_JCE = true;
+    private static final int NUM_BYTES = 1024 * 1024 + 7;
+
+    @TempDir
+    public Path folder;
+
+    private final byte[] data = new byte[NUM_BYTES];
+    private KeyMaterial keyMaterial;
+    private Path file;
+
+    @BeforeEach
+    public void before() {
+        new Random(0).nextBytes(data);
+        keyMaterial = AesCtrCipher.generateKeyMaterial();
+        file = folder.resolve("file");
+    }
+
+    @Test
+    public void testEncryptChannelMatchesEncryptStream() throws IOException {
+        writeEncrypted(ByteBuffer.allocateDirect(NUM_BYTES).put(data).flip());
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (OutputStream encrypted =
+                CryptoStreamFactory.encrypt(expected, keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            encrypted.write(data);
+        }
+        assertThat(Files.readAllBytes(file)).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    public void testEncryptChannel_otherAlgorithms() throws IOException {
+        KeyMaterial cbcKeyMaterial = SeekableCipherFactory.generateKeyMaterial(AesCbcCipher.ALGORITHM);
+        try (WritableByteChannel channel = CryptoStreamFactory.encrypt(
+                FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                cbcKeyMaterial,
+                AesCbcCipher.ALGORITHM)) {
+            channel.write(ByteBuffer.wrap(data));
+        }
+
+        try (InputStream decrypted =
+                CryptoStreamFactory.decrypt(Files.newInputStream(file), cbcKeyMaterial, AesCbcCipher.ALGORITHM)) {
+            assertThat(ByteStreams.toByteArray(decrypted)).isEqualTo(data);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testDecryptChannel(boolean direct) throws IOException {
+        writeEncrypted(ByteBuffer.wrap(data));
+
+        try (DecryptingSeekableByteChannel channel = decryptingChannel(FileChannel.open(file))) {
+            assertThat(channel.size()).isEqualTo(NUM_BYTES);
+
+            channel.position(NUM_BYTES - 1000);
+            ByteBuffer tail = allocate(direct, 2000);
+            assertThat(channel.read(tail)).isEqualTo(1000);
+            assertThat(channel.read(tail)).isEqualTo(-1);
+            assertThat(channel.position()).isEqualTo(NUM_BYTES);
+            assertThat(tail.flip()).isEqualTo(ByteBuffer.wrap(data, NUM_BYTES - 1000, 1000));
+
+            ByteBuffer all = allocate(direct, NUM_BYTES + 10).position(10);
+            channel.position(0);
+            while (channel.read(all) > 0) {}
+            assertThat(all.flip().position(10)).isEqualTo(ByteBuffer.wrap(data));
+        }
+    }
+
+    @Test
+    public void testConcurrentPositionalReads() throws IOException {
+        writeEncrypted(ByteBuffer.wrap(data));
+
+        try (DecryptingSeekableByteChannel fileChannel = decryptingChannel(FileChannel.open(file));
+                DecryptingSeekableByteChannel otherChannel =
+                        decryptingChannel(new DelegatingSeekableByteChannel(FileChannel.open(file)))) {
+            for (DecryptingSeekableByteChannel channel : Arrays.asList(fileChannel, otherChannel)) {
+                List<CompletableFuture<Void>> reads = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    long position = (long) i * 16381;
+                    reads.add(CompletableFuture.runAsync(() -> {
+                        ByteBuffer dst = ByteBuffer.allocateDirect(10_000);
+                        try {
+                            while (dst.hasRemaining() && channel.read(dst, position + dst.position()) > 0) {}
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, (int) position, 10_000));
+                    }));
+                }
+                CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0]))
+                        .join();
+                assertThat(channel.position()).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void testDecryptChannel_rejectsOtherAlgorithms() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            assertThatThrownBy(() -> CryptoStreamFactory.decrypt(
+                            channel,
+                            SeekableCipherFactory.generateKeyMaterial(AesCbcCipher.ALGORITHM),
+                            AesCbcCipher.ALGORITHM))
+                    .isInstanceOf(SafeIllegalArgumentException.class);
+        }
+    }
+
+    private void writeEncrypted(ByteBuffer src) throws IOException {
+        try (WritableByteChannel channel = CryptoStreamFactory.encrypt(
+                FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                keyMaterial,
+                AesCtrCipher.ALGORITHM)) {
+            while (src.hasRemaining()) {
+                ByteBuffer chunk = src.slice(src.position(), Math.min(src.remaining(), 100_000));
+                assertThat(channel.write(chunk)).isEqualTo(chunk.limit());
+                src.position(src.position() + chunk.limit());
+            }
+        }
+    }
+
+    private DecryptingSeekableByteChannel decryptingChannel(SeekableByteChannel channel) {
+        return CryptoStreamFactory.decrypt(channel, keyMaterial, AesCtrCipher.ALGORITHM);
+    }
+
+    private static ByteBuffer allocate(boolean direct, int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static final class DelegatingSeekableByteChannel implements SeekableByteChannel {
+        private final SeekableByteChannel delegate;
+
+        DelegatingSeekableByteChannel(SeekableByteChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.io.ByteStreams;
+import com.palantir.crypto2.cipher.AesCbcCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import com.palantir.seekio.InMemorySeekableDataInput;
+import com.palantir.seekio.SeekableInput;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.Cipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class CbcDecryptingSeekableInputTests {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private final Random random = new Random(0);
+    private KeyMaterial keyMaterial;
+
+    @BeforeEach
+    public void before() {
+        keyMaterial = AesCbcCipher.generateKeyMaterial();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 15, 16, 17, 100_000, 3 * 1024 * 1024 + 5, 4 * 1024 * 1024})
+    public void testSequentialRead(int numBytes) throws Exception {
+        byte[] data = randomBytes(numBytes);
+        try (SeekableInput input = decrypting(encrypt(data))) {
+            byte[] decrypted = new byte[numBytes];
+            ByteStreams.readFully(new DefaultSeekableInputStream(input), decrypted);
+
+            assertThat(decrypted).isEqualTo(data);
+            assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testRandomSeeksAndReads() throws Exception {
+        int numBytes = 2 * 1024 * 1024 + 3;
+        byte[] data = randomBytes(numBytes);
+        try (SeekableInput input = decrypting(encrypt(data))) {
+            for (int i = 0; i < 200; i++) {
+                int pos = random.nextInt(numBytes + 10);
+                int length = random.nextInt(i % 10 == 0 ? 1024 * 1024 : 100) + 1;
+                byte[] bytes = new byte[length];
+                input.seek(pos);
+
+                int bytesRead = input.read(bytes, 0, length);
+
+                if (pos >= numBytes) {
+                    assertThat(bytesRead).isEqualTo(-1);
+                } else {
+                    assertThat(bytesRead).isPositive();
+                    assertThat(Arrays.copyOf(bytes, bytesRead))
+                            .isEqualTo(Arrays.copyOfRange(data, pos, pos + bytesRead));
+                    assertThat(input.getPos()).isEqualTo(pos + bytesRead);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSeekReadsIvContiguouslyWithoutDecryptingIt() throws Exception {
+        byte[] data = randomBytes(1024 * 1024);
+        CountingSeekableInput encryptedInput = new CountingSeekableInput(encrypt(data));
+        try (SeekableInput input = new CbcDecryptingSeekableInput(encryptedInput, keyMaterial)) {
+            input.seek(500_000);
+            byte[] bytes = new byte[10];
+            assertThat(input.read(bytes, 0, 10)).isEqualTo(10);
+
+            // Seeked once to the block before the block containing 500_000 which is read as the IV
+            assertThat(encryptedInput.seeks).isEqualTo(1);
+            assertThat(encryptedInput.lastSeek).isEqualTo(500_000 / BLOCK_SIZE * BLOCK_SIZE - BLOCK_SIZE);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 500_000, 500_010));
+
+            // Forward seeks within and just beyond the window do not seek the encrypted input
+            input.seek(500_000 + BLOCK_SIZE + 5);
+            assertThat(input.read(bytes, 0, 10)).isEqualTo(10);
+            assertThat(encryptedInput.seeks).isEqualTo(1);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 500_021, 500_031));
+        }
+    }
+
+    @Test
+    public void testPointReadOnlyReadsCoveredBlocks() throws Exception {
+        byte[] data = randomBytes(1024 * 1024);
+        CountingSeekableInput encryptedInput = new CountingSeekableInput(encrypt(data));
+        try (SeekableInput input = new CbcDecryptingSeekableInput(encryptedInput, keyMaterial)) {
+            input.seek(500_000 + 3);
+            byte[] bytes = new byte[20];
+            assertThat(input.read(bytes, 0, 20)).isEqualTo(20);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 500_003, 500_023));
+
+            // The IV block, the two blocks covered by the read and one block of lookahead
+            assertThat(encryptedInput.bytesRead).isEqualTo(4 * BLOCK_SIZE);
+
+            // Continuing sequentially beyond the window decrypts a full window without seeking
+            assertThat(input.read(bytes, 0, 20)).isEqualTo(9);
+            assertThat(input.read(bytes, 0, 20)).isEqualTo(20);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 500_032, 500_052));
+            assertThat(encryptedInput.bytesRead).isGreaterThan(16 * 1024);
+            assertThat(encryptedInput.seeks).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testLargeReadReleasesBuffers() throws Exception {
+        byte[] data = randomBytes(3 * 1024 * 1024);
+        CountingSeekableInput encryptedInput = new CountingSeekableInput(encrypt(data));
+        try (CbcDecryptingSeekableInput input = new CbcDecryptingSeekableInput(encryptedInput, keyMaterial)) {
+            int maxRetainedCapacity = 16 * 1024 + 2 * BLOCK_SIZE;
+            byte[] bytes = new byte[2 * 1024 * 1024];
+            input.seek(1000);
+            assertThat(input.read(bytes, 0, bytes.length)).isEqualTo(bytes.length);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 1000, 1000 + bytes.length));
+            assertThat(input.getBufferCapacity()).isLessThanOrEqualTo(maxRetainedCapacity);
+
+            byte[] small = new byte[100];
+            ByteStreams.readFully(new DefaultSeekableInputStream(input), small);
+            assertThat(small).isEqualTo(Arrays.copyOfRange(data, 1000 + bytes.length, 1100 + bytes.length));
+            assertThat(input.getBufferCapacity()).isLessThanOrEqualTo(maxRetainedCapacity);
+            assertThat(encryptedInput.seeks).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testInputStreamIsNeverSeeked() throws Exception {
+        byte[] data = randomBytes(1024 * 1024 + 1);
+        InputStream decrypted = CryptoStreamFactory.decrypt(
+                new ByteArrayInputStream(encrypt(data)), keyMaterial, AesCbcCipher.ALGORITHM);
+
+        assertThat(ByteStreams.toByteArray(decrypted)).isEqualTo(data);
+    }
+
+    @Test
+    public void testInvalidPadding() throws Exception {
+        byte[] encrypted = encrypt(randomBytes(100));
+        // Flipping a bit of the previous ciphertext block flips the same bit of the 12 bytes of padding
+        encrypted[encrypted.length - BLOCK_SIZE - 1] ^= 1;
+
+        try (SeekableInput input = decrypting(encrypted)) {
+            assertThatThrownBy(() -> input.read(new byte[100], 0, 100))
+                    .isInstanceOf(SafeIoException.class)
+                    .hasMessageContaining("invalid padding");
+        }
+    }
+
+    @Test
+    public void testTruncatedData() throws Exception {
+        byte[] encrypted = encrypt(randomBytes(100));
+
+        try (SeekableInput input = decrypting(Arrays.copyOf(encrypted, encrypted.length - 1))) {
+            assertThatThrownBy(() -> input.read(new byte[100], 0, 100))
+                    .isInstanceOf(SafeIoException.class)
+                    .hasMessageContaining("not a multiple of the block size");
+        }
+    }
+
+    private SeekableInput decrypting(byte[] encrypted) {
+        return new CbcDecryptingSeekableInput(new InMemorySeekableDataInput(encrypted), keyMaterial);
+    }
+
+    private byte[] encrypt(byte[] data) throws Exception {
+        AesCbcCipher cipher = new AesCbcCipher(keyMaterial);
+        try {
+            return cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+        } finally {
+            cipher.release();
+        }
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static final class CountingSeekableInput implements SeekableInput {
+        private final SeekableInput delegate;
+        private int seeks;
+        private long lastSeek;
+        private long bytesRead;
+
+        CountingSeekableInput(byte[] bytes) {
+            this.delegate = new InMemorySeekableDataInput(bytes);
+        }
+
+        @Override
+        public void seek(long offset) throws IOException {
+            seeks++;
+            lastSeek = offset;
+            delegate.seek(offset);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return delegate.getPos();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
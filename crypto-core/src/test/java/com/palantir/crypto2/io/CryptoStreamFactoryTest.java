@@ -17,9 +17,13 @@
 package com.palantir.crypto2.io;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.io.ByteStreams;
+import com.palantir.crypto2.cipher.AesCbcCipher;
 import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.seekio.InMemorySeekableDataInput;
 import com.palantir.seekio.SeekableInput;
@@ -29,6 +33,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.crypto.stream.CtrCryptoInputStream;
 import org.apache.commons.crypto.stream.CtrCryptoOutputStream;
@@ -36,12 +43,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
 public final class CryptoStreamFactoryTest {
 
     private static final boolean FORCE_JCE = true;
     private static final byte[] BYTES = "data".getBytes(StandardCharsets.UTF_8);
 
+    @TempDir
+    public Path folder;
+
     private KeyMaterial keyMaterial;
 
     @BeforeEach
@@ -52,7 +63,7 @@ public final class CryptoStreamFactoryTest {
     @Test
     @EnabledOnOs(OS.LINUX)
     public void ensureDefaultIsApache() {
-        OutputStream encrypted = CryptoStreamFactory.encrypt(null, keyMaterial, AesCtrCipher.ALGORITHM);
+        OutputStream encrypted = CryptoStreamFactory.encrypt((OutputStream) null, keyMaterial, AesCtrCipher.ALGORITHM);
         SeekableInput decrypted =
                 CryptoStreamFactory.decrypt((SeekableInput) null, keyMaterial, AesCtrCipher.ALGORITHM);
 
@@ -90,6 +101,89 @@ public final class CryptoStreamFactoryTest {
         assertThat(readBytes).isEqualTo(BYTES);
     }
 
+    @Test
+    public void testEncryptDecryptJce_ciphersReturnedToPoolOnClose() throws IOException {
+        long returned = CipherPool.getDefault().getStats().getReturned();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream encrypted = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            encrypted.write(BYTES);
+        }
+        assertThat(CipherPool.getDefault().getStats().getReturned()).isGreaterThan(returned);
+
+        returned = CipherPool.getDefault().getStats().getReturned();
+        try (SeekableInput decrypted = CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(os.toByteArray()), keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            assertThat(decrypted.read(new byte[BYTES.length], 0, BYTES.length)).isEqualTo(BYTES.length);
+        }
+        assertThat(CipherPool.getDefault().getStats().getReturned()).isGreaterThan(returned);
+    }
+
+    @Test
+    public void testEncryptJce_writeAfterCloseFailsWithoutCorruptingStreamReusingCipher() throws IOException {
+        OutputStream closed = CryptoStreamFactory.encrypt(
+                new ByteArrayOutputStream(), keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE);
+        closed.write(BYTES);
+        closed.close();
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream encrypted = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            encrypted.write(BYTES, 0, 2);
+            assertThatThrownBy(() -> closed.write(BYTES)).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> closed.write(0)).isInstanceOf(IOException.class);
+            encrypted.write(BYTES, 2, BYTES.length - 2);
+        }
+
+        SeekableInput decrypted = CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(os.toByteArray()), keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE);
+        byte[] readBytes = new byte[BYTES.length];
+        assertThat(decrypted.read(readBytes, 0, BYTES.length)).isEqualTo(BYTES.length);
+        assertThat(readBytes).isEqualTo(BYTES);
+    }
+
+    @Test
+    public void testDecryptJce_readAndSeekAfterCloseFailWithoutCorruptingStreamReusingCipher() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream encrypted = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            encrypted.write(BYTES);
+        }
+        byte[] encryptedBytes = os.toByteArray();
+
+        SeekableInput closed = CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(encryptedBytes), keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE);
+        closed.close();
+
+        try (SeekableInput decrypted = CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(encryptedBytes), keyMaterial, AesCtrCipher.ALGORITHM, FORCE_JCE)) {
+            byte[] readBytes = new byte[BYTES.length];
+            assertThat(decrypted.read(readBytes, 0, 2)).isEqualTo(2);
+            assertThatThrownBy(() -> closed.read(new byte[BYTES.length], 0, BYTES.length))
+                    .isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> closed.seek(1)).isInstanceOf(IOException.class);
+            assertThat(decrypted.read(readBytes, 2, BYTES.length - 2)).isEqualTo(BYTES.length - 2);
+            assertThat(readBytes).isEqualTo(BYTES);
+        }
+    }
+
+    @Test
+    public void testEncryptDecryptFile() throws IOException {
+        for (String algorithm : Arrays.asList(AesCtrCipher.ALGORITHM, AesCbcCipher.ALGORITHM)) {
+            KeyMaterial fileKeyMaterial = SeekableCipherFactory.generateKeyMaterial(algorithm);
+            Path file = folder.resolve(algorithm.replace('/', '_'));
+            try (OutputStream encrypted =
+                    CryptoStreamFactory.encrypt(Files.newOutputStream(file), fileKeyMaterial, algorithm)) {
+                encrypted.write(BYTES);
+            }
+
+            try (SeekableInput decrypted = CryptoStreamFactory.decrypt(file, fileKeyMaterial, algorithm)) {
+                byte[] readBytes = new byte[BYTES.length];
+                decrypted.seek(1);
+                assertThat(decrypted.read(readBytes, 0, BYTES.length)).isEqualTo(BYTES.length - 1);
+                assertThat(Arrays.copyOf(readBytes, BYTES.length - 1))
+                        .isEqualTo(Arrays.copyOfRange(BYTES, 1, BYTES.length));
+            }
+        }
+    }
+
     @Test
     public void testChunkingOutputStream() throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -0,0 +1,190 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class CtrCipherProcessorTests {
+
+    private static final int NUM_BYTES = 100 * 1024 + 7;
+
+    private final byte[] data = new byte[NUM_BYTES];
+    private KeyMaterial keyMaterial;
+
+    @BeforeEach
+    public void before() {
+        new Random(0).nextBytes(data);
+        keyMaterial = AesCtrCipher.generateKeyMaterial();
+    }
+
+    @Test
+    public void testEncryptMatchesCryptoStreamFactory() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (OutputStream os = CryptoStreamFactory.encrypt(expected, keyMaterial, AesCtrCipher.ALGORITHM)) {
+            os.write(data);
+        }
+
+        CtrCipherProcessor encrypt = CtrCipherProcessor.encrypt(keyMaterial);
+        CollectingSubscriber encrypted = new CollectingSubscriber(1);
+        encrypt.subscribe(encrypted);
+        publish(encrypt, true);
+
+        assertThat(encrypted.result.get(10, TimeUnit.SECONDS)).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    public void testEncryptDecryptPipeline() throws Exception {
+        CtrCipherProcessor encrypt = CtrCipherProcessor.encrypt(keyMaterial);
+        CtrCipherProcessor decrypt = CtrCipherProcessor.decrypt(keyMaterial);
+        CollectingSubscriber decrypted = new CollectingSubscriber(3);
+        encrypt.subscribe(decrypt);
+        decrypt.subscribe(decrypted);
+        publish(encrypt, false);
+
+        assertThat(decrypted.result.get(10, TimeUnit.SECONDS)).isEqualTo(data);
+    }
+
+    @Test
+    public void testDemandIsForwardedUpstream() {
+        AtomicLong requested = new AtomicLong();
+        CtrCipherProcessor processor = CtrCipherProcessor.encrypt(keyMaterial);
+        CollectingSubscriber subscriber = new CollectingSubscriber(0);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(5);
+
+        // Demand requested before the upstream subscribes is forwarded once it does
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {}
+        });
+        assertThat(requested).hasValue(5);
+
+        subscriber.subscription.request(2);
+        assertThat(requested).hasValue(7);
+    }
+
+    @Test
+    public void testSignalsBeforeSubscriberAreDelivered() throws Exception {
+        CtrCipherProcessor processor = CtrCipherProcessor.encrypt(keyMaterial);
+        processor.onComplete();
+
+        CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        processor.subscribe(subscriber);
+
+        assertThat(subscriber.result.get(10, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    public void testReadOnlyBuffersAreCopied() throws Exception {
+        CtrCipherProcessor encrypt = CtrCipherProcessor.encrypt(keyMaterial);
+        CtrCipherProcessor decrypt = CtrCipherProcessor.decrypt(keyMaterial);
+        CollectingSubscriber decrypted = new CollectingSubscriber(1);
+        encrypt.subscribe(decrypt);
+        decrypt.subscribe(decrypted);
+
+        byte[] original = data.clone();
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(encrypt);
+            publisher.submit(ByteBuffer.wrap(data).asReadOnlyBuffer());
+        }
+
+        assertThat(decrypted.result.get(10, TimeUnit.SECONDS)).isEqualTo(original);
+        assertThat(data).isEqualTo(original);
+    }
+
+    private void publish(Flow.Subscriber<ByteBuffer> subscriber, boolean direct) {
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            int offset = 0;
+            int length = 1;
+            while (offset < NUM_BYTES) {
+                int toPublish = Math.min(length, NUM_BYTES - offset);
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(toPublish) : ByteBuffer.allocate(toPublish);
+                publisher.submit(buffer.put(data, offset, toPublish).flip());
+                offset += toPublish;
+                length = length * 2 + 1;
+            }
+        }
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final int batchSize;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Integer> sizes = new ArrayList<>();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        CollectingSubscriber(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription value) {
+            this.subscription = value;
+            if (batchSize > 0) {
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            byte[] chunk = new byte[item.remaining()];
+            item.get(chunk);
+            sizes.add(chunk.length);
+            try {
+                bytes.write(chunk);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            if (sizes.size() % batchSize == 0) {
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(bytes.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import javax.crypto.Cipher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class CtrDecryptionTests {
+
+    private static final int NUM_BYTES = 100 * 1024 + 7;
+
+    private final Random random = new Random(0);
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testDecryptAtOffsets(boolean direct) throws Exception {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        byte[] data = randomBytes(NUM_BYTES);
+        byte[] encrypted = encrypt(keyMaterial, data);
+
+        for (int offset : new int[] {0, 1, 15, 16, 17, 4099, NUM_BYTES - 20}) {
+            int length = Math.min(20_000, NUM_BYTES - offset);
+            ByteBuffer src =
+                    allocate(direct, length).put(encrypted, offset, length).flip();
+            ByteBuffer dst = allocate(direct, length + 1);
+
+            assertThat(CtrDecryption.decrypt(keyMaterial, offset, src, dst)).isEqualTo(length);
+            assertThat(src.hasRemaining()).isFalse();
+            assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, offset, length));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testDecryptInPlace(boolean direct) throws Exception {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        byte[] data = randomBytes(NUM_BYTES);
+        ByteBuffer buffer =
+                allocate(direct, NUM_BYTES).put(encrypt(keyMaterial, data)).position(33);
+
+        CtrDecryption.decrypt(keyMaterial, 33, buffer, buffer);
+
+        assertThat(buffer.position()).isEqualTo(NUM_BYTES);
+        assertThat(buffer.position(33)).isEqualTo(ByteBuffer.wrap(data, 33, NUM_BYTES - 33));
+    }
+
+    @Test
+    public void testDecryptHeapIntoDirect() throws Exception {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        byte[] data = randomBytes(NUM_BYTES);
+        ByteBuffer src = ByteBuffer.wrap(encrypt(keyMaterial, data)).position(17);
+        ByteBuffer dst = ByteBuffer.allocateDirect(NUM_BYTES - 17);
+
+        CtrDecryption.decrypt(keyMaterial, 17, src.asReadOnlyBuffer(), dst);
+
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 17, NUM_BYTES - 17));
+    }
+
+    @Test
+    public void testDecryptArrays() throws Exception {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        byte[] data = randomBytes(NUM_BYTES);
+        byte[] bytes = encrypt(keyMaterial, data);
+
+        CtrDecryption.decrypt(keyMaterial, 100, bytes, 100, 1000, bytes, 100);
+
+        assertThat(Arrays.copyOfRange(bytes, 100, 1100)).isEqualTo(Arrays.copyOfRange(data, 100, 1100));
+    }
+
+    @Test
+    public void testCounterOverflowMatchesAesCtrCipher() throws Exception {
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, (byte) 0xFF);
+        KeyMaterial keyMaterial =
+                KeyMaterial.of(AesCtrCipher.generateKeyMaterial().getSecretKey(), iv);
+        byte[] data = randomBytes(1000);
+        byte[] encrypted = encrypt(keyMaterial, data);
+
+        byte[] decrypted = new byte[990];
+        CtrDecryption.decrypt(keyMaterial, 10, encrypted, 10, 990, decrypted, 0);
+
+        assertThat(decrypted).isEqualTo(Arrays.copyOfRange(data, 10, 1000));
+    }
+
+    @Test
+    public void testDecryptWithDifferentKeyMaterials() throws Exception {
+        byte[] data = randomBytes(1000);
+        for (int i = 0; i < 3; i++) {
+            KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+            byte[] encrypted = encrypt(keyMaterial, data);
+
+            byte[] decrypted = new byte[900];
+            CtrDecryption.decrypt(keyMaterial, 100, encrypted, 100, 900, decrypted, 0);
+            assertThat(decrypted).isEqualTo(Arrays.copyOfRange(data, 100, 1000));
+        }
+    }
+
+    @Test
+    public void testConcurrentDecryption() throws Exception {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        byte[] data = randomBytes(NUM_BYTES);
+        byte[] encrypted = encrypt(keyMaterial, data);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int offset = i * 1009;
+            futures.add(CompletableFuture.runAsync(() -> {
+                byte[] decrypted = new byte[1000];
+                CtrDecryption.decrypt(keyMaterial, offset, encrypted, offset, 1000, decrypted, 0);
+                assertThat(decrypted).isEqualTo(Arrays.copyOfRange(data, offset, offset + 1000));
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        assertThat(CtrDecryption.getIdleContexts()).isPositive();
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+
+        assertThatThrownBy(() -> CtrDecryption.decrypt(keyMaterial, -1, ByteBuffer.allocate(1), ByteBuffer.allocate(1)))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+        assertThatThrownBy(() -> CtrDecryption.decrypt(keyMaterial, 0, ByteBuffer.allocate(2), ByteBuffer.allocate(1)))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encrypt(KeyMaterial keyMaterial, byte[] data) throws Exception {
+        AesCtrCipher cipher = new AesCtrCipher(keyMaterial);
+        try {
+            return cipher.initCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+        } finally {
+            cipher.release();
+        }
+    }
+
+    private static ByteBuffer allocate(boolean direct, int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
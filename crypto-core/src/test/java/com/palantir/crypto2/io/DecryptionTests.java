@@ -64,7 +64,10 @@ public final class DecryptionTests {
                 Arguments.of(AES_CTR, APACHE, APACHE),
                 Arguments.of(AES_CTR, JCE, APACHE),
                 Arguments.of(AES_CTR, APACHE, JCE),
-                Arguments.of(AES_CBC, JCE, JCE));
+                Arguments.of(AES_CBC, JCE, JCE),
+                Arguments.of(AES_CBC, APACHE, APACHE),
+                Arguments.of(AES_CBC, JCE, APACHE),
+                Arguments.of(AES_CBC, APACHE, JCE));
     }
 
     static class StreamAggregator implements ArgumentsAggregator {
@@ -0,0 +1,131 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class MappedFileSeekableInputTests {
+
+    private static final int WINDOW_SIZE = 4096;
+    private static final int NUM_BYTES = 10 * WINDOW_SIZE + 100;
+
+    @TempDir
+    public Path folder;
+
+    private final byte[] data = new byte[NUM_BYTES];
+    private Path file;
+
+    @BeforeEach
+    public void before() throws IOException {
+        new Random(0).nextBytes(data);
+        file = folder.resolve("file");
+        Files.write(file, data);
+    }
+
+    @Test
+    public void testRead_withinWindow() throws IOException {
+        try (MappedFileSeekableInput input = MappedFileSeekableInput.open(file, WINDOW_SIZE)) {
+            byte[] bytes = new byte[100];
+            input.seek(10);
+
+            assertThat(input.read(bytes, 0, 100)).isEqualTo(100);
+            assertThat(bytes).isEqualTo(Arrays.copyOfRange(data, 10, 110));
+            assertThat(input.getPos()).isEqualTo(110);
+        }
+    }
+
+    @Test
+    public void testRead_stopsAtWindowBoundaryAndMapsNextWindow() throws IOException {
+        try (MappedFileSeekableInput input = MappedFileSeekableInput.open(file, WINDOW_SIZE)) {
+            ByteBuffer dst = ByteBuffer.allocateDirect(200);
+            input.seek(WINDOW_SIZE - 100);
+
+            assertThat(input.read(dst)).isEqualTo(100);
+            assertThat(input.read(dst)).isEqualTo(100);
+            assertThat(input.getWindowStart()).isEqualTo(WINDOW_SIZE);
+            assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, WINDOW_SIZE - 100, 200));
+        }
+    }
+
+    @Test
+    public void testRead_endOfFile() throws IOException {
+        try (MappedFileSeekableInput input = MappedFileSeekableInput.open(file, WINDOW_SIZE)) {
+            byte[] bytes = new byte[200];
+            input.seek(NUM_BYTES - 100);
+
+            assertThat(input.read(bytes, 0, 200)).isEqualTo(100);
+            assertThat(input.read(bytes, 0, 200)).isEqualTo(-1);
+            input.seek(NUM_BYTES + 100);
+            assertThat(input.read(bytes, 0, 200)).isEqualTo(-1);
+            assertThat(input.read(bytes, 0, 0)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testCtrDecrypt_acrossWindows() throws IOException {
+        KeyMaterial keyMaterial = AesCtrCipher.generateKeyMaterial();
+        Path encrypted = folder.resolve("encrypted");
+        try (OutputStream os =
+                CryptoStreamFactory.encrypt(Files.newOutputStream(encrypted), keyMaterial, AesCtrCipher.ALGORITHM)) {
+            os.write(data);
+        }
+
+        SeekableCipher cipher = new AesCtrCipher(keyMaterial);
+        try (MappedCtrDecryptingSeekableInput input =
+                new MappedCtrDecryptingSeekableInput(MappedFileSeekableInput.open(encrypted, WINDOW_SIZE), cipher)) {
+            byte[] decrypted = new byte[NUM_BYTES];
+            assertThat(input.read(decrypted, 0, NUM_BYTES)).isEqualTo(NUM_BYTES);
+            assertThat(decrypted).isEqualTo(data);
+            assertThat(input.read(decrypted, 0, 1)).isEqualTo(-1);
+
+            input.seek(3 * WINDOW_SIZE - 7);
+            ByteBuffer dst = ByteBuffer.allocateDirect(WINDOW_SIZE);
+            assertThat(input.read(dst)).isEqualTo(WINDOW_SIZE);
+            assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 3 * WINDOW_SIZE - 7, WINDOW_SIZE));
+        }
+    }
+
+    @Test
+    public void testCtrDecrypt_failsAfterClose() throws IOException {
+        SeekableCipher cipher = new AesCtrCipher(AesCtrCipher.generateKeyMaterial());
+        MappedCtrDecryptingSeekableInput input =
+                new MappedCtrDecryptingSeekableInput(MappedFileSeekableInput.open(file, WINDOW_SIZE), cipher);
+        input.close();
+        input.close();
+
+        assertThat(input.isOpen()).isFalse();
+        assertThatExceptionOfType(SafeIoException.class).isThrownBy(() -> input.seek(100));
+        assertThatExceptionOfType(SafeIoException.class).isThrownBy(() -> input.read(new byte[10], 0, 10));
+        assertThatExceptionOfType(SafeIoException.class).isThrownBy(() -> input.read(ByteBuffer.allocate(10)));
+    }
+}
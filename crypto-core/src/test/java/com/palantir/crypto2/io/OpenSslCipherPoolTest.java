@@ -0,0 +1,172 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import javax.crypto.Cipher;
+import org.apache.commons.crypto.cipher.CryptoCipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class OpenSslCipherPoolTest {
+
+    private static final long DIRECT_MEMORY = 100;
+
+    private OpenSslCipherPool.CipherFactory factory;
+    private CryptoCipher nativeCipher;
+
+    @BeforeEach
+    public void before() throws IOException {
+        factory = mock(OpenSslCipherPool.CipherFactory.class);
+        nativeCipher = mock(CryptoCipher.class);
+        when(factory.create()).thenReturn(nativeCipher, mock(CryptoCipher.class));
+        when(nativeCipher.getBlockSize()).thenReturn(16);
+    }
+
+    @Test
+    public void testTryBorrow_reusesClosedCipher() throws IOException {
+        OpenSslCipherPool pool = new OpenSslCipherPool(2, 10 * DIRECT_MEMORY, factory);
+
+        CryptoCipher cipher = pool.tryBorrow(DIRECT_MEMORY).get();
+        assertThat(cipher.getBlockSize()).isEqualTo(16);
+        cipher.close();
+        assertThat(pool.getIdleCiphers()).isOne();
+
+        pool.tryBorrow(DIRECT_MEMORY).get().close();
+        verify(factory, times(1)).create();
+        verify(nativeCipher, never()).close();
+    }
+
+    @Test
+    public void testClose_rejectsUseOfClosedCipher() throws Exception {
+        OpenSslCipherPool pool = new OpenSslCipherPool(2, 10 * DIRECT_MEMORY, factory);
+        CryptoCipher closed = pool.tryBorrow(DIRECT_MEMORY).get();
+        closed.close();
+
+        try (CryptoCipher cipher = pool.tryBorrow(DIRECT_MEMORY).get()) {
+            byte[] bytes = new byte[16];
+            assertThatExceptionOfType(SafeIllegalStateException.class)
+                    .isThrownBy(() -> closed.init(Cipher.ENCRYPT_MODE, null, null));
+            assertThatExceptionOfType(SafeIllegalStateException.class)
+                    .isThrownBy(() -> closed.update(bytes, 0, bytes.length, bytes, 0));
+            assertThatExceptionOfType(SafeIllegalStateException.class)
+                    .isThrownBy(() -> closed.update(ByteBuffer.wrap(bytes), ByteBuffer.wrap(bytes)));
+            assertThatExceptionOfType(SafeIllegalStateException.class)
+                    .isThrownBy(() -> closed.doFinal(bytes, 0, bytes.length, bytes, 0));
+
+            cipher.update(bytes, 0, bytes.length, bytes, 0);
+            verify(factory, times(1)).create();
+            verify(nativeCipher, never()).init(anyInt(), any(), any());
+            verify(nativeCipher, times(1)).update(bytes, 0, bytes.length, bytes, 0);
+            verify(nativeCipher, never()).doFinal(any(byte[].class), anyInt(), anyInt(), any(byte[].class), anyInt());
+        }
+    }
+
+    @Test
+    public void testBorrow_reservesNoDirectMemory() throws IOException {
+        OpenSslCipherPool pool = new OpenSslCipherPool(2, DIRECT_MEMORY, factory);
+        CryptoCipher reserved = pool.tryBorrow(DIRECT_MEMORY).get();
+
+        try (CryptoCipher cipher = pool.borrow()) {
+            assertThat(cipher).isNotSameAs(reserved);
+            assertThat(pool.getReservedDirectMemory()).isEqualTo(DIRECT_MEMORY);
+            verify(factory, times(2)).create();
+        }
+        reserved.close();
+        assertThat(pool.getIdleCiphers()).isEqualTo(2);
+        assertThat(pool.getReservedDirectMemory()).isZero();
+    }
+
+    @Test
+    public void testGetDefault_maxDirectMemory() {
+        assertThat(System.getProperty(CryptoStreamFactory.OPENSSL_MAX_DIRECT_MEMORY_PROPERTY))
+                .isNull();
+        assertThat(OpenSslCipherPool.getDefault().getMaxDirectMemory())
+                .isEqualTo(OpenSslCipherPool.DEFAULT_MAX_DIRECT_MEMORY);
+    }
+
+    @Test
+    public void testTryBorrow_limitsDirectMemory() throws IOException {
+        OpenSslCipherPool pool = new OpenSslCipherPool(2, 2 * DIRECT_MEMORY, factory);
+
+        Optional<CryptoCipher> first = pool.tryBorrow(DIRECT_MEMORY);
+        Optional<CryptoCipher> second = pool.tryBorrow(DIRECT_MEMORY);
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(pool.getReservedDirectMemory()).isEqualTo(2 * DIRECT_MEMORY);
+        assertThat(pool.tryBorrow(DIRECT_MEMORY)).isEmpty();
+
+        first.get().close();
+        first.get().close();
+        assertThat(pool.getReservedDirectMemory()).isEqualTo(DIRECT_MEMORY);
+        assertThat(pool.tryBorrow(DIRECT_MEMORY)).isPresent();
+    }
+
+    @Test
+    public void testClose_closesCipherWhenPoolFull() throws IOException {
+        OpenSslCipherPool pool = new OpenSslCipherPool(1, 10 * DIRECT_MEMORY, factory);
+
+        CryptoCipher first = pool.tryBorrow(DIRECT_MEMORY).get();
+        CryptoCipher second = pool.tryBorrow(DIRECT_MEMORY).get();
+        second.close();
+        first.close();
+
+        assertThat(pool.getIdleCiphers()).isOne();
+        assertThat(pool.getReservedDirectMemory()).isZero();
+        verify(nativeCipher).close();
+    }
+
+    @Test
+    public void testTryBorrow_releasesReservationOfUnreachableCipher() throws Exception {
+        OpenSslCipherPool pool = new OpenSslCipherPool(2, DIRECT_MEMORY, factory);
+        assertThat(pool.tryBorrow(DIRECT_MEMORY)).isPresent();
+        assertThat(pool.getReservedDirectMemory()).isEqualTo(DIRECT_MEMORY);
+
+        for (int i = 0; i < 100 && pool.getReservedDirectMemory() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(pool.getReservedDirectMemory()).isZero();
+        assertThat(pool.getIdleCiphers()).isOne();
+        assertThat(pool.tryBorrow(DIRECT_MEMORY)).isPresent();
+        verify(factory, times(1)).create();
+    }
+
+    @Test
+    public void testTryBorrow_releasesReservationWhenCreationFails() throws IOException {
+        when(factory.create()).thenThrow(new IOException("no openssl"));
+        OpenSslCipherPool pool = new OpenSslCipherPool(1, 10 * DIRECT_MEMORY, factory);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> pool.tryBorrow(DIRECT_MEMORY))
+                .withMessage("no openssl");
+        assertThat(pool.getReservedDirectMemory()).isZero();
+    }
+}
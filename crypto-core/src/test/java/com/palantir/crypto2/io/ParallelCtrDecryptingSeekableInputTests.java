@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.seekio.InMemorySeekableDataInput;
+import com.palantir.seekio.SeekableInput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class ParallelCtrDecryptingSeekableInputTests {
+
+    private static final int NUM_BYTES = 3 * 1024 * 1024 + 1000;
+    private static final int THRESHOLD = 64 * 1024;
+    private static final Random random = new Random(0);
+    private static byte[] data;
+    private static byte[] encryptedData;
+    private static KeyMaterial keyMaterial;
+
+    private SeekableInput input;
+
+    @BeforeAll
+    public static void beforeClass() throws IOException {
+        data = new byte[NUM_BYTES];
+        random.nextBytes(data);
+        keyMaterial = SeekableCipherFactory.generateKeyMaterial(AesCtrCipher.ALGORITHM);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream cos = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM)) {
+            cos.write(data);
+        }
+        encryptedData = os.toByteArray();
+    }
+
+    @BeforeEach
+    public void before() {
+        SeekableInput encryptedInput = new InMemorySeekableDataInput(encryptedData);
+        SeekableInput decrypted = CryptoStreamFactory.decrypt(encryptedInput, keyMaterial, AesCtrCipher.ALGORITHM);
+        input = new ParallelCtrDecryptingSeekableInput(encryptedInput, decrypted, keyMaterial, THRESHOLD);
+    }
+
+    @Test
+    public void testLargeRead() throws IOException {
+        byte[] readData = new byte[NUM_BYTES];
+        assertThat(input.read(readData, 0, NUM_BYTES)).isEqualTo(NUM_BYTES);
+        assertThat(readData).isEqualTo(data);
+        assertThat(input.getPos()).isEqualTo(NUM_BYTES);
+        assertThat(input.read(readData, 0, NUM_BYTES)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testLargeRead_unalignedOffsetAndPosition() throws IOException {
+        int position = 13;
+        int length = 2 * 1024 * 1024 + 7;
+        byte[] readData = new byte[length + 5];
+
+        input.seek(position);
+        assertThat(input.read(readData, 5, length)).isEqualTo(length);
+        assertThat(Arrays.copyOfRange(readData, 5, length + 5))
+                .isEqualTo(Arrays.copyOfRange(data, position, position + length));
+    }
+
+    @Test
+    public void testLargeRead_pastEndOfInput() throws IOException {
+        int position = NUM_BYTES - THRESHOLD;
+        byte[] readData = new byte[2 * THRESHOLD];
+
+        input.seek(position);
+        assertThat(input.read(readData, 0, readData.length)).isEqualTo(THRESHOLD);
+        assertThat(Arrays.copyOf(readData, THRESHOLD)).isEqualTo(Arrays.copyOfRange(data, position, NUM_BYTES));
+        assertThat(input.getPos()).isEqualTo(NUM_BYTES);
+    }
+
+    @Test
+    public void testSmallReadsAfterLargeRead() throws IOException {
+        byte[] readData = new byte[THRESHOLD];
+        assertThat(input.read(readData, 0, THRESHOLD)).isEqualTo(THRESHOLD);
+
+        // Small reads continue from the end of the parallel read
+        byte[] smallRead = new byte[100];
+        assertThat(input.read(smallRead, 0, smallRead.length)).isEqualTo(smallRead.length);
+        assertThat(smallRead).isEqualTo(Arrays.copyOfRange(data, THRESHOLD, THRESHOLD + 100));
+
+        input.seek(7);
+        assertThat(input.read(smallRead, 0, smallRead.length)).isEqualTo(smallRead.length);
+        assertThat(smallRead).isEqualTo(Arrays.copyOfRange(data, 7, 107));
+        assertThat(input.getPos()).isEqualTo(107);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testSmallReadAfterLargeRead_withinDecryptedBuffer(boolean forceJce) throws IOException {
+        // A threshold below the read buffers of the decrypted input makes the repositioning seek after a parallel read
+        // land within the window the decrypted input already buffered
+        int threshold = 4096;
+        SeekableInput encryptedInput = new InMemorySeekableDataInput(encryptedData);
+        SeekableInput decrypted =
+                CryptoStreamFactory.decrypt(encryptedInput, keyMaterial, AesCtrCipher.ALGORITHM, forceJce);
+        input = new ParallelCtrDecryptingSeekableInput(encryptedInput, decrypted, keyMaterial, threshold);
+
+        byte[] smallRead = new byte[100];
+        assertThat(input.read(smallRead, 0, smallRead.length)).isEqualTo(smallRead.length);
+        assertThat(smallRead).isEqualTo(Arrays.copyOf(data, 100));
+
+        byte[] largeRead = new byte[2 * threshold];
+        assertThat(input.read(largeRead, 0, largeRead.length)).isEqualTo(largeRead.length);
+        assertThat(largeRead).isEqualTo(Arrays.copyOfRange(data, 100, 100 + largeRead.length));
+
+        int position = 100 + largeRead.length;
+        assertThat(input.read(smallRead, 0, smallRead.length)).isEqualTo(smallRead.length);
+        assertThat(smallRead).isEqualTo(Arrays.copyOfRange(data, position, position + 100));
+        assertThat(input.getPos()).isEqualTo(position + 100);
+    }
+}
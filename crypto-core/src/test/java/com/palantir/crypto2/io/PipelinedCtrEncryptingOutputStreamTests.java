@@ -0,0 +1,131 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.KeyMaterial;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class PipelinedCtrEncryptingOutputStreamTests {
+
+    private static final int NUM_BYTES = 1024 * 1024;
+    private static final int CHUNK_SIZE = 10_000;
+    private static final Random random = new Random(0);
+    private static byte[] data;
+
+    private KeyMaterial keyMaterial;
+    private ByteArrayOutputStream output;
+
+    @BeforeAll
+    public static void beforeClass() {
+        data = new byte[NUM_BYTES];
+        random.nextBytes(data);
+    }
+
+    @BeforeEach
+    public void before() {
+        keyMaterial = SeekableCipherFactory.generateKeyMaterial(AesCtrCipher.ALGORITHM);
+        output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testEncrypt_matchesSequentialEncryption() throws IOException {
+        try (OutputStream os = pipelinedStream(output)) {
+            os.write(data, 0, 7);
+            os.write(data[7]);
+            os.write(data, 8, CHUNK_SIZE * 3);
+            os.flush();
+            os.write(data, 8 + CHUNK_SIZE * 3, NUM_BYTES - 8 - CHUNK_SIZE * 3);
+        }
+
+        assertThat(output.toByteArray()).isEqualTo(encryptSequentially());
+    }
+
+    @Test
+    public void testEncrypt_chunksLargerThanCipherUpdates() throws IOException {
+        long returned = CipherPool.getDefault().getStats().getReturned();
+        int chunkSize = CryptoStreamFactory.CHUNK_SIZE * 5 + 7;
+        try (OutputStream os =
+                new PipelinedCtrEncryptingOutputStream(output, keyMaterial, chunkSize, 2, ForkJoinPool.commonPool())) {
+            os.write(data);
+        }
+
+        assertThat(output.toByteArray()).isEqualTo(encryptSequentially());
+        assertThat(CipherPool.getDefault().getStats().getReturned()).isGreaterThan(returned);
+    }
+
+    @Test
+    public void testFlush_writesAllBufferedBytes() throws IOException {
+        OutputStream os = pipelinedStream(output);
+        os.write(data, 0, CHUNK_SIZE / 2);
+        assertThat(output.size()).isZero();
+
+        os.flush();
+        assertThat(output.size()).isEqualTo(CHUNK_SIZE / 2);
+        os.close();
+    }
+
+    @Test
+    public void testWrite_afterClose() throws IOException {
+        OutputStream os = pipelinedStream(output);
+        os.close();
+        os.close();
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> os.write(data, 0, 1));
+    }
+
+    @Test
+    public void testWrite_propagatesUnderlyingFailure() throws IOException {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int _byteValue) throws IOException {
+                throw new IOException("write failed");
+            }
+        };
+
+        OutputStream os = pipelinedStream(failing);
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> {
+                    os.write(data);
+                    os.close();
+                })
+                .withMessage("write failed");
+    }
+
+    private OutputStream pipelinedStream(OutputStream out) {
+        return new PipelinedCtrEncryptingOutputStream(out, keyMaterial, CHUNK_SIZE, 2, ForkJoinPool.commonPool());
+    }
+
+    private byte[] encryptSequentially() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream cos = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM)) {
+            cos.write(data);
+        }
+        return os.toByteArray();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.seekio.InMemorySeekableDataInput;
+import com.palantir.seekio.SeekableInput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class ReadaheadSeekableInputTests {
+
+    private static final int NUM_BYTES = 1024 * 1024;
+    private static final int BUFFER_SIZE = 10_000;
+    private static final Random random = new Random(0);
+    private static byte[] data;
+
+    private SeekableInput input;
+
+    @BeforeAll
+    public static void beforeClass() {
+        data = new byte[NUM_BYTES];
+        random.nextBytes(data);
+    }
+
+    @BeforeEach
+    public void before() {
+        input = new ReadaheadSeekableInput(new InMemorySeekableDataInput(data), BUFFER_SIZE, 3);
+    }
+
+    @Test
+    public void testSequentialRead() throws IOException {
+        assertThat(readFully(input, NUM_BYTES)).isEqualTo(data);
+        assertThat(input.getPos()).isEqualTo(NUM_BYTES);
+        assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+        assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testSeek_withinCurrentBuffer() throws IOException {
+        readFully(input, 100);
+        input.seek(10);
+        assertThat(input.getPos()).isEqualTo(10);
+        assertThat(readFully(input, 100)).isEqualTo(Arrays.copyOfRange(data, 10, 110));
+    }
+
+    @Test
+    public void testSeek_withinReadahead() throws IOException {
+        readFully(input, 100);
+        input.seek(2 * BUFFER_SIZE + 5);
+        assertThat(input.getPos()).isEqualTo(2 * BUFFER_SIZE + 5);
+        assertThat(readFully(input, BUFFER_SIZE))
+                .isEqualTo(Arrays.copyOfRange(data, 2 * BUFFER_SIZE + 5, 3 * BUFFER_SIZE + 5));
+    }
+
+    @Test
+    public void testSeek_outsideReadahead() throws IOException {
+        readFully(input, 100);
+        input.seek(NUM_BYTES / 2);
+        assertThat(readFully(input, 100)).isEqualTo(Arrays.copyOfRange(data, NUM_BYTES / 2, NUM_BYTES / 2 + 100));
+
+        input.seek(3);
+        assertThat(input.getPos()).isEqualTo(3);
+        assertThat(readFully(input, 100)).isEqualTo(Arrays.copyOfRange(data, 3, 103));
+    }
+
+    @Test
+    public void testSeek_beforeFirstRead() throws IOException {
+        input.seek(NUM_BYTES - 10);
+        assertThat(readFully(input, 10)).isEqualTo(Arrays.copyOfRange(data, NUM_BYTES - 10, NUM_BYTES));
+        assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testSeek_afterEndOfInput() throws IOException {
+        readFully(input, NUM_BYTES);
+        assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+
+        input.seek(5);
+        assertThat(readFully(input, 5)).isEqualTo(Arrays.copyOfRange(data, 5, 10));
+    }
+
+    @Test
+    public void testRead_propagatesFailure() {
+        SeekableInput failing = new ReadaheadSeekableInput(
+                new SeekableInput() {
+                    @Override
+                    public void seek(long _offset) {}
+
+                    @Override
+                    public long getPos() {
+                        return 0;
+                    }
+
+                    @Override
+                    public int read(byte[] _bytes, int _offset, int _length) throws IOException {
+                        throw new IOException("read failed");
+                    }
+
+                    @Override
+                    public void close() {}
+                },
+                BUFFER_SIZE,
+                3);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> failing.read(new byte[1], 0, 1))
+                .withMessage("read failed");
+    }
+
+    @Test
+    public void testDecryptingInput() throws IOException {
+        KeyMaterial keyMaterial = SeekableCipherFactory.generateKeyMaterial(AesCtrCipher.ALGORITHM);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (OutputStream cos = CryptoStreamFactory.encrypt(os, keyMaterial, AesCtrCipher.ALGORITHM)) {
+            cos.write(data);
+        }
+
+        SeekableInput decrypted = CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(os.toByteArray()), keyMaterial, AesCtrCipher.ALGORITHM);
+        SeekableInput readahead = new ReadaheadSeekableInput(decrypted, BUFFER_SIZE, 3);
+
+        readahead.seek(12345);
+        assertThat(readFully(readahead, NUM_BYTES - 12345)).isEqualTo(Arrays.copyOfRange(data, 12345, NUM_BYTES));
+    }
+
+    private static byte[] readFully(SeekableInput in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int totalRead = 0;
+        while (totalRead < length) {
+            int bytesRead = in.read(bytes, totalRead, Math.min(777, length - totalRead));
+            assertThat(bytesRead).isPositive();
+            totalRead += bytesRead;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Bytes;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.seekio.InMemorySeekableDataInput;
+import com.palantir.seekio.SeekableInput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class SegmentedGcmTests {
+
+    private static final int SEGMENT_SIZE = AesGcmSegmentedCipher.SEGMENT_SIZE;
+    private static final int ENCRYPTED_SEGMENT_SIZE = AesGcmSegmentedCipher.ENCRYPTED_SEGMENT_SIZE;
+
+    private final Random random = new Random(0);
+    private KeyMaterial keyMaterial;
+
+    @BeforeEach
+    public void before() {
+        keyMaterial = AesGcmSegmentedCipher.generateKeyMaterial();
+    }
+
+    @Test
+    public void testEncryptDecrypt() throws IOException {
+        for (int length : new int[] {0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, SEGMENT_SIZE + 1, 40 * SEGMENT_SIZE + 7}) {
+            keyMaterial = AesGcmSegmentedCipher.generateKeyMaterial();
+            byte[] data = randomBytes(length);
+            byte[] encrypted = encrypt(data);
+
+            int segments = Math.max(1, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            assertThat(encrypted).hasSize(length + segments * AesGcmSegmentedCipher.TAG_SIZE);
+            assertThat(ByteStreams.toByteArray(new DefaultSeekableInputStream(decrypt(encrypted))))
+                    .isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_smallWrites() throws IOException {
+        byte[] data = randomBytes(3 * SEGMENT_SIZE + 100);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        try (OutputStream os = new SegmentedGcmEncryptingOutputStream(encrypted, keyMaterial)) {
+            for (int i = 0; i < data.length; i += 1000) {
+                os.write(data, i, Math.min(1000, data.length - i));
+            }
+        }
+
+        assertThat(ByteStreams.toByteArray(new DefaultSeekableInputStream(decrypt(encrypted.toByteArray()))))
+                .isEqualTo(data);
+    }
+
+    @Test
+    public void testDecrypt_inputStream() throws IOException {
+        byte[] data = randomBytes(20 * SEGMENT_SIZE + 3);
+
+        assertThat(ByteStreams.toByteArray(CryptoStreamFactory.decrypt(
+                        new ByteArrayInputStream(encrypt(data)), keyMaterial, AesGcmSegmentedCipher.ALGORITHM)))
+                .isEqualTo(data);
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        byte[] data = randomBytes(5 * SEGMENT_SIZE + 3);
+        SeekableInput input = decrypt(encrypt(data));
+        byte[] bytes = new byte[100];
+
+        for (long pos : new long[] {3 * SEGMENT_SIZE - 50, 10, 5 * SEGMENT_SIZE - 97, 2 * SEGMENT_SIZE}) {
+            input.seek(pos);
+            assertThat(input.read(bytes, 0, 50)).isEqualTo(50);
+            assertThat(input.getPos()).isEqualTo(pos + 50);
+            assertThat(Arrays.copyOf(bytes, 50)).isEqualTo(Arrays.copyOfRange(data, (int) pos, (int) pos + 50));
+        }
+
+        input.seek(data.length);
+        assertThat(input.read(bytes, 0, 1)).isEqualTo(-1);
+        input.seek(10L * SEGMENT_SIZE);
+        assertThat(input.read(bytes, 0, 1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testDecrypt_modifiedDataFails() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(3 * SEGMENT_SIZE));
+        encrypted[ENCRYPTED_SEGMENT_SIZE + 5] ^= 1;
+        SeekableInput input = decrypt(encrypted);
+
+        assertThat(input.read(new byte[10], 0, 10)).isEqualTo(10);
+        input.seek(SEGMENT_SIZE);
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> input.read(new byte[10], 0, 10))
+                .withMessageContaining("failed authentication");
+    }
+
+    @Test
+    public void testDecrypt_reorderedSegmentsFail() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(3 * SEGMENT_SIZE));
+        byte[] reordered = Bytes.concat(
+                Arrays.copyOfRange(encrypted, ENCRYPTED_SEGMENT_SIZE, 2 * ENCRYPTED_SEGMENT_SIZE),
+                Arrays.copyOfRange(encrypted, 0, ENCRYPTED_SEGMENT_SIZE),
+                Arrays.copyOfRange(encrypted, 2 * ENCRYPTED_SEGMENT_SIZE, encrypted.length));
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> decrypt(reordered).read(new byte[10], 0, 10))
+                .withMessageContaining("failed authentication");
+    }
+
+    @Test
+    public void testDecrypt_truncatedAtSegmentBoundaryFails() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(3 * SEGMENT_SIZE + 10));
+        byte[] truncated = Arrays.copyOf(encrypted, 2 * ENCRYPTED_SEGMENT_SIZE);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> ByteStreams.toByteArray(new DefaultSeekableInputStream(decrypt(truncated))))
+                .withMessageContaining("failed authentication");
+    }
+
+    @Test
+    public void testDecrypt_truncatedWithinTagFails() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(10));
+        byte[] truncated = Arrays.copyOf(encrypted, 5);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> decrypt(truncated).read(new byte[10], 0, 10))
+                .withMessageContaining("truncated");
+    }
+
+    @Test
+    public void testDecrypt_truncatedToEmptyFails() throws IOException {
+        assertThat(encrypt(new byte[0])).hasSize(AesGcmSegmentedCipher.TAG_SIZE);
+        SeekableInput input = decrypt(new byte[0]);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> input.read(new byte[10], 0, 10))
+                .withMessageContaining("truncated");
+        input.seek(10L * SEGMENT_SIZE);
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> input.read(new byte[10], 0, 10))
+                .withMessageContaining("truncated");
+    }
+
+    @Test
+    public void testDecrypt_emptyFile() throws IOException {
+        SeekableInput input = decrypt(encrypt(new byte[0]));
+
+        assertThat(input.read(new byte[10], 0, 10)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testDecrypt_readBeyondEndOfTruncatedDataFails() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(3 * SEGMENT_SIZE + 10));
+        SeekableInput input = decrypt(Arrays.copyOf(encrypted, 2 * ENCRYPTED_SEGMENT_SIZE));
+        input.seek(10L * SEGMENT_SIZE);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> input.read(new byte[10], 0, 10))
+                .withMessageContaining("failed authentication");
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        random.nextBytes(data);
+        return data;
+    }
+
+    private byte[] encrypt(byte[] data) throws IOException {
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        try (OutputStream os = CryptoStreamFactory.encrypt(encrypted, keyMaterial, AesGcmSegmentedCipher.ALGORITHM)) {
+            os.write(data);
+        }
+        return encrypted.toByteArray();
+    }
+
+    private SeekableInput decrypt(byte[] encrypted) {
+        return CryptoStreamFactory.decrypt(
+                new InMemorySeekableDataInput(encrypted), keyMaterial, AesGcmSegmentedCipher.ALGORITHM);
+    }
+}
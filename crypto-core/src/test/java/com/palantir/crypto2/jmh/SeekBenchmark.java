@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.jmh;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.crypto2.keys.serialization.KeyMaterials;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link AesCtrCipher#seek} against the previous implementation which computed the counter using
+ * {@link BigInteger} and created a new {@link Cipher} for every seek. Run with {@code -prof gc} to compare allocation
+ * rates.
+ */
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 4, time = 4)
+@Fork(1)
+public class SeekBenchmark {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int IV_SIZE = 16;
+    private static final int NUM_POSITIONS = 1024;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    @SuppressWarnings("DesignForExtension") // JMH needs public non-final State classes
+    public static class State {
+        private static final Random random = new Random();
+
+        public KeyMaterial key;
+        public SeekableCipher cipher;
+        public long[] positions;
+        public int index;
+
+        @Setup
+        public void setup() {
+            key = KeyMaterials.generateKeyMaterial("AES", 256, IV_SIZE);
+            cipher = new AesCtrCipher(key);
+            cipher.initCipher(Cipher.DECRYPT_MODE);
+            positions = new long[NUM_POSITIONS];
+            for (int i = 0; i < NUM_POSITIONS; i++) {
+                positions[i] = random.nextLong() & Long.MAX_VALUE;
+            }
+        }
+
+        long nextPosition() {
+            index = (index + 1) % NUM_POSITIONS;
+            return positions[index];
+        }
+    }
+
+    @Benchmark
+    public final Cipher seek(State state) {
+        return state.cipher.seek(state.nextPosition());
+    }
+
+    @Benchmark
+    public final Cipher bigIntegerSeek(State state) throws GeneralSecurityException {
+        long pos = state.nextPosition();
+        BigInteger block = BigInteger.valueOf(pos / BLOCK_SIZE);
+        byte[] ivBytes = new BigInteger(1, state.key.getIv()).add(block).toByteArray();
+
+        final IvParameterSpec newIv;
+        if (ivBytes.length >= IV_SIZE) {
+            newIv = new IvParameterSpec(ivBytes, ivBytes.length - IV_SIZE, IV_SIZE);
+        } else {
+            byte[] tmpIv = new byte[IV_SIZE];
+            System.arraycopy(ivBytes, 0, tmpIv, IV_SIZE - ivBytes.length, ivBytes.length);
+            newIv = new IvParameterSpec(tmpIv);
+        }
+
+        Cipher cipher = Cipher.getInstance(AesCtrCipher.ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, state.key.getSecretKey(), newIv);
+
+        int bytesToSkip = (int) (pos % BLOCK_SIZE);
+        cipher.update(new byte[bytesToSkip], 0, bytesToSkip);
+        return cipher;
+    }
+
+    public static void main(String[] _args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(SeekBenchmark.class.getSimpleName())
+                        .build())
+                .run();
+    }
+}
@@ -16,7 +16,10 @@
 
 package com.palantir.crypto2.keys;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The asynchronous equivalent of {@link KeyStorageStrategy}.
@@ -33,6 +36,38 @@ public interface AsyncKeyStorageStrategy {
      */
     CompletableFuture<KeyMaterial> get(String fileKey);
 
+    /**
+     * Async equivalent of {@link KeyStorageStrategy#getAll(Collection)}. The default implementation calls {@link #get}
+     * for each file in turn, waiting for each key material before requesting the next.
+     */
+    default CompletableFuture<KeyMaterialBatch> getAll(Collection<String> fileKeys) {
+        KeyMaterialBatch.Builder batch = KeyMaterialBatch.builder();
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        for (String fileKey : new LinkedHashSet<>(fileKeys)) {
+            result = result.thenCompose(_unused -> {
+                CompletableFuture<KeyMaterial> keyMaterial;
+                try {
+                    keyMaterial = get(fileKey);
+                } catch (RuntimeException e) {
+                    keyMaterial = CompletableFuture.failedFuture(e);
+                }
+                return keyMaterial.handle((value, failure) -> {
+                    if (failure == null) {
+                        batch.putKeyMaterials(fileKey, value);
+                    } else {
+                        batch.putFailures(
+                                fileKey,
+                                failure instanceof CompletionException && failure.getCause() != null
+                                        ? failure.getCause()
+                                        : failure);
+                    }
+                    return null;
+                });
+            });
+        }
+        return result.thenApply(_unused -> batch.build());
+    }
+
     /**
      * Async equivalent of {@link KeyStorageStrategy#remove(String)}.
      */
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wrapper that caches the {@link KeyMaterial} returned by a delegate {@link KeyStorageStrategy} so that repeated gets
+ * for the same file avoid fetching and unwrapping its key material. At most {@code maximumSize} key materials are
+ * cached, each for at most {@code expireAfterWrite}, which bounds how long a key material replaced by another process
+ * may be served. {@link #put} writes through to the delegate and {@link #remove} invalidates the cached key material
+ * before removing it from the delegate.
+ */
+public final class CachingKeyStorageStrategy implements KeyStorageStrategy {
+
+    private final KeyStorageStrategy delegate;
+    private final Cache<String, KeyMaterial> cache;
+    private final AtomicLong prefetched = new AtomicLong();
+
+    public CachingKeyStorageStrategy(KeyStorageStrategy delegate, long maximumSize, Duration expireAfterWrite) {
+        this(delegate, maximumSize, expireAfterWrite, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CachingKeyStorageStrategy(KeyStorageStrategy delegate, long maximumSize, Duration expireAfterWrite, Ticker ticker) {
+        Preconditions.checkArgument(
+                maximumSize >= 0, "Maximum size must be non-negative", SafeArg.of("maximumSize", maximumSize));
+        Preconditions.checkArgument(
+                !expireAfterWrite.isNegative(),
+                "Expiry must be non-negative",
+                SafeArg.of("expireAfterWrite", expireAfterWrite));
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void put(String fileKey, KeyMaterial keyMaterial) {
+        // Invalidate first so that a failed put never leaves the previous key material cached
+        cache.invalidate(fileKey);
+        delegate.put(fileKey, keyMaterial);
+        cache.put(fileKey, keyMaterial);
+    }
+
+    @Override
+    public KeyMaterial get(String fileKey) {
+        try {
+            return cache.get(fileKey, () -> delegate.get(fileKey));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Serves the cached key materials of the given files and retrieves the others from the delegate strategy in a
+     * single batch, caching those that were retrieved successfully.
+     */
+    @Override
+    public KeyMaterialBatch getAll(Collection<String> fileKeys) {
+        Map<String, KeyMaterial> cached = cache.getAllPresent(fileKeys);
+        Set<String> missing = new LinkedHashSet<>(fileKeys);
+        missing.removeAll(cached.keySet());
+        if (missing.isEmpty()) {
+            return KeyMaterialBatch.builder().keyMaterials(cached).build();
+        }
+
+        KeyMaterialBatch loaded = delegate.getAll(missing);
+        cacheIfAbsent(loaded.getKeyMaterials());
+        return KeyMaterialBatch.builder()
+                .from(loaded)
+                .putAllKeyMaterials(cached)
+                .build();
+    }
+
+    /**
+     * Loads the key materials of the given files that are not cached yet from the delegate strategy in a single batch
+     * and caches them ahead of their first {@link #get}. Files whose key material cannot be retrieved are skipped so
+     * that a later get reports the failure. Unlike gets, prefetching does not count as cache hits or misses.
+     */
+    public void prefetch(Collection<String> fileKeys) {
+        Set<String> missing = new LinkedHashSet<>(fileKeys);
+        missing.removeAll(cache.asMap().keySet());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, KeyMaterial> loaded = delegate.getAll(missing).getKeyMaterials();
+        cacheIfAbsent(loaded);
+        prefetched.addAndGet(loaded.size());
+    }
+
+    // Never replaces key material stored by a concurrent put with the possibly older key material loaded before it
+    private void cacheIfAbsent(Map<String, KeyMaterial> keyMaterials) {
+        keyMaterials.forEach(cache.asMap()::putIfAbsent);
+    }
+
+    @Override
+    public void remove(String fileKey) {
+        cache.invalidate(fileKey);
+        delegate.remove(fileKey);
+    }
+
+    /**
+     * Discards all cached key materials, for example after the files of a whole directory were renamed or deleted
+     * without going through this strategy.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public KeyCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return KeyCacheStats.builder()
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .loadFailures(stats.loadExceptionCount())
+                .totalLoadTimeNanos(stats.totalLoadTime())
+                .evictions(stats.evictionCount())
+                .prefetched(prefetched.get())
+                .size(cache.size())
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import com.google.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * A bounded, thread safe pool of {@link Cipher} instances keyed by transformation and provider which avoids the
+ * provider lookup and object creation of {@link Cipher#getInstance} when ciphers are created at a high rate.
+ * <p>
+ * A {@link Lease} hands out an uninitialized or previously used {@link Cipher} which must be initialized by the caller
+ * before use. Closing the lease returns the cipher to the pool, or discards it when {@link #getMaxIdlePerKey()} ciphers
+ * with the same transformation and provider are already idle. A lease that is never closed simply keeps its cipher.
+ * <p>
+ * Idle ciphers remain initialized with the key of their previous borrower, so ciphers initialized with key wrapping
+ * keys or private keys should be leased using {@link #borrowUnpooled} to keep those keys out of the pool.
+ */
+public final class CipherPool {
+
+    private static final int DEFAULT_MAX_IDLE_PER_KEY = 64;
+    private static final CipherPool DEFAULT = new CipherPool(DEFAULT_MAX_IDLE_PER_KEY);
+
+    private final int maxIdlePerKey;
+    private final ConcurrentMap<PoolKey, Queue<Cipher>> idleCiphers = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    public CipherPool(int maxIdlePerKey) {
+        Preconditions.checkArgument(
+                maxIdlePerKey > 0, "maxIdlePerKey must be positive", SafeArg.of("maxIdlePerKey", maxIdlePerKey));
+        this.maxIdlePerKey = maxIdlePerKey;
+    }
+
+    /**
+     * Returns the pool shared by the cipher and key serialization implementations of this library.
+     */
+    public static CipherPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Leases a {@link Cipher} for the given {@code transformation} from the most preferred provider.
+     */
+    public Lease borrow(String transformation) {
+        return borrow(transformation, null);
+    }
+
+    /**
+     * Leases a {@link Cipher} for the given {@code transformation} from the given {@code provider}, or from the most
+     * preferred provider if {@code provider} is null.
+     */
+    public Lease borrow(String transformation, @Nullable String provider) {
+        PoolKey key = new PoolKey(transformation, provider);
+        Queue<Cipher> idle = idleCiphers.get(key);
+        Cipher cipher = idle == null ? null : idle.poll();
+        if (cipher != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            cipher = newCipher(transformation, provider);
+        }
+        return new Lease(key, cipher, true);
+    }
+
+    /**
+     * Leases a new {@link Cipher} for the given {@code transformation} from the most preferred provider which is
+     * discarded rather than returned to the pool when the lease is closed, so that the key it is initialized with is
+     * not retained by the pool.
+     */
+    public Lease borrowUnpooled(String transformation) {
+        misses.increment();
+        return new Lease(new PoolKey(transformation, null), newCipher(transformation, null), false);
+    }
+
+    public int getMaxIdlePerKey() {
+        return maxIdlePerKey;
+    }
+
+    public CipherPoolStats getStats() {
+        int idle = 0;
+        for (Queue<Cipher> queue : idleCiphers.values()) {
+            idle += queue.size();
+        }
+        return CipherPoolStats.builder()
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .returned(returned.sum())
+                .discarded(discarded.sum())
+                .idle(idle)
+                .build();
+    }
+
+    private void release(PoolKey key, Cipher cipher) {
+        Queue<Cipher> idle = idleCiphers.computeIfAbsent(key, _key -> new ArrayBlockingQueue<>(maxIdlePerKey));
+        if (idle.offer(cipher)) {
+            returned.increment();
+        } else {
+            discarded.increment();
+        }
+    }
+
+    private static Cipher newCipher(String transformation, @Nullable String provider) {
+        try {
+            return provider == null ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider);
+        } catch (NoSuchAlgorithmException | NoSuchProviderException | NoSuchPaddingException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Exclusive use of a pooled {@link Cipher} until {@link #close()} returns it to the pool. The cipher must not be
+     * used after the lease is closed. Closing a lease more than once has no effect.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final PoolKey key;
+        private final boolean pooled;
+        private Cipher cipher;
+
+        private Lease(PoolKey key, Cipher cipher, boolean pooled) {
+            this.key = key;
+            this.cipher = cipher;
+            this.pooled = pooled;
+        }
+
+        public Cipher getCipher() {
+            Preconditions.checkState(cipher != null, "Cipher lease already closed");
+            return cipher;
+        }
+
+        @Override
+        public void close() {
+            if (cipher != null) {
+                if (pooled) {
+                    release(key, cipher);
+                } else {
+                    discarded.increment();
+                }
+                cipher = null;
+            }
+        }
+    }
+
+    private static final class PoolKey {
+        private final String transformation;
+
+        @Nullable
+        private final String provider;
+
+        private PoolKey(String transformation, @Nullable String provider) {
+            this.transformation = transformation;
+            this.provider = provider;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey that = (PoolKey) other;
+            return transformation.equals(that.transformation) && Objects.equals(provider, that.provider);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(transformation, provider);
+        }
+    }
+}
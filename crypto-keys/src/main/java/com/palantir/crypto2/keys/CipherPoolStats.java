@@ -0,0 +1,49 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import org.immutables.value.Value;
+
+/**
+ * Counters describing the effectiveness of a {@link CipherPool} since it was created.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class CipherPoolStats {
+
+    /** Number of leases served by an idle pooled cipher. */
+    public abstract long getHits();
+
+    /** Number of leases that required a new cipher to be created. */
+    public abstract long getMisses();
+
+    /** Number of ciphers returned to the pool when their lease was closed. */
+    public abstract long getReturned();
+
+    /** Number of ciphers dropped when their lease was closed because the pool was full. */
+    public abstract long getDiscarded();
+
+    /** Number of ciphers currently idle in the pool. */
+    public abstract int getIdle();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder extends ImmutableCipherPoolStats.Builder {}
+}
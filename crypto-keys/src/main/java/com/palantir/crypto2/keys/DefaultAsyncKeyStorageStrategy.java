@@ -16,6 +16,7 @@
 
 package com.palantir.crypto2.keys;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
@@ -44,6 +45,11 @@ public final class DefaultAsyncKeyStorageStrategy implements AsyncKeyStorageStra
         return CompletableFuture.supplyAsync(() -> keys.get(fileKey), executor);
     }
 
+    @Override
+    public CompletableFuture<KeyMaterialBatch> getAll(Collection<String> fileKeys) {
+        return CompletableFuture.supplyAsync(() -> keys.getAll(fileKeys), executor);
+    }
+
     @Override
     public CompletableFuture<Void> remove(String fileKey) {
         return CompletableFuture.supplyAsync(
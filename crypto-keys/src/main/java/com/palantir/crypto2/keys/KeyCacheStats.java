@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import org.immutables.value.Value;
+
+/**
+ * Counters describing the effectiveness of a {@link CachingKeyStorageStrategy} since it was created.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class KeyCacheStats {
+
+    /** Number of gets served by cached key material. */
+    public abstract long getHits();
+
+    /** Number of gets that required key material to be loaded from the delegate strategy. */
+    public abstract long getMisses();
+
+    /** Number of loads from the delegate strategy that failed. */
+    public abstract long getLoadFailures();
+
+    /** Total time in nanoseconds spent loading key material from the delegate strategy. */
+    public abstract long getTotalLoadTimeNanos();
+
+    /** Number of entries evicted because the cache was full or they expired. */
+    public abstract long getEvictions();
+
+    /** Number of key materials loaded ahead of their first get by {@link CachingKeyStorageStrategy#prefetch}. */
+    public abstract long getPrefetched();
+
+    /** Number of key materials currently cached. */
+    public abstract long getSize();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder extends ImmutableKeyCacheStats.Builder {}
+}
@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import java.util.Map;
+import org.immutables.value.Value;
+
+/**
+ * The result of getting the {@link KeyMaterial} of several files at once. Every requested file key maps to either its
+ * key material or the failure that prevented it from being retrieved, so that one missing or corrupt key material does
+ * not fail the whole batch.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class KeyMaterialBatch {
+
+    /** Key materials of the files that were retrieved successfully, by file key. */
+    public abstract Map<String, KeyMaterial> getKeyMaterials();
+
+    /** Failures of the files whose key material could not be retrieved, by file key. */
+    public abstract Map<String, Throwable> getFailures();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends ImmutableKeyMaterialBatch.Builder {}
+}
@@ -16,6 +16,9 @@
 
 package com.palantir.crypto2.keys;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
 /**
  * The strategy used to store the per file {@link KeyMaterial} used for encryption operations.
  */
@@ -31,6 +34,23 @@ public interface KeyStorageStrategy {
      */
     KeyMaterial get(String fileKey);
 
+    /**
+     * Retrieves the {@link KeyMaterial} for each file with one of the given {@code fileKeys}. Failures to retrieve the
+     * key material of a single file are reported in the returned {@link KeyMaterialBatch} rather than thrown. The
+     * default implementation calls {@link #get} for each file in turn.
+     */
+    default KeyMaterialBatch getAll(Collection<String> fileKeys) {
+        KeyMaterialBatch.Builder batch = KeyMaterialBatch.builder();
+        for (String fileKey : new LinkedHashSet<>(fileKeys)) {
+            try {
+                batch.putKeyMaterials(fileKey, get(fileKey));
+            } catch (RuntimeException e) {
+                batch.putFailures(fileKey, e);
+            }
+        }
+        return batch.build();
+    }
+
     /**
      * Removes the {@link KeyMaterial} for a file with the given {@code fileKey}.
      */
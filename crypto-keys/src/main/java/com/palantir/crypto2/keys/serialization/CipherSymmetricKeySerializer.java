@@ -17,6 +17,7 @@
 package com.palantir.crypto2.keys.serialization;
 
 import com.google.common.base.Preconditions;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.logsafe.exceptions.SafeRuntimeException;
 import java.io.ByteArrayInputStream;
@@ -63,10 +64,10 @@ final class CipherSymmetricKeySerializer implements SymmetricKeySerializer {
         DataOutputStream stream = new DataOutputStream(byteStream);
 
         byte[] wrappingIv = KeyMaterials.generateIv(ivSize);
-        Cipher keyWrappingCipher = cipherFactory.getCipher(Cipher.WRAP_MODE, key, wrappingIv);
         SecretKey secretKey = keyMaterial.getSecretKey();
 
-        try {
+        try (CipherPool.Lease lease = cipherFactory.getCipher(Cipher.WRAP_MODE, key, wrappingIv)) {
+            Cipher keyWrappingCipher = lease.getCipher();
             stream.write(version);
 
             stream.write(wrappingIv);
@@ -104,7 +105,6 @@ final class CipherSymmetricKeySerializer implements SymmetricKeySerializer {
 
             byte[] wrappingIv = new byte[ivSize];
             stream.readFully(wrappingIv);
-            Cipher keyUnwrappingCipher = cipherFactory.getCipher(Cipher.UNWRAP_MODE, key, wrappingIv);
 
             int algorithmLength = stream.readInt();
             byte[] algorithmBytes = new byte[algorithmLength];
@@ -119,8 +119,11 @@ final class CipherSymmetricKeySerializer implements SymmetricKeySerializer {
             stream.readFully(iv);
 
             String algorithm = new String(algorithmBytes, StandardCharsets.UTF_8);
-            SecretKey secretKey = (SecretKey) keyUnwrappingCipher.unwrap(secretKeyBytes, algorithm, Cipher.SECRET_KEY);
-            return KeyMaterial.of(secretKey, iv);
+            try (CipherPool.Lease lease = cipherFactory.getCipher(Cipher.UNWRAP_MODE, key, wrappingIv)) {
+                SecretKey secretKey =
+                        (SecretKey) lease.getCipher().unwrap(secretKeyBytes, algorithm, Cipher.SECRET_KEY);
+                return KeyMaterial.of(secretKey, iv);
+            }
         } catch (InvalidKeyException | NoSuchAlgorithmException | IOException e) {
             throw new SafeRuntimeException("Unable to unwrap key", e);
         }
@@ -132,6 +135,9 @@ final class CipherSymmetricKeySerializer implements SymmetricKeySerializer {
     }
 
     interface CipherFactory {
-        Cipher getCipher(int cipherMode, SecretKey secretKey, byte[] iv);
+        /**
+         * Returns a lease of a {@link Cipher} initialized for the given mode, key and iv.
+         */
+        CipherPool.Lease getCipher(int cipherMode, SecretKey secretKey, byte[] iv);
     }
 }
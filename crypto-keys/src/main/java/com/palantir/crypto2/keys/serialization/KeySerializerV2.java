@@ -18,6 +18,7 @@ package com.palantir.crypto2.keys.serialization;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.logsafe.exceptions.SafeRuntimeException;
 import java.io.ByteArrayInputStream;
@@ -59,10 +60,10 @@ enum KeySerializerV2 implements KeySerializer {
     public byte[] wrap(KeyMaterial keyMaterial, PublicKey key) {
         ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
         DataOutputStream stream = new DataOutputStream(byteStream);
-        Cipher keyWrappingCipher = KeySerializers.getCipher(Cipher.WRAP_MODE, key);
         SecretKey secretKey = keyMaterial.getSecretKey();
 
-        try {
+        try (CipherPool.Lease lease = KeySerializers.getCipher(Cipher.WRAP_MODE, key)) {
+            Cipher keyWrappingCipher = lease.getCipher();
             stream.write(VERSION);
 
             String keyAlgorithm = secretKey.getAlgorithm();
@@ -87,9 +88,9 @@ enum KeySerializerV2 implements KeySerializer {
     @Override
     public KeyMaterial unwrap(byte[] wrappedKeyMaterial, PrivateKey key) {
         DataInputStream stream = new DataInputStream(new ByteArrayInputStream(wrappedKeyMaterial));
-        Cipher keyUnwrappingCipher = KeySerializers.getCipher(Cipher.UNWRAP_MODE, key);
 
-        try {
+        try (CipherPool.Lease lease = KeySerializers.getCipher(Cipher.UNWRAP_MODE, key)) {
+            Cipher keyUnwrappingCipher = lease.getCipher();
             int version = stream.read();
             Preconditions.checkArgument(
                     VERSION == version,
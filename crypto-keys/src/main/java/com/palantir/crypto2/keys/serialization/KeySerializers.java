@@ -18,12 +18,11 @@ package com.palantir.crypto2.keys.serialization;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.palantir.crypto2.keys.CipherPool;
 import java.security.InvalidKeyException;
 import java.security.Key;
-import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 
 final class KeySerializers {
 
@@ -36,12 +35,18 @@ final class KeySerializers {
 
     private KeySerializers() {}
 
-    static Cipher getCipher(int cipherMode, Key key) {
+    /**
+     * Leases a new {@link Cipher} for the algorithm of the given {@code key} and initializes it. The cipher is not
+     * returned to the {@link CipherPool#getDefault() default pool} since it holds the key wrapping key, which may be a
+     * private key. The lease must be closed once the cipher is no longer used.
+     */
+    static CipherPool.Lease getCipher(int cipherMode, Key key) {
+        CipherPool.Lease lease = CipherPool.getDefault().borrowUnpooled(key.getAlgorithm());
         try {
-            Cipher cipher = Cipher.getInstance(key.getAlgorithm());
-            cipher.init(cipherMode, key);
-            return cipher;
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e) {
+            lease.getCipher().init(cipherMode, key);
+            return lease;
+        } catch (InvalidKeyException e) {
+            lease.close();
             throw Throwables.propagate(e);
         }
     }
@@ -17,12 +17,10 @@
 package com.palantir.crypto2.keys.serialization;
 
 import com.google.common.base.Throwables;
+import com.palantir.crypto2.keys.CipherPool;
 import com.palantir.crypto2.keys.KeyMaterial;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 
@@ -36,15 +34,13 @@ enum SymmetricKeySerializerV4 implements SymmetricKeySerializer {
     private static final SymmetricKeySerializer delegate =
             new CipherSymmetricKeySerializer(IV_SIZE, VERSION, SymmetricKeySerializerV4::getCipher);
 
-    static Cipher getCipher(int cipherMode, SecretKey key, byte[] iv) {
+    static CipherPool.Lease getCipher(int cipherMode, SecretKey key, byte[] iv) {
+        CipherPool.Lease lease = CipherPool.getDefault().borrowUnpooled(AES_CBC_PKCS_5_PADDING);
         try {
-            Cipher cipher = Cipher.getInstance(AES_CBC_PKCS_5_PADDING);
-            cipher.init(cipherMode, key, new IvParameterSpec(iv));
-            return cipher;
-        } catch (NoSuchAlgorithmException
-                | NoSuchPaddingException
-                | InvalidKeyException
-                | InvalidAlgorithmParameterException e) {
+            lease.getCipher().init(cipherMode, key, new IvParameterSpec(iv));
+            return lease;
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
+            lease.close();
             throw Throwables.propagate(e);
         }
     }
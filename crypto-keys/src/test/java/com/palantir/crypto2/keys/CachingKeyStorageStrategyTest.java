@@ -0,0 +1,216 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+public final class CachingKeyStorageStrategyTest {
+
+    private static final Duration EXPIRY = Duration.ofMinutes(10);
+
+    private KeyStorageStrategy delegate;
+    private CachingKeyStorageStrategy caching;
+    private AtomicLong nanos;
+    private KeyMaterial keyMaterial;
+    private String key;
+
+    @BeforeEach
+    public void before() {
+        key = "key";
+        delegate = mock(KeyStorageStrategy.class);
+        keyMaterial = mock(KeyMaterial.class);
+        nanos = new AtomicLong();
+        when(delegate.get(anyString())).thenReturn(keyMaterial);
+
+        caching = new CachingKeyStorageStrategy(delegate, 2, EXPIRY, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+    }
+
+    @Test
+    public void testGet_loadsOnce() {
+        assertThat(caching.get(key)).isEqualTo(keyMaterial);
+        assertThat(caching.get(key)).isEqualTo(keyMaterial);
+
+        verify(delegate, times(1)).get(key);
+        KeyCacheStats stats = caching.getStats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGet_reloadsAfterExpiry() {
+        caching.get(key);
+        nanos.addAndGet(EXPIRY.toNanos());
+        caching.get(key);
+
+        verify(delegate, times(2)).get(key);
+        assertThat(caching.getStats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGet_boundedSize() {
+        caching.get(key);
+        caching.get("other1");
+        caching.get("other2");
+
+        assertThat(caching.getStats().getSize()).isEqualTo(2);
+        assertThat(caching.getStats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGet_failuresPropagatedAndNotCached() {
+        IllegalArgumentException failure = new IllegalArgumentException();
+        when(delegate.get("missing")).thenThrow(failure);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> caching.get("missing"))
+                .isSameAs(failure);
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> caching.get("missing"));
+
+        verify(delegate, times(2)).get("missing");
+        assertThat(caching.getStats().getLoadFailures()).isEqualTo(2);
+        assertThat(caching.getStats().getSize()).isZero();
+    }
+
+    @Test
+    public void testPut_writesThrough() {
+        KeyMaterial other = mock(KeyMaterial.class);
+        caching.get(key);
+        caching.put(key, other);
+
+        assertThat(caching.get(key)).isEqualTo(other);
+        verify(delegate).put(key, other);
+        verify(delegate, times(1)).get(key);
+    }
+
+    @Test
+    public void testPut_failureInvalidates() {
+        KeyMaterial other = mock(KeyMaterial.class);
+        caching.get(key);
+        doThrow(new IllegalStateException()).when(delegate).put(key, other);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> caching.put(key, other));
+        assertThat(caching.get(key)).isEqualTo(keyMaterial);
+        verify(delegate, times(2)).get(key);
+    }
+
+    @Test
+    public void testRemove_invalidates() {
+        caching.get(key);
+        caching.remove(key);
+        caching.get(key);
+
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).get(key);
+        inOrder.verify(delegate).remove(key);
+        inOrder.verify(delegate).get(key);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        caching.get(key);
+        caching.invalidateAll();
+
+        assertThat(caching.getStats().getSize()).isZero();
+        caching.get(key);
+        verify(delegate, times(2)).get(key);
+    }
+
+    @Test
+    public void testLoadTimeRecorded() {
+        caching.get(key);
+
+        assertThat(caching.getStats().getTotalLoadTimeNanos()).isPositive();
+    }
+
+    @Test
+    public void testGetAll_loadsMissingInOneBatch() {
+        KeyMaterial other = mock(KeyMaterial.class);
+        IllegalStateException failure = new IllegalStateException();
+        when(delegate.getAll(ImmutableSet.of("other", "missing")))
+                .thenReturn(KeyMaterialBatch.builder()
+                        .putKeyMaterials("other", other)
+                        .putFailures("missing", failure)
+                        .build());
+        caching.get(key);
+
+        KeyMaterialBatch batch = caching.getAll(ImmutableList.of(key, "other", "missing"));
+
+        assertThat(batch.getKeyMaterials()).containsOnly(entry(key, keyMaterial), entry("other", other));
+        assertThat(batch.getFailures()).containsExactly(entry("missing", failure));
+        assertThat(caching.get("other")).isEqualTo(other);
+        verify(delegate, never()).get("other");
+    }
+
+    @Test
+    public void testPrefetch() {
+        KeyMaterial other = mock(KeyMaterial.class);
+        when(delegate.getAll(ImmutableSet.of("other", "missing")))
+                .thenReturn(KeyMaterialBatch.builder()
+                        .putKeyMaterials("other", other)
+                        .putFailures("missing", new IllegalStateException())
+                        .build());
+        caching.get(key);
+
+        caching.prefetch(ImmutableList.of(key, "other", "missing"));
+
+        KeyCacheStats stats = caching.getStats();
+        assertThat(stats.getPrefetched()).isEqualTo(1);
+        assertThat(stats.getHits()).isZero();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(2);
+        assertThat(caching.get("other")).isEqualTo(other);
+        verify(delegate, never()).get("other");
+    }
+
+    @Test
+    public void testPrefetch_allCached() {
+        caching.get(key);
+
+        caching.prefetch(ImmutableList.of(key));
+
+        verify(delegate, never()).getAll(anyCollection());
+        assertThat(caching.getStats().getPrefetched()).isZero();
+    }
+}
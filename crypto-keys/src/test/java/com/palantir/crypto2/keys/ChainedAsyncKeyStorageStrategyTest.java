@@ -18,6 +18,7 @@ package com.palantir.crypto2.keys;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -112,6 +113,29 @@ public final class ChainedAsyncKeyStorageStrategyTest {
                         ImmutableList.of(failingStrategy.getClass().getCanonicalName())));
     }
 
+    @Test
+    public void testGetAll() {
+        chained = new ChainedAsyncKeyStorageStrategy(EXECUTOR, successfulStrategy);
+
+        KeyMaterialBatch batch = chained.getAll(ImmutableList.of(KEY, KEY)).join();
+
+        assertThat(batch.getKeyMaterials()).containsExactly(entry(KEY, keyMaterial));
+        assertThat(batch.getFailures()).isEmpty();
+        verify(successfulStrategy).get(KEY);
+    }
+
+    @Test
+    public void testGetAll_failuresReportedPerKey() {
+        chained = new ChainedAsyncKeyStorageStrategy(EXECUTOR, failingStrategy);
+
+        KeyMaterialBatch batch = chained.getAll(ImmutableList.of(KEY)).join();
+
+        assertThat(batch.getKeyMaterials()).isEmpty();
+        assertThat(batch.getFailures().get(KEY))
+                .isExactlyInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Unable to get key material");
+    }
+
     @Test
     public void testRemove_allCalled() {
         chained = new ChainedAsyncKeyStorageStrategy(EXECUTOR, successfulStrategy, successfulStrategy);
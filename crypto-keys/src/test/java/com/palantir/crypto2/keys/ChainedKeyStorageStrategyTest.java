@@ -18,6 +18,7 @@ package com.palantir.crypto2.keys;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -101,4 +102,15 @@ public final class ChainedKeyStorageStrategyTest {
         inOrder.verify(failingStrategy).remove(key);
         verifyNoMoreInteractions(successfulStrategy, failingStrategy);
     }
+
+    @Test
+    public void testGetAll_failuresReportedPerKey() {
+        when(successfulStrategy.get("missing")).thenThrow(new IllegalStateException());
+        chained = new ChainedKeyStorageStrategy(successfulStrategy);
+
+        KeyMaterialBatch batch = chained.getAll(ImmutableList.of(key, "missing"));
+
+        assertThat(batch.getKeyMaterials()).containsExactly(entry(key, keyMaterial));
+        assertThat(batch.getFailures()).containsOnlyKeys("missing");
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.keys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import javax.crypto.Cipher;
+import org.junit.jupiter.api.Test;
+
+public final class CipherPoolTest {
+
+    private static final String TRANSFORMATION = "AES/CTR/NoPadding";
+
+    @Test
+    public void testBorrow_reusesReturnedCipher() {
+        CipherPool pool = new CipherPool(2);
+        CipherPool.Lease lease = pool.borrow(TRANSFORMATION);
+        Cipher cipher = lease.getCipher();
+        lease.close();
+
+        try (CipherPool.Lease reused = pool.borrow(TRANSFORMATION)) {
+            assertThat(reused.getCipher()).isSameAs(cipher);
+        }
+        assertThat(pool.getStats())
+                .isEqualTo(CipherPoolStats.builder()
+                        .hits(1)
+                        .misses(1)
+                        .returned(2)
+                        .discarded(0)
+                        .idle(1)
+                        .build());
+    }
+
+    @Test
+    public void testBorrow_keyedByTransformationAndProvider() {
+        CipherPool pool = new CipherPool(2);
+        Cipher cipher;
+        try (CipherPool.Lease lease = pool.borrow(TRANSFORMATION)) {
+            cipher = lease.getCipher();
+        }
+
+        try (CipherPool.Lease otherTransformation = pool.borrow("AES/CBC/PKCS5Padding");
+                CipherPool.Lease otherProvider = pool.borrow(TRANSFORMATION, "SunJCE")) {
+            assertThat(otherTransformation.getCipher().getAlgorithm()).isEqualTo("AES/CBC/PKCS5Padding");
+            assertThat(otherProvider.getCipher()).isNotSameAs(cipher);
+            assertThat(otherProvider.getCipher().getProvider().getName()).isEqualTo("SunJCE");
+        }
+        assertThat(pool.getStats().getHits()).isZero();
+        assertThat(pool.getStats().getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    public void testBorrowUnpooled_neverReturnsCipher() {
+        CipherPool pool = new CipherPool(2);
+        Cipher cipher;
+        try (CipherPool.Lease lease = pool.borrowUnpooled(TRANSFORMATION)) {
+            cipher = lease.getCipher();
+        }
+
+        try (CipherPool.Lease lease = pool.borrow(TRANSFORMATION)) {
+            assertThat(lease.getCipher()).isNotSameAs(cipher);
+        }
+        CipherPoolStats stats = pool.getStats();
+        assertThat(stats.getHits()).isZero();
+        assertThat(stats.getMisses()).isEqualTo(2);
+        assertThat(stats.getDiscarded()).isOne();
+        assertThat(stats.getIdle()).isOne();
+    }
+
+    @Test
+    public void testClose_discardsWhenFull() {
+        CipherPool pool = new CipherPool(1);
+        CipherPool.Lease first = pool.borrow(TRANSFORMATION);
+        CipherPool.Lease second = pool.borrow(TRANSFORMATION);
+        first.close();
+        second.close();
+
+        CipherPoolStats stats = pool.getStats();
+        assertThat(stats.getReturned()).isEqualTo(1);
+        assertThat(stats.getDiscarded()).isEqualTo(1);
+        assertThat(stats.getIdle()).isEqualTo(1);
+    }
+
+    @Test
+    public void testClose_idempotent() {
+        CipherPool pool = new CipherPool(2);
+        CipherPool.Lease lease = pool.borrow(TRANSFORMATION);
+        lease.close();
+        lease.close();
+
+        assertThat(pool.getStats().getReturned()).isEqualTo(1);
+        assertThat(pool.getStats().getIdle()).isEqualTo(1);
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(lease::getCipher)
+                .withMessage("Cipher lease already closed");
+    }
+
+    @Test
+    public void testBorrow_unknownTransformation() {
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> new CipherPool(1).borrow("NotACipher"));
+    }
+}
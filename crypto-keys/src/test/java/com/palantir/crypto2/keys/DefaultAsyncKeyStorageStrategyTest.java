@@ -22,6 +22,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.jupiter.api.BeforeEach;
@@ -82,6 +83,15 @@ public final class DefaultAsyncKeyStorageStrategyTest {
                 .join();
     }
 
+    @Test
+    public void testGetAll() {
+        KeyMaterialBatch batch =
+                KeyMaterialBatch.builder().putKeyMaterials(KEY, keyMaterial).build();
+        when(delegate.getAll(ImmutableList.of(KEY))).thenReturn(batch);
+
+        assertThat(keys.getAll(ImmutableList.of(KEY)).join()).isEqualTo(batch);
+    }
+
     @Test
     public void testRemove() {
         keys.remove(KEY).join();
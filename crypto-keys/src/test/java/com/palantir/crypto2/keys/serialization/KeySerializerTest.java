@@ -19,6 +19,8 @@ package com.palantir.crypto2.keys.serialization;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.CipherPoolStats;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.crypto2.keys.TestKeyPairs;
 import java.security.KeyPair;
@@ -50,6 +52,20 @@ public abstract class KeySerializerTest {
                         getSerializer().getVersion());
     }
 
+    @Test
+    public final void testWrapAndUnwrap_doesNotPoolCiphers() {
+        keyPair = TestKeyPairs.generateKeyPair();
+        KeyMaterial keyMaterial = KeyMaterials.generateKeyMaterial(KEY_ALG, KEY_SIZE, IV_SIZE);
+        CipherPoolStats before = CipherPool.getDefault().getStats();
+
+        byte[] wrapped = getSerializer().wrap(keyMaterial, keyPair.getPublic());
+        assertThat(getSerializer().unwrap(wrapped, keyPair.getPrivate())).isEqualTo(keyMaterial);
+
+        CipherPoolStats after = CipherPool.getDefault().getStats();
+        assertThat(after.getReturned()).isEqualTo(before.getReturned());
+        assertThat(after.getDiscarded()).isGreaterThanOrEqualTo(before.getDiscarded() + 2);
+    }
+
     final void testWrapAndUnwrap(Set<Integer> symmetricKeySizes, Set<Integer> wrappingKeySizes) {
         for (Integer symmetricKeySize : symmetricKeySizes) {
             for (Integer wrappingKeySize : wrappingKeySizes) {
@@ -18,6 +18,8 @@ package com.palantir.crypto2.keys.serialization;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.palantir.crypto2.keys.CipherPool;
+import com.palantir.crypto2.keys.CipherPoolStats;
 import com.palantir.crypto2.keys.KeyMaterial;
 import org.junit.jupiter.api.Test;
 
@@ -47,4 +49,20 @@ public final class SymmetricKeySerializerV4Test {
         byte[] wrapped2 = SERIALIZER.wrap(keyMaterial, wrappingKeyMaterial.getSecretKey());
         assertThat(wrapped1).isNotEqualTo(wrapped2);
     }
+
+    @Test
+    public void testWrapUnwrap_doesNotPoolCiphers() {
+        KeyMaterial wrappingKeyMaterial = KeyMaterials.generateKeyMaterial(KEY_ALG, KEY_SIZE, IV_SIZE);
+        KeyMaterial keyMaterial = KeyMaterials.generateKeyMaterial(KEY_ALG, KEY_SIZE, IV_SIZE);
+        CipherPoolStats before = CipherPool.getDefault().getStats();
+
+        for (int i = 0; i < 3; i++) {
+            byte[] wrapped = SERIALIZER.wrap(keyMaterial, wrappingKeyMaterial.getSecretKey());
+            assertThat(SERIALIZER.unwrap(wrapped, wrappingKeyMaterial.getSecretKey()))
+                    .isEqualTo(keyMaterial);
+        }
+        CipherPoolStats after = CipherPool.getDefault().getStats();
+        assertThat(after.getReturned()).isEqualTo(before.getReturned());
+        assertThat(after.getDiscarded()).isGreaterThanOrEqualTo(before.getDiscarded() + 6);
+    }
 }
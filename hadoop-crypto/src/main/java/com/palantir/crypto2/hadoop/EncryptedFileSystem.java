@@ -18,34 +18,48 @@ package com.palantir.crypto2.hadoop;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
 import com.palantir.crypto2.cipher.SeekableCipher;
 import com.palantir.crypto2.cipher.SeekableCipherFactory;
+import com.palantir.crypto2.hadoop.cipher.DecryptedPageCache;
+import com.palantir.crypto2.hadoop.cipher.DecryptionOptions;
 import com.palantir.crypto2.hadoop.cipher.FsCipherInputStream;
+import com.palantir.crypto2.hadoop.cipher.PageCacheStats;
 import com.palantir.crypto2.io.CryptoStreamFactory;
+import com.palantir.crypto2.io.PipelinedCtrEncryptingOutputStream;
+import com.palantir.crypto2.io.ReadBufferPolicy;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.crypto2.keys.KeyStorageStrategy;
+import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Optional;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CreateFlag;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Options.ChecksumOpt;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.util.Progressable;
 
 /**
  * A {@link FileSystem} wrapper that encrypts and decrypts the streams from the underlying {@link FileSystem}. The
  * encryption algorithm may be configured by setting {@link #CIPHER_ALGORITHM_KEY} in the {@link
- * org.apache.hadoop.conf.Configuration} to the desired {@link SeekableCipher} algorithm. If no algorithm is set then
+ * org.apache.hadoop.conf.Configuration} to the desired {@link SeekableCipher} algorithm or to the authenticated
+ * {@value AesGcmSegmentedCipher#ALGORITHM} format. If no algorithm is set then
  * {@link #DEFAULT_CIPHER_ALGORITHM} will be used. The symmetric key used to encrypt each file is stored and retrieved
  * using the provided {@link KeyStorageStrategy}.
  */
@@ -64,15 +78,98 @@ public final class EncryptedFileSystem extends DelegatingFileSystem {
 
     public static final String CIPHER_ALGORITHM_KEY = "fs.efs.cipher";
 
+    /**
+     * Enables parallel decryption of large sequential reads of {@value AesCtrCipher#ALGORITHM} encrypted files.
+     */
+    public static final String PARALLEL_DECRYPT_ENABLED_KEY = "fs.efs.decrypt.parallel.enabled";
+
+    /**
+     * Minimum size in bytes of a read that is decrypted in parallel when {@link #PARALLEL_DECRYPT_ENABLED_KEY} is set.
+     */
+    public static final String PARALLEL_DECRYPT_THRESHOLD_KEY = "fs.efs.decrypt.parallel.threshold";
+
+    /**
+     * Enables encrypting {@value AesCtrCipher#ALGORITHM} output streams that encrypt chunks in the background while
+     * previously encrypted chunks are written to the underlying stream.
+     */
+    public static final String PIPELINED_ENCRYPT_ENABLED_KEY = "fs.efs.encrypt.pipelined.enabled";
+
+    /**
+     * Size in bytes of the chunks encrypted in the background when {@link #PIPELINED_ENCRYPT_ENABLED_KEY} is set.
+     */
+    public static final String PIPELINED_ENCRYPT_CHUNK_SIZE_KEY = "fs.efs.encrypt.pipelined.chunk.size";
+
+    /**
+     * Enables asynchronous readahead of decrypted data for input streams.
+     */
+    public static final String READAHEAD_ENABLED_KEY = "fs.efs.readahead.enabled";
+
+    /**
+     * Size in bytes of each buffer read ahead when {@link #READAHEAD_ENABLED_KEY} is set.
+     */
+    public static final String READAHEAD_BUFFER_SIZE_KEY = "fs.efs.readahead.buffer.size";
+
+    /**
+     * Maximum number of buffers read ahead when {@link #READAHEAD_ENABLED_KEY} is set.
+     */
+    public static final String READAHEAD_BUFFERS_KEY = "fs.efs.readahead.buffers";
+
+    /**
+     * Access pattern used to size the read buffers of decrypting streams: {@code adaptive} (default) detects
+     * sequential and random reads, while {@code sequential} and {@code random} force the respective behaviour.
+     */
+    public static final String READ_POLICY_KEY = "fs.efs.read.policy";
+
+    /**
+     * Size in bytes of the reads issued by decrypting streams after a random seek.
+     */
+    public static final String READ_BUFFER_MIN_SIZE_KEY = "fs.efs.read.buffer.min.size";
+
+    /**
+     * Size in bytes of the reads issued by decrypting streams while reading sequentially.
+     */
+    public static final String READ_BUFFER_MAX_SIZE_KEY = "fs.efs.read.buffer.max.size";
+
+    /**
+     * Enables caching decrypted pages of files shared by all input streams of this file system. Opening a file
+     * requires an additional {@link FileSystem#getFileStatus} call when set.
+     */
+    public static final String PAGE_CACHE_ENABLED_KEY = "fs.efs.page.cache.enabled";
+
+    /**
+     * Maximum size in bytes of the decrypted pages cached when {@link #PAGE_CACHE_ENABLED_KEY} is set.
+     */
+    public static final String PAGE_CACHE_SIZE_KEY = "fs.efs.page.cache.size";
+
+    /**
+     * Size in bytes of each page cached when {@link #PAGE_CACHE_ENABLED_KEY} is set.
+     */
+    public static final String PAGE_CACHE_PAGE_SIZE_KEY = "fs.efs.page.cache.page.size";
+
+    /**
+     * Where cached pages are stored when {@link #PAGE_CACHE_ENABLED_KEY} is set: {@code heap} (default) or {@code
+     * direct}.
+     */
+    public static final String PAGE_CACHE_STORAGE_KEY = "fs.efs.page.cache.storage";
+
+    private static final int DEFAULT_PARALLEL_DECRYPT_THRESHOLD = 4 * 1024 * 1024;
+    private static final int DEFAULT_PIPELINED_ENCRYPT_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_READAHEAD_BUFFER_SIZE = 1024 * 1024;
+    private static final int DEFAULT_READAHEAD_BUFFERS = 4;
+    private static final long DEFAULT_PAGE_CACHE_SIZE = 256L * 1024 * 1024;
+    private static final int DEFAULT_PAGE_CACHE_PAGE_SIZE = 64 * 1024;
+
     private final FileSystem fs;
     private final KeyStorageStrategy keyStore;
     private final String cipherAlgorithm;
+    private final DecryptionOptions decryptionOptions;
 
     public EncryptedFileSystem(FileSystem fs, KeyStorageStrategy keyStore) {
         super(fs);
         this.fs = fs;
         this.keyStore = keyStore;
         this.cipherAlgorithm = getCipherAlgorithm();
+        this.decryptionOptions = getDecryptionOptions();
     }
 
     @Override
@@ -82,11 +179,26 @@ public final class EncryptedFileSystem extends DelegatingFileSystem {
 
     @Override
     public FSDataInputStream open(Path path, int bufferSize) throws IOException {
+        // Identify the file before opening it so that pages of a concurrently replaced file are never cached under the
+        // identity of the new file
+        Optional<FileStatus> status =
+                decryptionOptions.getPageCache().isPresent() ? Optional.of(fs.getFileStatus(path)) : Optional.empty();
         FSDataInputStream encryptedStream = fs.open(path, bufferSize);
 
         KeyMaterial keyMaterial = keyStore.get(path.toString());
 
-        return new FSDataInputStream(new FsCipherInputStream(encryptedStream, keyMaterial, cipherAlgorithm));
+        return new FSDataInputStream(
+                status.isPresent()
+                        ? new FsCipherInputStream(
+                                encryptedStream, keyMaterial, cipherAlgorithm, decryptionOptions, status.get())
+                        : new FsCipherInputStream(encryptedStream, keyMaterial, cipherAlgorithm, decryptionOptions));
+    }
+
+    /**
+     * Returns the counters of the decrypted page cache of this file system if {@link #PAGE_CACHE_ENABLED_KEY} is set.
+     */
+    public Optional<PageCacheStats> getPageCacheStats() {
+        return decryptionOptions.getPageCache().map(DecryptedPageCache::getStats);
     }
 
     @Override
@@ -124,17 +236,141 @@ public final class EncryptedFileSystem extends DelegatingFileSystem {
 
     private FSDataOutputStream encrypt(FSDataOutputStream encryptedStream, Path path) throws IOException {
         KeyMaterial keyMaterial = SeekableCipherFactory.generateKeyMaterial(cipherAlgorithm);
-        SeekableCipher cipher = SeekableCipherFactory.getCipher(cipherAlgorithm, keyMaterial);
 
         // Ensure we can open the stream before storing keys that would be irrelevant
-        OutputStream encryptedOs =
-                CryptoStreamFactory.encrypt(encryptedStream, cipher.getKeyMaterial(), cipherAlgorithm);
+        OutputStream encryptedOs = createEncryptingStream(encryptedStream, keyMaterial);
         FSDataOutputStream os = new FSDataOutputStream(encryptedOs, statistics);
-        keyStore.put(path.toString(), cipher.getKeyMaterial());
+        keyStore.put(path.toString(), keyMaterial);
 
         return os;
     }
 
+    private OutputStream createEncryptingStream(OutputStream output, KeyMaterial keyMaterial) {
+        if (cipherAlgorithm.equals(AesCtrCipher.ALGORITHM)
+                && getConf().getBoolean(PIPELINED_ENCRYPT_ENABLED_KEY, false)) {
+            int chunkSize = getConf().getInt(PIPELINED_ENCRYPT_CHUNK_SIZE_KEY, DEFAULT_PIPELINED_ENCRYPT_CHUNK_SIZE);
+            return new PipelinedCtrEncryptingOutputStream(output, keyMaterial, chunkSize);
+        }
+        return CryptoStreamFactory.encrypt(output, keyMaterial, cipherAlgorithm);
+    }
+
+    /**
+     * Returns the status of the file, reporting the plaintext length of {@value AesGcmSegmentedCipher#ALGORITHM}
+     * encrypted files so that readers which seek relative to the end of a file, such as to a Parquet or ORC footer,
+     * find the expected bytes. Other algorithms report the encrypted length, which differs from the plaintext length
+     * by at most the padding of the final block.
+     */
+    @Override
+    public FileStatus getFileStatus(Path path) throws IOException {
+        return toPlaintextFileStatus(fs.getFileStatus(path));
+    }
+
+    /**
+     * Lists the statuses of the files in the given directory with the lengths reported by {@link #getFileStatus}.
+     */
+    @Override
+    public FileStatus[] listStatus(Path path) throws IOException {
+        return toPlaintextFileStatuses(fs.listStatus(path));
+    }
+
+    /**
+     * Lists the statuses of the files in the given directory with the lengths reported by {@link #getFileStatus}.
+     */
+    @Override
+    public RemoteIterator<FileStatus> listStatusIterator(Path path) throws IOException {
+        return map(fs.listStatusIterator(path), this::toPlaintextFileStatus);
+    }
+
+    /**
+     * Lists the statuses and block locations of the files in the given directory with the lengths reported by
+     * {@link #getFileStatus}.
+     */
+    @Override
+    public RemoteIterator<LocatedFileStatus> listLocatedStatus(Path path) throws IOException {
+        return map(fs.listLocatedStatus(path), this::toPlaintextLocatedFileStatus);
+    }
+
+    /**
+     * Lists the statuses and block locations of the files under the given path with the lengths reported by
+     * {@link #getFileStatus}.
+     */
+    @Override
+    public RemoteIterator<LocatedFileStatus> listFiles(Path path, boolean recursive) throws IOException {
+        return map(fs.listFiles(path, recursive), this::toPlaintextLocatedFileStatus);
+    }
+
+    /**
+     * Returns the statuses of the paths matching the given pattern with the lengths reported by
+     * {@link #getFileStatus}.
+     */
+    @Override
+    public FileStatus[] globStatus(Path pathPattern) throws IOException {
+        return toPlaintextFileStatuses(fs.globStatus(pathPattern));
+    }
+
+    /**
+     * Returns the statuses of the paths matching the given pattern and filter with the lengths reported by
+     * {@link #getFileStatus}.
+     */
+    @Override
+    public FileStatus[] globStatus(Path pathPattern, PathFilter filter) throws IOException {
+        return toPlaintextFileStatuses(fs.globStatus(pathPattern, filter));
+    }
+
+    private FileStatus[] toPlaintextFileStatuses(FileStatus[] statuses) throws IOException {
+        // globStatus returns null for a non-glob pattern that matches no path
+        if (statuses == null) {
+            return null;
+        }
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = toPlaintextFileStatus(statuses[i]);
+        }
+        return statuses;
+    }
+
+    private LocatedFileStatus toPlaintextLocatedFileStatus(LocatedFileStatus status) throws IOException {
+        if (!reportsPlaintextLength(status)) {
+            return status;
+        }
+        return new LocatedFileStatus(toPlaintextFileStatus(status), status.getBlockLocations());
+    }
+
+    private FileStatus toPlaintextFileStatus(FileStatus status) throws IOException {
+        if (!reportsPlaintextLength(status)) {
+            return status;
+        }
+        return new FileStatus(
+                AesGcmSegmentedCipher.getPlaintextLength(status.getLen()),
+                status.isDirectory(),
+                status.getReplication(),
+                status.getBlockSize(),
+                status.getModificationTime(),
+                status.getAccessTime(),
+                status.getPermission(),
+                status.getOwner(),
+                status.getGroup(),
+                status.isSymlink() ? status.getSymlink() : null,
+                status.getPath());
+    }
+
+    private boolean reportsPlaintextLength(FileStatus status) {
+        return cipherAlgorithm.equals(AesGcmSegmentedCipher.ALGORITHM) && status.isFile();
+    }
+
+    private static <T extends FileStatus> RemoteIterator<T> map(RemoteIterator<T> statuses, StatusMapper<T> mapper) {
+        return new RemoteIterator<T>() {
+            @Override
+            public boolean hasNext() throws IOException {
+                return statuses.hasNext();
+            }
+
+            @Override
+            public T next() throws IOException {
+                return mapper.apply(statuses.next());
+            }
+        };
+    }
+
     @Override
     public boolean rename(Path src, Path dst) throws IOException {
         // Copy key material first so the encrypted file always has key material in the key store even if the
@@ -197,6 +433,58 @@ public final class EncryptedFileSystem extends DelegatingFileSystem {
         return findFirst(cipher, deprecatedCipher).orElse(DEFAULT_CIPHER_ALGORITHM);
     }
 
+    private DecryptionOptions getDecryptionOptions() {
+        DecryptionOptions.Builder builder = DecryptionOptions.builder();
+        if (getConf().getBoolean(PARALLEL_DECRYPT_ENABLED_KEY, false)) {
+            builder.parallelDecryptThreshold(
+                    getConf().getInt(PARALLEL_DECRYPT_THRESHOLD_KEY, DEFAULT_PARALLEL_DECRYPT_THRESHOLD));
+        }
+        if (getConf().getBoolean(READAHEAD_ENABLED_KEY, false)) {
+            builder.readaheadBufferSize(getConf().getInt(READAHEAD_BUFFER_SIZE_KEY, DEFAULT_READAHEAD_BUFFER_SIZE))
+                    .readaheadBuffers(getConf().getInt(READAHEAD_BUFFERS_KEY, DEFAULT_READAHEAD_BUFFERS));
+        }
+        if (getConf().getBoolean(PAGE_CACHE_ENABLED_KEY, false)) {
+            builder.pageCache(getPageCache());
+        }
+        return builder.readBufferPolicy(getReadBufferPolicy()).build();
+    }
+
+    private DecryptedPageCache getPageCache() {
+        String storage = getConf().get(PAGE_CACHE_STORAGE_KEY, DecryptedPageCache.Storage.HEAP.name());
+        DecryptedPageCache.Storage pageStorage;
+        try {
+            pageStorage = DecryptedPageCache.Storage.valueOf(storage.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new SafeIllegalArgumentException(
+                    "Invalid page cache storage",
+                    e,
+                    SafeArg.of("key", PAGE_CACHE_STORAGE_KEY),
+                    SafeArg.of("storage", storage));
+        }
+        return new DecryptedPageCache(
+                getConf().getLongBytes(PAGE_CACHE_SIZE_KEY, DEFAULT_PAGE_CACHE_SIZE),
+                getConf().getInt(PAGE_CACHE_PAGE_SIZE_KEY, DEFAULT_PAGE_CACHE_PAGE_SIZE),
+                pageStorage);
+    }
+
+    private ReadBufferPolicy getReadBufferPolicy() {
+        ReadBufferPolicy defaults = ReadBufferPolicy.defaults();
+        String policy =
+                getConf().get(READ_POLICY_KEY, defaults.getAccessPattern().name());
+        ReadBufferPolicy.AccessPattern accessPattern;
+        try {
+            accessPattern = ReadBufferPolicy.AccessPattern.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new SafeIllegalArgumentException(
+                    "Invalid read policy", e, SafeArg.of("key", READ_POLICY_KEY), SafeArg.of("policy", policy));
+        }
+        return ReadBufferPolicy.builder()
+                .accessPattern(accessPattern)
+                .minBufferSize(getConf().getInt(READ_BUFFER_MIN_SIZE_KEY, defaults.getMinBufferSize()))
+                .maxBufferSize(getConf().getInt(READ_BUFFER_MAX_SIZE_KEY, defaults.getMaxBufferSize()))
+                .build();
+    }
+
     private static <T> Optional<T> findFirst(Optional<T> first, Optional<T> second) {
         if (first.isPresent()) {
             return first;
@@ -204,4 +492,8 @@ public final class EncryptedFileSystem extends DelegatingFileSystem {
             return second;
         }
     }
+
+    private interface StatusMapper<T extends FileStatus> {
+        T apply(T status) throws IOException;
+    }
 }
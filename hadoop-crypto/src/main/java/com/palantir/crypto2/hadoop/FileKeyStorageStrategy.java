@@ -18,7 +18,9 @@ package com.palantir.crypto2.hadoop;
 
 import com.google.common.base.Throwables;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.crypto2.keys.KeyMaterialBatch;
 import com.palantir.crypto2.keys.KeyStorageStrategy;
 import com.palantir.crypto2.keys.serialization.KeyMaterials;
 import com.palantir.logsafe.Preconditions;
@@ -28,7 +30,16 @@ import java.io.OutputStream;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -36,11 +47,17 @@ import org.apache.hadoop.fs.Path;
 /**
  * Strategy that stores the {@link KeyMaterial} in a file with the same path as the encrypted file plus an extension. It
  * wraps and unwraps the symmetric {@link SecretKey} using the provided public/private {@link KeyPair}
+ * <p>
+ * {@link #getAll} reads the key material files of a batch concurrently, at most {@value #MAX_CONCURRENT_READS} at a
+ * time, and unwraps them on the common {@link ForkJoinPool}.
  */
 public final class FileKeyStorageStrategy implements KeyStorageStrategy {
 
     public static final String EXTENSION = ".keymaterial";
 
+    private static final int MAX_CONCURRENT_READS = 32;
+    private static final ThreadPoolExecutor READ_EXECUTOR = createReadExecutor();
+
     private final FileSystem fs;
     private final PublicKey publicKey;
     private final Optional<PrivateKey> privateKey;
@@ -70,9 +87,33 @@ public final class FileKeyStorageStrategy implements KeyStorageStrategy {
     @Override
     public KeyMaterial get(String fileKey) {
         Preconditions.checkArgument(privateKey.isPresent(), "Private key is absent but required to get key material");
+        return KeyMaterials.unwrap(readWrappedKey(fileKey), privateKey.get());
+    }
+
+    @Override
+    public KeyMaterialBatch getAll(Collection<String> fileKeys) {
+        Preconditions.checkArgument(privateKey.isPresent(), "Private key is absent but required to get key material");
+        Map<String, CompletableFuture<KeyMaterial>> keyMaterials = new LinkedHashMap<>();
+        for (String fileKey : fileKeys) {
+            keyMaterials.computeIfAbsent(
+                    fileKey, key -> CompletableFuture.supplyAsync(() -> readWrappedKey(key), READ_EXECUTOR)
+                            .thenApplyAsync(wrappedKey -> KeyMaterials.unwrap(wrappedKey, privateKey.get())));
+        }
+
+        KeyMaterialBatch.Builder batch = KeyMaterialBatch.builder();
+        keyMaterials.forEach((fileKey, keyMaterial) -> {
+            try {
+                batch.putKeyMaterials(fileKey, keyMaterial.join());
+            } catch (CompletionException e) {
+                batch.putFailures(fileKey, e.getCause());
+            }
+        });
+        return batch.build();
+    }
+
+    private byte[] readWrappedKey(String fileKey) {
         try (InputStream stream = fs.open(getKeyPath(fileKey))) {
-            byte[] wrappedKey = ByteStreams.toByteArray(stream);
-            return KeyMaterials.unwrap(wrappedKey, privateKey.get());
+            return ByteStreams.toByteArray(stream);
         } catch (IOException e) {
             throw Throwables.propagate(e);
         }
@@ -90,4 +131,19 @@ public final class FileKeyStorageStrategy implements KeyStorageStrategy {
     private static Path getKeyPath(String fileKey) {
         return new Path(fileKey + EXTENSION);
     }
+
+    private static ThreadPoolExecutor createReadExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MAX_CONCURRENT_READS,
+                MAX_CONCURRENT_READS,
+                1,
+                TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("key-material-read-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
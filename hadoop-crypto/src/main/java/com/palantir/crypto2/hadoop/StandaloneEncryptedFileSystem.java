@@ -19,20 +19,43 @@ package com.palantir.crypto2.hadoop;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.crypto2.keys.CachingKeyStorageStrategy;
+import com.palantir.crypto2.keys.KeyCacheStats;
 import com.palantir.crypto2.keys.KeyPairs;
 import com.palantir.crypto2.keys.KeyStorageStrategy;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.KeyPair;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.CreateFlag;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Options.ChecksumOpt;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.util.Progressable;
 
 /**
  * A {@link FileSystem} that transparently encrypts and decrypts the streams of an underlying FileSystem and stores
@@ -52,6 +75,8 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
      */
     private static final String SCHEME = "";
 
+    private static final SafeLogger log = SafeLoggerFactory.get(StandaloneEncryptedFileSystem.class);
+
     private static final String DEFAULT_ALGORITHM = "RSA";
     private static final Predicate<FileStatus> NOT_KEY_MATERIAL = new Predicate<FileStatus>() {
         @Override
@@ -75,10 +100,44 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
      */
     public static final String KEY_ALGORITHM_CONF = "fs.efs.key.algorithm";
 
+    /**
+     * Key mapping to whether unwrapped key materials are cached in memory so that reopening a file does not fetch and
+     * unwrap its key material again.
+     */
+    public static final String KEY_CACHE_ENABLED_CONF = "fs.efs.key.cache.enabled";
+
+    /**
+     * Key mapping to the maximum number of cached key materials.
+     */
+    public static final String KEY_CACHE_SIZE_CONF = "fs.efs.key.cache.size";
+
+    /**
+     * Key mapping to how long a key material is cached after it was loaded or stored (ex: 10m). Bounds how long a key
+     * material replaced by another client may be served.
+     */
+    public static final String KEY_CACHE_EXPIRY_CONF = "fs.efs.key.cache.expiry";
+
+    /**
+     * Key mapping to whether {@link #listStatus} starts loading the key materials of the listed files into the key
+     * material cache in the background, so that opening the listed files does not wait for their key materials. Implies
+     * {@link #KEY_CACHE_ENABLED_CONF}.
+     */
+    public static final String KEY_PREFETCH_ENABLED_CONF = "fs.efs.key.prefetch.enabled";
+
+    private static final long DEFAULT_KEY_CACHE_SIZE = 10_000;
+    private static final long DEFAULT_KEY_CACHE_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_CONCURRENT_PREFETCHES = 4;
+    private static final int MAX_QUEUED_PREFETCHES = 16;
+    // Prefetching is speculative, so listings are not prefetched rather than queued without bound when all are busy
+    private static final ThreadPoolExecutor PREFETCH_EXECUTOR = createPrefetchExecutor();
+
     private String encryptedScheme;
     // The raw underlying FileSystem that encrypted bytes and key material is stored on
     private FileSystem delegate;
     private KeyStorageStrategy keyStore;
+    private Optional<CachingKeyStorageStrategy> keyCache = Optional.empty();
+    private boolean prefetchKeys;
+    private long keyCacheSize;
 
     @Override
     public void initialize(URI uri, Configuration conf) throws IOException {
@@ -90,6 +149,17 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
 
         KeyPair keyPair = getKeyPair(conf);
         keyStore = new FileKeyStorageStrategy(delegate, keyPair);
+        prefetchKeys = conf.getBoolean(KEY_PREFETCH_ENABLED_CONF, false);
+        if (prefetchKeys || conf.getBoolean(KEY_CACHE_ENABLED_CONF, false)) {
+            keyCacheSize = conf.getLong(KEY_CACHE_SIZE_CONF, DEFAULT_KEY_CACHE_SIZE);
+            CachingKeyStorageStrategy cachingKeyStore = new CachingKeyStorageStrategy(
+                    keyStore,
+                    keyCacheSize,
+                    Duration.ofMillis(conf.getTimeDuration(
+                            KEY_CACHE_EXPIRY_CONF, DEFAULT_KEY_CACHE_EXPIRY_MILLIS, TimeUnit.MILLISECONDS)));
+            keyCache = Optional.of(cachingKeyStore);
+            keyStore = cachingKeyStore;
+        }
 
         this.fs = new EncryptedFileSystem(delegate, keyStore);
     }
@@ -99,13 +169,118 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
         return setUriSchemeFunc(encryptedScheme).apply(fs.getUri());
     }
 
+    /**
+     * Returns the counters of the key material cache of this file system if {@link #KEY_CACHE_ENABLED_CONF} or {@link
+     * #KEY_PREFETCH_ENABLED_CONF} is set.
+     */
+    public Optional<KeyCacheStats> getKeyCacheStats() {
+        return keyCache.map(CachingKeyStorageStrategy::getStats);
+    }
+
+    /**
+     * Opens the file at the qualified {@code path}, since the key material of a file is stored and cached under its
+     * qualified path, which is also the path of its listed {@link FileStatus}.
+     */
+    @Override
+    public FSDataInputStream open(Path path, int bufferSize) throws IOException {
+        return fs.open(makeQualified(path), bufferSize);
+    }
+
+    @Override
+    public FSDataOutputStream create(
+            Path path,
+            FsPermission permission,
+            boolean overwrite,
+            int bufferSize,
+            short replication,
+            long blockSize,
+            Progressable progress)
+            throws IOException {
+        return fs.create(makeQualified(path), permission, overwrite, bufferSize, replication, blockSize, progress);
+    }
+
+    @Override
+    public FSDataOutputStream create(
+            Path path,
+            FsPermission permission,
+            EnumSet<CreateFlag> flags,
+            int bufferSize,
+            short replication,
+            long blockSize,
+            Progressable progress,
+            ChecksumOpt checksumOpt)
+            throws IOException {
+        return fs.create(
+                makeQualified(path), permission, flags, bufferSize, replication, blockSize, progress, checksumOpt);
+    }
+
     @Override
     // TODO(jellis): consider moving logic related to FileKeyStorageStrategy into a separate FileSystem
     public FileStatus[] listStatus(Path path) throws IOException {
-        Collection<FileStatus> files = Collections2.filter(Arrays.asList(fs.listStatus(path)), NOT_KEY_MATERIAL);
+        FileStatus[] statuses = fs.listStatus(path);
+        Collection<FileStatus> files = Collections2.filter(Arrays.asList(statuses), NOT_KEY_MATERIAL);
+        if (prefetchKeys) {
+            prefetchKeyMaterials(statuses);
+        }
         return files.toArray(new FileStatus[files.size()]);
     }
 
+    /**
+     * Starts loading the key materials of the listed files that have a key material file alongside them. Key materials
+     * are cached under the qualified paths of the listing, so that they are found by opening the listed files through
+     * any path that qualifies to the same path.
+     */
+    private void prefetchKeyMaterials(FileStatus[] statuses) {
+        Set<String> keyMaterialPaths = new HashSet<>();
+        for (FileStatus status : statuses) {
+            if (!NOT_KEY_MATERIAL.apply(status)) {
+                keyMaterialPaths.add(makeQualified(status.getPath()).toString());
+            }
+        }
+
+        // Prefetching more key materials than the cache holds would evict those prefetched first
+        List<String> fileKeys = new ArrayList<>();
+        for (FileStatus status : statuses) {
+            String fileKey = makeQualified(status.getPath()).toString();
+            if (fileKeys.size() < keyCacheSize
+                    && status.isFile()
+                    && keyMaterialPaths.contains(fileKey + FileKeyStorageStrategy.EXTENSION)) {
+                fileKeys.add(fileKey);
+            }
+        }
+        if (fileKeys.isEmpty()) {
+            return;
+        }
+
+        CachingKeyStorageStrategy cache = keyCache.get();
+        try {
+            PREFETCH_EXECUTOR.execute(() -> {
+                try {
+                    cache.prefetch(fileKeys);
+                } catch (RuntimeException e) {
+                    log.info("Failed to prefetch key materials", SafeArg.of("files", fileKeys.size()), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipped prefetching key materials", SafeArg.of("files", fileKeys.size()), e);
+        }
+    }
+
+    private static ThreadPoolExecutor createPrefetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MAX_CONCURRENT_PREFETCHES,
+                MAX_CONCURRENT_PREFETCHES,
+                1,
+                TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(MAX_QUEUED_PREFETCHES),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("key-material-prefetch-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private static KeyPair getKeyPair(Configuration conf) {
         String publicKey = Preconditions.checkNotNull(
                 conf.get(PUBLIC_KEY_CONF), "Public Key must be configured for key %s", PUBLIC_KEY_CONF);
@@ -138,10 +313,13 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
     public boolean delete(Path path, boolean recursive) throws IOException {
         // Since StandaloneEncryptedFileSystem uses a FileKeyStorageStrategy, the delegate delete call on folders
         // deletes both the payload files and the adjacent encryption materials. For files we can
-        // rely on the EncryptedFileSystem handling removal of both the file and the key material.
+        // rely on the EncryptedFileSystem handling removal of both the file and the key material, which is stored
+        // under the qualified path.
         if (fs.isFile(path)) {
-            return fs.delete(path, false);
+            return fs.delete(makeQualified(path), false);
         } else {
+            // The key materials of the deleted files bypass the key store, so none of them may be served from cache
+            keyCache.ifPresent(CachingKeyStorageStrategy::invalidateAll);
             return delegate.delete(path, recursive);
         }
     }
@@ -150,10 +328,13 @@ public final class StandaloneEncryptedFileSystem extends FilterFileSystem {
     public boolean rename(Path src, Path dst) throws IOException {
         // Since StandaloneEncryptedFileSystem uses a FileKeyStorageStrategy, the delegate rename call on folders
         // renames both the payload files and the adjacent encryption materials. For files we can
-        // rely on the EncryptedFileSystem handling renaming both the file and the key material.
+        // rely on the EncryptedFileSystem handling renaming both the file and the key material, which is stored
+        // under the qualified path.
         if (fs.isFile(src)) {
-            return fs.rename(src, dst);
+            return fs.rename(makeQualified(src), makeQualified(dst));
         } else {
+            // The key materials of the renamed files bypass the key store, so none of them may be served from cache
+            keyCache.ifPresent(CachingKeyStorageStrategy::invalidateAll);
             return delegate.rename(src, dst);
         }
     }
@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * A bounded, thread safe LRU cache of decrypted file contents shared by the {@link FsCipherInputStream streams} of an
+ * {@code EncryptedFileSystem}, which avoids fetching and decrypting regions such as file footers and indexes again
+ * each time a file is opened.
+ * <p>
+ * Files are divided into pages of {@link #getPageSize()} bytes keyed by the path, length and modification time of the
+ * file so that pages of a file that has been replaced are never served. The cache holds at most {@link #getMaxSize()}
+ * bytes of pages which are stored either on the heap or in direct buffers depending on the {@link Storage}. Direct
+ * buffers of evicted pages are only freed once they are garbage collected.
+ */
+public final class DecryptedPageCache {
+
+    /** Where the decrypted pages are stored. */
+    public enum Storage {
+        HEAP,
+        DIRECT
+    }
+
+    private final long maxSize;
+    private final int pageSize;
+    private final Storage storage;
+    private final Cache<PageKey, ByteBuffer> pages;
+
+    public DecryptedPageCache(long maxSize, int pageSize, Storage storage) {
+        Preconditions.checkArgument(pageSize > 0, "pageSize must be positive", SafeArg.of("pageSize", pageSize));
+        Preconditions.checkArgument(
+                maxSize >= pageSize,
+                "maxSize must be at least pageSize",
+                SafeArg.of("maxSize", maxSize),
+                SafeArg.of("pageSize", pageSize));
+        this.maxSize = maxSize;
+        this.pageSize = pageSize;
+        this.storage = storage;
+        this.pages = CacheBuilder.newBuilder()
+                // Bounding the number of pages rather than their weight in bytes ensures each segment of the cache is
+                // able to hold many pages, pages at the end of a file are accounted as full pages
+                .maximumSize(maxSize / pageSize)
+                .recordStats()
+                .build();
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public PageCacheStats getStats() {
+        CacheStats stats = pages.stats();
+        return PageCacheStats.builder()
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .pages(pages.size())
+                .build();
+    }
+
+    /**
+     * Copies decrypted bytes of {@code file} starting at {@code position} into {@code dst} from the page containing
+     * {@code position}, loading the page using {@code loader} if it is not cached. Returns the number of bytes copied,
+     * which is less than {@code dst.remaining()} when the read crosses the end of the page, or -1 if {@code position}
+     * is at or beyond the end of the file.
+     */
+    int read(FileStatus file, long position, ByteBuffer dst, PageLoader loader) throws IOException {
+        long pageOffset = position - position % pageSize;
+        ByteBuffer page = getPage(new PageKey(file, pageOffset / pageSize), pageOffset, loader);
+
+        int offsetInPage = (int) (position - pageOffset);
+        if (offsetInPage >= page.limit()) {
+            return -1;
+        }
+        int length = Math.min(dst.remaining(), page.limit() - offsetInPage);
+        // Absolute reads never modify the shared page so concurrent readers need not coordinate
+        dst.put(dst.position(), page, offsetInPage, length);
+        dst.position(dst.position() + length);
+        return length;
+    }
+
+    private ByteBuffer getPage(PageKey key, long pageOffset, PageLoader loader) throws IOException {
+        try {
+            return pages.get(key, () -> loadPage(pageOffset, loader));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new SafeIoException(
+                    "Failed to load decrypted page", e.getCause(), SafeArg.of("pageOffset", pageOffset));
+        }
+    }
+
+    private ByteBuffer loadPage(long pageOffset, PageLoader loader) throws IOException {
+        byte[] bytes = new byte[pageSize];
+        int length = loader.load(pageOffset, bytes);
+        if (storage == Storage.DIRECT) {
+            ByteBuffer page = ByteBuffer.allocateDirect(length);
+            page.put(bytes, 0, length);
+            return page.flip();
+        }
+        return ByteBuffer.wrap(length == bytes.length ? bytes : Arrays.copyOf(bytes, length));
+    }
+
+    /**
+     * Reads the decrypted contents of a page of a file.
+     */
+    interface PageLoader {
+        /**
+         * Fills {@code page} with the decrypted bytes of the file starting at {@code offset}, returning the number of
+         * bytes read which is less than {@code page.length} only when the end of the file is reached.
+         */
+        int load(long offset, byte[] page) throws IOException;
+    }
+
+    private static final class PageKey {
+        private final Path path;
+        private final long length;
+        private final long modificationTime;
+        private final long page;
+
+        private PageKey(FileStatus file, long page) {
+            this.path = file.getPath();
+            this.length = file.getLen();
+            this.modificationTime = file.getModificationTime();
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PageKey)) {
+                return false;
+            }
+            PageKey that = (PageKey) other;
+            return length == that.length
+                    && modificationTime == that.modificationTime
+                    && page == that.page
+                    && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, length, modificationTime, page);
+        }
+    }
+}
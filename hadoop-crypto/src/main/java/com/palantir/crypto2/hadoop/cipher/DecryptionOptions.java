@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.io.ReadBufferPolicy;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.immutables.value.Value;
+
+/**
+ * Tuning options for the decrypting streams created by {@link FsCipherInputStream}. The {@link #defaults() default}
+ * options disable all optional behaviour and use the {@link ReadBufferPolicy#defaults() default read buffer policy}.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class DecryptionOptions {
+
+    /**
+     * Sequential reads of at least this many bytes of {@value AesCtrCipher#ALGORITHM} encrypted data are split into
+     * segments that are decrypted in parallel. Parallel decryption is disabled when absent.
+     */
+    public abstract OptionalInt getParallelDecryptThreshold();
+
+    /**
+     * Size in bytes of the buffers that are asynchronously read and decrypted ahead of the current position of the
+     * stream. Readahead is disabled when absent.
+     */
+    public abstract OptionalInt getReadaheadBufferSize();
+
+    /**
+     * Maximum number of buffers read ahead of the current position when {@link #getReadaheadBufferSize()} is present.
+     */
+    @Value.Default
+    public int getReadaheadBuffers() {
+        return 4;
+    }
+
+    /**
+     * Sizing of the buffers of the OpenSSL backed decrypting stream depending on the access pattern of the reader.
+     */
+    @Value.Default
+    public ReadBufferPolicy getReadBufferPolicy() {
+        return ReadBufferPolicy.defaults();
+    }
+
+    /**
+     * Cache of decrypted pages shared by the streams created with these options for a known {@code FileStatus}.
+     * Decrypted pages are not cached when absent.
+     */
+    public abstract Optional<DecryptedPageCache> getPageCache();
+
+    public static DecryptionOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends ImmutableDecryptionOptions.Builder {}
+}
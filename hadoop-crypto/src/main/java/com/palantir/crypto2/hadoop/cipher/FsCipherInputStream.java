@@ -16,23 +16,79 @@
 
 package com.palantir.crypto2.hadoop.cipher;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.crypto2.cipher.AesCtrCipher;
 import com.palantir.crypto2.cipher.SeekableCipher;
 import com.palantir.crypto2.io.CryptoStreamFactory;
+import com.palantir.crypto2.io.CtrDecryption;
 import com.palantir.crypto2.io.DecryptingSeekableInput;
 import com.palantir.crypto2.io.DefaultSeekableInputStream;
+import com.palantir.crypto2.io.ParallelCtrDecryptingSeekableInput;
+import com.palantir.crypto2.io.ReadaheadSeekableInput;
 import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
 import com.palantir.seekio.SeekableInput;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.apache.hadoop.fs.ByteBufferPositionedReadable;
+import org.apache.hadoop.fs.ByteBufferReadable;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSExceptionMessages;
 import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.StreamCapabilities;
 
 /**
  * Decrypts data read from the given {@link FSDataInputStream} using the given {@link KeyMaterial} and cipher {@code
  * algorithm}.
+ * <p>
+ * For {@value AesCtrCipher#ALGORITHM} the {@link PositionedReadable} methods decrypt using a cipher initialized for the
+ * requested position on every call and never modify the position of this stream, which allows many threads to read
+ * concurrently from the same stream. Other algorithms fall back to the synchronized seek and read implementation of
+ * {@link FSInputStream}.
+ * <p>
+ * {@link ByteBuffer} reads decrypt directly into the caller supplied buffer. Heap buffers are read through their
+ * backing array and direct buffers are handed to the OpenSSL backed decryption stream when it is in use, avoiding an
+ * intermediate heap copy. Positioned {@link ByteBuffer} reads for {@value AesCtrCipher#ALGORITHM} read the ciphertext
+ * straight into the caller's buffer when the underlying stream supports {@link ByteBufferPositionedReadable} and then
+ * decrypt it in place.
+ * <p>
+ * Columnar readers may fetch many ranges at once using {@link #readRanges}. It is deliberately not named or advertised
+ * as Hadoop's vectored read API, whose {@code FileRange} type is not available in the Hadoop version this is built
+ * against.
  */
-public final class FsCipherInputStream extends FSInputStream {
+public final class FsCipherInputStream extends FSInputStream
+        implements ByteBufferReadable, ByteBufferPositionedReadable, StreamCapabilities {
 
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final int MAX_VECTORED_READ_GAP = 4096;
+    private static final int MAX_VECTORED_READ_MERGED_SIZE = 1024 * 1024;
+    private static final int VECTORED_READ_THREADS = 16;
+    private static final ExecutorService VECTORED_READ_EXECUTOR = createVectoredReadExecutor();
+
+    private final FSDataInputStream encryptedStream;
+    private final KeyMaterial keyMaterial;
+    private final boolean isCtr;
+    private final SeekableInput decrypted;
+    private final Optional<PageCachingSeekableInput> pageCachingInput;
     private final DefaultSeekableInputStream delegate;
+    private byte[] copyBuffer;
 
     /**
      * Deprecated as this constructor will always use the JCE crypto implementations which can be significantly
@@ -42,13 +98,78 @@ public final class FsCipherInputStream extends FSInputStream {
      */
     @Deprecated
     public FsCipherInputStream(FSDataInputStream delegate, SeekableCipher cipher) {
-        this.delegate =
-                new DefaultSeekableInputStream(new DecryptingSeekableInput(new FsSeekableInput(delegate), cipher));
+        this.encryptedStream = delegate;
+        this.keyMaterial = cipher.getKeyMaterial();
+        this.isCtr = cipher instanceof AesCtrCipher;
+        this.decrypted = new DecryptingSeekableInput(new FsSeekableInput(delegate), cipher);
+        this.pageCachingInput = Optional.empty();
+        this.delegate = new DefaultSeekableInputStream(decrypted);
     }
 
     public FsCipherInputStream(FSDataInputStream delegate, KeyMaterial keyMaterial, String algorithm) {
-        SeekableInput decrypted = CryptoStreamFactory.decrypt(new FsSeekableInput(delegate), keyMaterial, algorithm);
-        this.delegate = new DefaultSeekableInputStream(decrypted);
+        this(delegate, keyMaterial, algorithm, DecryptionOptions.defaults());
+    }
+
+    public FsCipherInputStream(
+            FSDataInputStream delegate, KeyMaterial keyMaterial, String algorithm, DecryptionOptions options) {
+        this(delegate, keyMaterial, algorithm, options, Optional.empty());
+    }
+
+    /**
+     * Creates a stream which caches decrypted pages of the file described by {@code file} in the {@link
+     * DecryptionOptions#getPageCache() page cache} of the given {@code options}, if any.
+     */
+    public FsCipherInputStream(
+            FSDataInputStream delegate,
+            KeyMaterial keyMaterial,
+            String algorithm,
+            DecryptionOptions options,
+            FileStatus file) {
+        this(delegate, keyMaterial, algorithm, options, Optional.of(file));
+    }
+
+    private FsCipherInputStream(
+            FSDataInputStream delegate,
+            KeyMaterial keyMaterial,
+            String algorithm,
+            DecryptionOptions options,
+            Optional<FileStatus> file) {
+        this.encryptedStream = delegate;
+        this.keyMaterial = keyMaterial;
+        this.isCtr = algorithm.equals(AesCtrCipher.ALGORITHM);
+        SeekableInput encryptedInput = delegate.hasCapability(StreamCapabilities.READBYTEBUFFER)
+                ? new ByteBufferFsSeekableInput(delegate)
+                : new FsSeekableInput(delegate);
+        SeekableInput decryptedInput =
+                CryptoStreamFactory.decrypt(encryptedInput, keyMaterial, algorithm, options.getReadBufferPolicy());
+
+        SeekableInput input = decryptedInput;
+        if (isCtr && options.getParallelDecryptThreshold().isPresent()) {
+            input = new ParallelCtrDecryptingSeekableInput(
+                    encryptedInput,
+                    decryptedInput,
+                    keyMaterial,
+                    options.getParallelDecryptThreshold().getAsInt());
+        }
+        if (options.getReadaheadBufferSize().isPresent()) {
+            input = new ReadaheadSeekableInput(
+                    input, options.getReadaheadBufferSize().getAsInt(), options.getReadaheadBuffers());
+        }
+
+        // ByteBuffer reads may bypass the stateless parallel decryption stage but never the readahead stage
+        SeekableInput byteBufferInput = options.getReadaheadBufferSize().isPresent() ? input : decryptedInput;
+        if (options.getPageCache().isPresent() && file.isPresent()) {
+            PageCachingSeekableInput cachingInput =
+                    new PageCachingSeekableInput(options.getPageCache().get(), file.get(), input);
+            input = cachingInput;
+            byteBufferInput = cachingInput;
+            this.pageCachingInput = Optional.of(cachingInput);
+        } else {
+            this.pageCachingInput = Optional.empty();
+        }
+
+        this.decrypted = byteBufferInput;
+        this.delegate = new DefaultSeekableInputStream(input);
     }
 
     @Override
@@ -76,17 +197,300 @@ public final class FsCipherInputStream extends FSInputStream {
         return delegate.read(buf, off, len);
     }
 
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (!isCtr) {
+            return super.read(position, buffer, offset, length);
+        }
+
+        validatePositionedReadArgs(position, buffer, offset, length);
+        if (length == 0) {
+            return 0;
+        }
+        if (pageCachingInput.isPresent()) {
+            return pageCachingInput.get().read(position, ByteBuffer.wrap(buffer, offset, length), this::loadPage);
+        }
+
+        int bytesRead = encryptedStream.read(position, buffer, offset, length);
+        if (bytesRead > 0) {
+            decryptInPlace(position, buffer, offset, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read(ByteBuffer buf) throws IOException {
+        if (!buf.hasRemaining()) {
+            return 0;
+        }
+
+        if (decrypted instanceof ReadableByteChannel) {
+            return ((ReadableByteChannel) decrypted).read(buf);
+        }
+
+        if (buf.hasArray()) {
+            int bytesRead = delegate.read(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            if (bytesRead > 0) {
+                buf.position(buf.position() + bytesRead);
+            }
+            return bytesRead;
+        }
+
+        if (copyBuffer == null) {
+            copyBuffer = new byte[COPY_BUFFER_SIZE];
+        }
+        int bytesRead = delegate.read(copyBuffer, 0, Math.min(buf.remaining(), copyBuffer.length));
+        if (bytesRead > 0) {
+            buf.put(copyBuffer, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer buf) throws IOException {
+        if (position < 0) {
+            throw new EOFException(FSExceptionMessages.NEGATIVE_SEEK);
+        }
+        if (!buf.hasRemaining()) {
+            return 0;
+        }
+
+        if (!isCtr) {
+            synchronized (this) {
+                long oldPos = getPos();
+                try {
+                    seek(position);
+                    return read(buf);
+                } finally {
+                    seek(oldPos);
+                }
+            }
+        }
+
+        if (pageCachingInput.isPresent()) {
+            return pageCachingInput.get().read(position, buf, this::loadPage);
+        }
+
+        int start = buf.position();
+        int bytesRead = readCiphertext(position, buf);
+        if (bytesRead > 0) {
+            decryptInPlace(position, buf, start, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    /**
+     * Fills {@code page} with the decrypted bytes at {@code position} using positioned reads of the encrypted stream
+     * so that concurrent positioned reads may load pages of the page cache.
+     */
+    private int loadPage(long position, byte[] page) throws IOException {
+        int total = 0;
+        while (total < page.length) {
+            int bytesRead = encryptedStream.read(position + total, page, total, page.length - total);
+            if (bytesRead < 0) {
+                break;
+            }
+            total += bytesRead;
+        }
+        if (total > 0) {
+            decryptInPlace(position, page, 0, total);
+        }
+        return total;
+    }
+
+    /**
+     * Reads encrypted bytes at {@code position} into {@code buf} without decrypting them, advancing the position of
+     * {@code buf} by the number of bytes read.
+     */
+    private int readCiphertext(long position, ByteBuffer buf) throws IOException {
+        if (encryptedStream.hasCapability(StreamCapabilities.PREADBYTEBUFFER)) {
+            return encryptedStream.read(position, buf);
+        }
+
+        int start = buf.position();
+        if (buf.hasArray()) {
+            int bytesRead = encryptedStream.read(position, buf.array(), buf.arrayOffset() + start, buf.remaining());
+            if (bytesRead > 0) {
+                buf.position(start + bytesRead);
+            }
+            return bytesRead;
+        }
+
+        // Positioned reads may be concurrent so use a buffer local to this call
+        byte[] chunk = new byte[Math.min(buf.remaining(), COPY_BUFFER_SIZE)];
+        int bytesRead = encryptedStream.read(position, chunk, 0, chunk.length);
+        if (bytesRead > 0) {
+            buf.put(chunk, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public void readFully(long position, ByteBuffer buf) throws IOException {
+        long nextPosition = position;
+        while (buf.hasRemaining()) {
+            int bytesRead = read(nextPosition, buf);
+            if (bytesRead < 0) {
+                throw new EOFException(FSExceptionMessages.EOF_IN_READ_FULLY);
+            }
+            nextPosition += bytesRead;
+        }
+    }
+
+    /**
+     * Reads the given {@code ranges}, completing the {@link ReadRange#getData() data} future of each range with a
+     * buffer obtained from {@code allocate} containing the decrypted bytes of that range. Ranges that are close
+     * together are merged into a single read of the encrypted stream. For {@value AesCtrCipher#ALGORITHM} the merged
+     * reads are issued asynchronously and concurrently, and each range is decrypted independently starting from its own
+     * counter. Other algorithms can only read by seeking this stream, so their ranges are read on the calling thread
+     * before this method returns to avoid racing with the caller's own reads. The position of this stream is not
+     * modified.
+     *
+     * @throws IllegalArgumentException if any of the ranges overlap
+     */
+    public void readRanges(List<ReadRange> ranges, IntFunction<ByteBuffer> allocate) {
+        List<ReadRange> sortedRanges = new ArrayList<>(ranges);
+        sortedRanges.sort(Comparator.comparingLong(ReadRange::getOffset));
+        for (int i = 1; i < sortedRanges.size(); i++) {
+            ReadRange previous = sortedRanges.get(i - 1);
+            ReadRange next = sortedRanges.get(i);
+            Preconditions.checkArgument(
+                    previous.getEnd() <= next.getOffset(),
+                    "Read ranges must not overlap",
+                    SafeArg.of("previous", previous),
+                    SafeArg.of("next", next));
+        }
+
+        sortedRanges.forEach(range -> range.setData(new CompletableFuture<>()));
+        for (List<ReadRange> mergedRange : mergeRanges(sortedRanges)) {
+            if (isCtr) {
+                VECTORED_READ_EXECUTOR.execute(() -> readMergedRange(mergedRange, allocate));
+            } else {
+                readMergedRange(mergedRange, allocate);
+            }
+        }
+    }
+
+    /**
+     * Groups adjacent ranges that are at most {@link #MAX_VECTORED_READ_GAP} bytes apart so that each group spans at
+     * most {@link #MAX_VECTORED_READ_MERGED_SIZE} bytes, unless the group consists of a single larger range.
+     */
+    @VisibleForTesting
+    static List<List<ReadRange>> mergeRanges(List<ReadRange> sortedRanges) {
+        List<List<ReadRange>> mergedRanges = new ArrayList<>();
+        List<ReadRange> current = new ArrayList<>();
+        for (ReadRange range : sortedRanges) {
+            if (!current.isEmpty()) {
+                long start = current.get(0).getOffset();
+                long end = current.get(current.size() - 1).getEnd();
+                if (range.getOffset() - end > MAX_VECTORED_READ_GAP
+                        || range.getEnd() - start > MAX_VECTORED_READ_MERGED_SIZE) {
+                    mergedRanges.add(current);
+                    current = new ArrayList<>();
+                }
+            }
+            current.add(range);
+        }
+        if (!current.isEmpty()) {
+            mergedRanges.add(current);
+        }
+        return mergedRanges;
+    }
+
+    private void readMergedRange(List<ReadRange> ranges, IntFunction<ByteBuffer> allocate) {
+        long start = ranges.get(0).getOffset();
+        int length = Math.toIntExact(ranges.get(ranges.size() - 1).getEnd() - start);
+        try {
+            ByteBuffer buffer = allocate.apply(length);
+            int base = buffer.position();
+            buffer.limit(base + length);
+            if (isCtr) {
+                readCiphertextFully(start, buffer);
+                for (ReadRange range : ranges) {
+                    decryptInPlace(
+                            range.getOffset(), buffer, base + (int) (range.getOffset() - start), range.getLength());
+                }
+            } else {
+                readFully(start, buffer);
+            }
+
+            for (ReadRange range : ranges) {
+                ByteBuffer data = buffer.duplicate();
+                int rangeStart = base + (int) (range.getOffset() - start);
+                data.limit(rangeStart + range.getLength()).position(rangeStart);
+                range.getData().complete(data.slice());
+            }
+        } catch (IOException | RuntimeException e) {
+            ranges.forEach(range -> range.getData().completeExceptionally(e));
+        }
+    }
+
+    private void readCiphertextFully(long position, ByteBuffer buf) throws IOException {
+        long nextPosition = position;
+        while (buf.hasRemaining()) {
+            int bytesRead = readCiphertext(nextPosition, buf);
+            if (bytesRead < 0) {
+                throw new EOFException(FSExceptionMessages.EOF_IN_READ_FULLY);
+            }
+            nextPosition += bytesRead;
+        }
+    }
+
+    @Override
+    public boolean hasCapability(String capability) {
+        switch (capability.toLowerCase(Locale.ROOT)) {
+            case StreamCapabilities.READBYTEBUFFER:
+            case StreamCapabilities.PREADBYTEBUFFER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
     }
 
+    /**
+     * Decrypts {@code length} bytes of {@code buffer} which were read from the encrypted stream at {@code position}
+     * using {@link CtrDecryption} so that concurrent positioned reads do not share cipher state.
+     */
+    private void decryptInPlace(long position, byte[] buffer, int offset, int length) {
+        CtrDecryption.decrypt(keyMaterial, position, buffer, offset, length, buffer, offset);
+    }
+
+    /**
+     * Decrypts the {@code length} bytes of {@code buf} starting at index {@code start} which were read from the
+     * encrypted stream at {@code position}. The position and limit of {@code buf} are not modified.
+     */
+    private void decryptInPlace(long position, ByteBuffer buf, int start, int length) {
+        ByteBuffer encrypted = buf.duplicate();
+        encrypted.limit(start + length).position(start);
+        CtrDecryption.decrypt(keyMaterial, position, encrypted, encrypted);
+    }
+
+    private static ExecutorService createVectoredReadExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                VECTORED_READ_THREADS,
+                VECTORED_READ_THREADS,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("efs-vectored-read-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Wrapper that converts an {@link FSDataInputStream} into a {@link SeekableInput}.
      */
-    private static final class FsSeekableInput implements SeekableInput {
+    private static class FsSeekableInput implements SeekableInput {
 
-        private FSDataInputStream input;
+        private final FSDataInputStream input;
 
         private FsSeekableInput(FSDataInputStream input) {
             this.input = input;
@@ -112,4 +516,33 @@ public final class FsCipherInputStream extends FSInputStream {
             input.close();
         }
     }
+
+    /**
+     * {@link FsSeekableInput} for streams supporting {@link ByteBufferReadable} which allows ciphertext to be read
+     * directly into the buffers of the decrypting stream.
+     */
+    private static final class ByteBufferFsSeekableInput extends FsSeekableInput implements ReadableByteChannel {
+
+        private boolean open = true;
+
+        private ByteBufferFsSeekableInput(FSDataInputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return super.input.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            open = false;
+            super.close();
+        }
+    }
 }
@@ -20,18 +20,23 @@ import com.google.common.annotations.VisibleForTesting;
 import com.palantir.crypto2.cipher.CipherStreamSupplier;
 import com.palantir.crypto2.cipher.CipherStreamSupplierImpl;
 import com.palantir.crypto2.cipher.SeekableCipher;
+import com.palantir.logsafe.exceptions.SafeIoException;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import javax.crypto.Cipher;
 import org.apache.hadoop.fs.FSDataOutputStream;
 
 /**
- * Encrypts data using the given {@link SeekableCipher} and writes it to the given {@link FSDataOutputStream}.
+ * Encrypts data using the given {@link SeekableCipher} and writes it to the given {@link FSDataOutputStream}. The
+ * pooled ciphers of the {@link SeekableCipher} are released when this stream is closed and writes fail afterwards.
  * @deprecated use {@link javax.crypto.CipherOutputStream} directly.
  */
 @Deprecated
 public final class FsCipherOutputStream extends FilterOutputStream {
 
+    private final SeekableCipher cipher;
+    private boolean closed;
+
     public FsCipherOutputStream(FSDataOutputStream delegate, SeekableCipher cipher) {
         this(delegate, cipher, new CipherStreamSupplierImpl());
     }
@@ -39,15 +44,44 @@ public final class FsCipherOutputStream extends FilterOutputStream {
     @VisibleForTesting
     FsCipherOutputStream(FSDataOutputStream delegate, SeekableCipher cipher, CipherStreamSupplier supplier) {
         super(supplier.getOutputStream(delegate, cipher.initCipher(Cipher.ENCRYPT_MODE)));
+        this.cipher = cipher;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        checkOpen();
+        out.write(value);
     }
 
     @Override
     public void write(byte[] bytes, int off, int len) throws IOException {
+        checkOpen();
         out.write(bytes, off, len);
     }
 
     @Override
     public void write(byte[] bytes) throws IOException {
+        checkOpen();
         out.write(bytes);
     }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            super.close();
+        } finally {
+            cipher.release();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new SafeIoException("Stream is closed");
+        }
+    }
 }
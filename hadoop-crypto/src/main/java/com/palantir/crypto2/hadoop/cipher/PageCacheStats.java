@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import org.immutables.value.Value;
+
+/**
+ * Counters describing the effectiveness of a {@link DecryptedPageCache} since it was created.
+ */
+@SuppressWarnings("ImmutablesStyle")
+@Value.Immutable
+@Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE, jdkOnly = true)
+public abstract class PageCacheStats {
+
+    /** Number of reads served by a cached page. */
+    public abstract long getHits();
+
+    /** Number of reads that required a page to be read and decrypted. */
+    public abstract long getMisses();
+
+    /** Number of pages evicted to stay within the memory budget of the cache. */
+    public abstract long getEvictions();
+
+    /** Number of pages currently cached. */
+    public abstract long getPages();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder extends ImmutablePageCacheStats.Builder {}
+}
@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import com.palantir.seekio.SeekableInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.hadoop.fs.FileStatus;
+
+/**
+ * Serves reads of a decrypted {@link SeekableInput} from a {@link DecryptedPageCache}, reading and decrypting pages
+ * from the delegate only when they are not cached. Seeking is free as the delegate is only positioned when a page is
+ * loaded.
+ */
+final class PageCachingSeekableInput implements SeekableInput {
+
+    private final DecryptedPageCache cache;
+    private final FileStatus file;
+    private final SeekableInput delegate;
+    private long position;
+
+    PageCachingSeekableInput(DecryptedPageCache cache, FileStatus file, SeekableInput delegate) {
+        this.cache = cache;
+        this.file = file;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void seek(long offset) {
+        position = offset;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int bytesRead = cache.read(file, position, ByteBuffer.wrap(bytes, offset, length), this::loadPage);
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    /**
+     * Copies decrypted bytes starting at {@code pos} into {@code dst} from the cached page containing {@code pos}
+     * without modifying the position of this input, loading the page using {@code loader} if it is not cached. Unlike
+     * the {@link SeekableInput} methods this may be called concurrently if {@code loader} is thread safe.
+     */
+    int read(long pos, ByteBuffer dst, DecryptedPageCache.PageLoader loader) throws IOException {
+        return cache.read(file, pos, dst, loader);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private int loadPage(long offset, byte[] page) throws IOException {
+        delegate.seek(offset);
+        int total = 0;
+        while (total < page.length) {
+            int read = delegate.read(page, total, page.length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
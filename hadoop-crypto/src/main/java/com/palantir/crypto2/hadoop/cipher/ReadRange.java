@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A range of a file to read using {@link FsCipherInputStream#readRanges}. The decrypted bytes of the range are
+ * available from {@link #getData()} once the read has been issued.
+ */
+public final class ReadRange {
+
+    private final long offset;
+    private final int length;
+    private volatile CompletableFuture<ByteBuffer> data;
+
+    private ReadRange(long offset, int length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static ReadRange of(long offset, int length) {
+        Preconditions.checkArgument(offset >= 0, "Range offset must be non-negative", SafeArg.of("offset", offset));
+        Preconditions.checkArgument(length >= 0, "Range length must be non-negative", SafeArg.of("length", length));
+        return new ReadRange(offset, length);
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns a future of the decrypted bytes of this range, or null if this range has not been read yet. The
+     * returned buffer is positioned at the first byte of the range and its limit is the end of the range.
+     */
+    public CompletableFuture<ByteBuffer> getData() {
+        return data;
+    }
+
+    long getEnd() {
+        return offset + length;
+    }
+
+    void setData(CompletableFuture<ByteBuffer> data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadRange{offset=" + offset + ", length=" + length + '}';
+    }
+}
@@ -29,26 +29,44 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.io.ByteStreams;
+import com.palantir.crypto2.cipher.AesCbcCipher;
 import com.palantir.crypto2.cipher.AesCtrCipher;
+import com.palantir.crypto2.cipher.AesGcmSegmentedCipher;
+import com.palantir.crypto2.hadoop.cipher.FsCipherInputStream;
+import com.palantir.crypto2.hadoop.cipher.PageCacheStats;
+import com.palantir.crypto2.hadoop.cipher.ReadRange;
 import com.palantir.crypto2.keys.KeyMaterial;
 import com.palantir.crypto2.keys.KeyStorageStrategy;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CreateFlag;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.fs.StreamCapabilities;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -188,6 +206,533 @@ public final class EncryptedFileSystemTest {
         assertThat(actualReadData).isEqualTo(readData);
     }
 
+    @Test
+    public void testEncryptDecrypt_positionedRead() throws IOException {
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            is.seek(17);
+
+            byte[] readData = new byte[1000];
+            is.readFully(MB / 2 + 3, readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2 + 3, MB / 2 + 1003));
+
+            // Positioned reads do not move the stream
+            assertThat(is.getPos()).isEqualTo(17);
+            assertThat(is.read()).isEqualTo(data[17] & 0xFF);
+
+            assertThat(is.read(MB - 10, readData, 0, readData.length)).isEqualTo(10);
+            assertThat(Arrays.copyOf(readData, 10)).isEqualTo(Arrays.copyOfRange(data, MB - 10, MB));
+            assertThat(is.read(MB, readData, 0, readData.length)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_concurrentPositionedReads() throws Exception {
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (FSDataInputStream is = efs.open(path)) {
+            List<Future<?>> futures = IntStream.range(0, 64)
+                    .mapToObj(i -> executor.submit(() -> {
+                        int position = i * (MB / 64) + i;
+                        byte[] readData = new byte[4096];
+                        is.readFully(position, readData);
+                        assertThat(readData).isEqualTo(Arrays.copyOfRange(data, position, position + 4096));
+                        return null;
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(is.getPos()).isZero();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_positionedReadCbc() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.CIPHER_ALGORITHM_KEY, AesCbcCipher.ALGORITHM);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            byte[] readData = new byte[1000];
+            is.readFully(MB / 2 + 3, readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2 + 3, MB / 2 + 1003));
+            assertThat(is.getPos()).isZero();
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1000);
+            is.readFully(MB / 4, buffer);
+            buffer.flip().get(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 4, MB / 4 + 1000));
+            assertThat(is.getPos()).isZero();
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_segmentedGcm() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.CIPHER_ALGORITHM_KEY, AesGcmSegmentedCipher.ALGORITHM);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB + 3];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            assertThat(ByteStreams.toByteArray(is)).isEqualTo(data);
+
+            byte[] readData = new byte[1000];
+            is.readFully(MB / 2 + 3, readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2 + 3, MB / 2 + 1003));
+            is.seek(10);
+            is.readFully(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, 10, 1010));
+        }
+    }
+
+    @Test
+    public void testFileStatus_segmentedGcmReportsPlaintextLength() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.CIPHER_ALGORITHM_KEY, AesGcmSegmentedCipher.ALGORITHM);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB + 3];
+        random.nextBytes(data);
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        assertThat(delegateFs.getFileStatus(path).getLen()).isGreaterThan(data.length);
+        assertThat(efs.getFileStatus(path).getLen()).isEqualTo(data.length);
+        assertThat(efs.listStatus(path.getParent()))
+                .filteredOn(status -> status.getPath().getName().equals(path.getName()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length));
+        assertThat(toList(efs.listStatusIterator(path.getParent())))
+                .filteredOn(status -> status.getPath().getName().equals(path.getName()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length));
+        assertThat(toList(efs.listLocatedStatus(path.getParent())))
+                .filteredOn(status -> status.getPath().getName().equals(path.getName()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length));
+        assertThat(toList(efs.listFiles(path.getParent(), true)))
+                .filteredOn(status -> status.getPath().getName().equals(path.getName()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length))
+                .satisfies(status -> assertThat(status.getBlockLocations()).isNotEmpty());
+        assertThat(efs.globStatus(new Path(path.getParent(), "*")))
+                .filteredOn(status -> status.getPath().getName().equals(path.getName()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length));
+        assertThat(efs.globStatus(path, _path -> true))
+                .singleElement()
+                .satisfies(status -> assertThat(status.getLen()).isEqualTo(data.length));
+
+        // Read a footer relative to the reported length
+        byte[] footer = new byte[8];
+        try (FSDataInputStream is = efs.open(path)) {
+            is.readFully(efs.getFileStatus(path).getLen() - footer.length, footer);
+        }
+        assertThat(footer).isEqualTo(Arrays.copyOfRange(data, data.length - footer.length, data.length));
+    }
+
+    @Test
+    public void testEncryptDecrypt_parallelDecrypt() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.setBoolean(EncryptedFileSystem.PARALLEL_DECRYPT_ENABLED_KEY, true);
+        conf.setInt(EncryptedFileSystem.PARALLEL_DECRYPT_THRESHOLD_KEY, MB);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[3 * MB + 5];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            byte[] readData = new byte[data.length];
+            is.readFully(readData, 0, 100);
+            is.readFully(readData, 100, data.length - 100);
+            assertThat(readData).isEqualTo(data);
+            assertThat(is.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_pipelinedEncrypt() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.setBoolean(EncryptedFileSystem.PIPELINED_ENCRYPT_ENABLED_KEY, true);
+        conf.setInt(EncryptedFileSystem.PIPELINED_ENCRYPT_CHUNK_SIZE_KEY, 64 * 1024);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB + 5];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data, 0, 100);
+            os.flush();
+            os.write(data, 100, data.length - 100);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            assertThat(ByteStreams.toByteArray(is)).isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_readahead() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.setBoolean(EncryptedFileSystem.READAHEAD_ENABLED_KEY, true);
+        conf.setInt(EncryptedFileSystem.READAHEAD_BUFFER_SIZE_KEY, 64 * 1024);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            byte[] readData = new byte[1000];
+            is.readFully(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOf(data, 1000));
+
+            is.seek(MB / 2);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1000);
+            while (buffer.hasRemaining()) {
+                assertThat(is.read(buffer)).isPositive();
+            }
+            buffer.flip().get(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2, MB / 2 + 1000));
+            assertThat(is.getPos()).isEqualTo(MB / 2 + 1000);
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_randomReadPolicy() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.READ_POLICY_KEY, "random");
+        conf.setInt(EncryptedFileSystem.READ_BUFFER_MIN_SIZE_KEY, 4096);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            byte[] readData = new byte[1000];
+            is.seek(MB / 2);
+            is.readFully(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2, MB / 2 + 1000));
+            is.seek(10);
+            is.readFully(readData);
+            assertThat(readData).isEqualTo(Arrays.copyOfRange(data, 10, 1010));
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_heapPageCache() throws IOException, URISyntaxException {
+        testEncryptDecrypt_pageCache("heap");
+    }
+
+    @Test
+    public void testEncryptDecrypt_directPageCache() throws IOException, URISyntaxException {
+        testEncryptDecrypt_pageCache("direct");
+    }
+
+    private void testEncryptDecrypt_pageCache(String storage) throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.setBoolean(EncryptedFileSystem.PAGE_CACHE_ENABLED_KEY, true);
+        conf.setInt(EncryptedFileSystem.PAGE_CACHE_PAGE_SIZE_KEY, 4096);
+        conf.set(EncryptedFileSystem.PAGE_CACHE_STORAGE_KEY, storage);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB + 10];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        for (int i = 0; i < 2; i++) {
+            try (FSDataInputStream is = efs.open(path)) {
+                byte[] readData = new byte[1000];
+                is.seek(MB - 500);
+                is.readFully(readData, 0, 510);
+                assertThat(Arrays.copyOf(readData, 510)).isEqualTo(Arrays.copyOfRange(data, MB - 500, MB + 10));
+                assertThat(is.read()).isEqualTo(-1);
+                is.readFully(10, readData);
+                assertThat(readData).isEqualTo(Arrays.copyOfRange(data, 10, 1010));
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1000);
+                is.readFully(5000, buffer);
+                assertThat(buffer.flip()).isEqualTo(ByteBuffer.wrap(data, 5000, 1000));
+            }
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            assertThat(ByteStreams.toByteArray(is)).isEqualTo(data);
+        }
+
+        PageCacheStats stats = efs.getPageCacheStats().get();
+        assertThat(stats.getMisses()).isEqualTo(MB / 4096 + 1);
+        assertThat(stats.getHits()).isPositive();
+    }
+
+    @Test
+    public void testPageCacheDisabledByDefault() {
+        assertThat(efs.getPageCacheStats()).isEmpty();
+    }
+
+    @Test
+    public void testInvalidReadPolicy() throws IOException, URISyntaxException {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.READ_POLICY_KEY, "backwards");
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+
+        assertThatExceptionOfType(SafeIllegalArgumentException.class)
+                .isThrownBy(() -> new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy()))
+                .withMessageStartingWith("Invalid read policy");
+    }
+
+    @Test
+    public void testReadRanges() throws Exception {
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        List<ReadRange> ranges = Arrays.asList(
+                ReadRange.of(MB / 2, 5000),
+                ReadRange.of(10, 100),
+                ReadRange.of(200, 1000),
+                ReadRange.of(MB - 100, 100),
+                ReadRange.of(1500, 0));
+
+        try (FSDataInputStream is = efs.open(path)) {
+            // Hadoop's vectored read API is not implemented, so it must not be advertised
+            assertThat(is.hasCapability("in:readvectored")).isFalse();
+            is.seek(17);
+
+            ((FsCipherInputStream) is.getWrappedStream()).readRanges(ranges, ByteBuffer::allocateDirect);
+
+            for (ReadRange range : ranges) {
+                ByteBuffer buffer = range.getData().get();
+                byte[] readData = new byte[buffer.remaining()];
+                buffer.get(readData);
+                int offset = (int) range.getOffset();
+                assertThat(readData).isEqualTo(Arrays.copyOfRange(data, offset, offset + range.getLength()));
+            }
+            assertThat(is.getPos()).isEqualTo(17);
+        }
+    }
+
+    @Test
+    public void testReadRanges_cbc() throws Exception {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.CIPHER_ALGORITHM_KEY, AesCbcCipher.ALGORITHM);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        List<ReadRange> ranges = Arrays.asList(ReadRange.of(3, 100), ReadRange.of(MB / 2 + 5, 3000));
+        try (FSDataInputStream is = efs.open(path)) {
+            ((FsCipherInputStream) is.getWrappedStream()).readRanges(ranges, ByteBuffer::allocate);
+
+            for (ReadRange range : ranges) {
+                ByteBuffer buffer = range.getData().get();
+                byte[] readData = new byte[buffer.remaining()];
+                buffer.get(readData);
+                int offset = (int) range.getOffset();
+                assertThat(readData).isEqualTo(Arrays.copyOfRange(data, offset, offset + range.getLength()));
+            }
+            assertThat(is.getPos()).isZero();
+        }
+    }
+
+    @Test
+    public void testReadRanges_cbcInterleavedWithSequentialReads() throws Exception {
+        Configuration conf = new Configuration();
+        conf.set(EncryptedFileSystem.CIPHER_ALGORITHM_KEY, AesCbcCipher.ALGORITHM);
+        delegateFs = FileSystem.newInstance(new URI(folder.getAbsolutePath()), conf);
+        efs = new EncryptedFileSystem(delegateFs, new InMemoryKeyStorageStrategy());
+
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            FsCipherInputStream cis = (FsCipherInputStream) is.getWrappedStream();
+            byte[] readData = new byte[1000];
+            for (int i = 0; i < 50; i++) {
+                List<ReadRange> ranges =
+                        Arrays.asList(ReadRange.of(MB / 2 + i * 100, 300), ReadRange.of(MB - 5000 + i * 10, 200));
+                cis.readRanges(ranges, ByteBuffer::allocate);
+
+                int position = i * readData.length;
+                assertThat(is.read()).isEqualTo(data[position] & 0xFF);
+                is.readFully(readData, 0, readData.length - 1);
+                assertThat(Arrays.copyOf(readData, readData.length - 1))
+                        .isEqualTo(Arrays.copyOfRange(data, position + 1, position + readData.length));
+
+                for (ReadRange range : ranges) {
+                    ByteBuffer buffer = range.getData().get();
+                    byte[] rangeData = new byte[buffer.remaining()];
+                    buffer.get(rangeData);
+                    int offset = (int) range.getOffset();
+                    assertThat(rangeData).isEqualTo(Arrays.copyOfRange(data, offset, offset + range.getLength()));
+                }
+            }
+            assertThat(is.getPos()).isEqualTo(50L * readData.length);
+        }
+    }
+
+    @Test
+    public void testReadRanges_pastEndOfFile() throws Exception {
+        try (OutputStream os = efs.create(path)) {
+            os.write(new byte[100]);
+        }
+
+        ReadRange range = ReadRange.of(50, 100);
+        try (FSDataInputStream is = efs.open(path)) {
+            ((FsCipherInputStream) is.getWrappedStream()).readRanges(List.of(range), ByteBuffer::allocate);
+            assertThatExceptionOfType(ExecutionException.class)
+                    .isThrownBy(() -> range.getData().get())
+                    .withCauseInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    public void testReadRanges_overlappingRanges() throws IOException {
+        try (OutputStream os = efs.create(path)) {
+            os.write(new byte[100]);
+        }
+
+        try (FSDataInputStream is = efs.open(path)) {
+            FsCipherInputStream cis = (FsCipherInputStream) is.getWrappedStream();
+            List<ReadRange> ranges = Arrays.asList(ReadRange.of(50, 10), ReadRange.of(0, 51));
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> cis.readRanges(ranges, ByteBuffer::allocate));
+        }
+    }
+
+    @Test
+    public void testHasPathCapability_readVectoredNotAdvertised() throws IOException {
+        assertThat(efs.hasPathCapability(path, "in:readvectored")).isFalse();
+    }
+
+    @Test
+    public void testEncryptDecrypt_byteBufferRead() throws IOException {
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(MB), ByteBuffer.allocateDirect(MB))) {
+            try (FSDataInputStream is = efs.open(path)) {
+                assertThat(is.hasCapability(StreamCapabilities.READBYTEBUFFER)).isTrue();
+
+                while (buffer.hasRemaining()) {
+                    assertThat(is.read(buffer)).isPositive();
+                }
+                assertThat(is.read(ByteBuffer.allocate(1))).isEqualTo(-1);
+
+                buffer.flip();
+                byte[] readData = new byte[MB];
+                buffer.get(readData);
+                assertThat(readData).isEqualTo(data);
+            }
+        }
+    }
+
+    @Test
+    public void testEncryptDecrypt_byteBufferPositionedRead() throws IOException {
+        byte[] data = new byte[MB];
+        random.nextBytes(data);
+
+        try (OutputStream os = efs.create(path)) {
+            os.write(data);
+        }
+
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(1010), ByteBuffer.allocateDirect(1010))) {
+            try (FSDataInputStream is = efs.open(path)) {
+                assertThat(is.hasCapability(StreamCapabilities.PREADBYTEBUFFER)).isTrue();
+                is.seek(17);
+
+                // Only the bytes between position and limit are read and decrypted
+                buffer.position(5).limit(1005);
+                is.readFully(MB / 2 + 3, buffer);
+                assertThat(buffer.position()).isEqualTo(1005);
+                byte[] readData = new byte[1000];
+                buffer.position(5);
+                buffer.get(readData);
+                assertThat(readData).isEqualTo(Arrays.copyOfRange(data, MB / 2 + 3, MB / 2 + 1003));
+
+                // Positioned reads do not move the stream
+                assertThat(is.getPos()).isEqualTo(17);
+                assertThat(is.read()).isEqualTo(data[17] & 0xFF);
+
+                buffer.clear();
+                assertThat(is.read(MB - 10, buffer)).isEqualTo(10);
+                buffer.flip();
+                byte[] tail = new byte[10];
+                buffer.get(tail);
+                assertThat(tail).isEqualTo(Arrays.copyOfRange(data, MB - 10, MB));
+
+                buffer.clear();
+                assertThat(is.read(MB, buffer)).isEqualTo(-1);
+            }
+        }
+    }
+
     @Test
     public void testCreate_normalizePathPassedToKeyStore() throws IOException {
         mockedEfs.create(new Path("foo//bar"));
@@ -198,6 +743,7 @@ public final class EncryptedFileSystemTest {
 
     @Test
     public void testOpen_normalizePathPassedToKeyStore() throws IOException {
+        when(mockFs.open(new Path("foo/bar"), 4096)).thenReturn(mock(FSDataInputStream.class));
         mockedEfs.open(new Path("foo//bar"));
 
         verify(mockKeyStore).get("foo/bar");
@@ -392,4 +938,12 @@ public final class EncryptedFileSystemTest {
         byte[] readBytes = ByteStreams.toByteArray(input);
         assertThat(readBytes).isEqualTo(data);
     }
+
+    private static <T> List<T> toList(RemoteIterator<T> iterator) throws IOException {
+        List<T> list = new ArrayList<>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
 }
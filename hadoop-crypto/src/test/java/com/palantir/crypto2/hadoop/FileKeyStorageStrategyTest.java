@@ -21,12 +21,16 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import com.palantir.crypto2.cipher.AesCtrCipher;
 import com.palantir.crypto2.keys.KeyMaterial;
+import com.palantir.crypto2.keys.KeyMaterialBatch;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -95,4 +99,25 @@ public final class FileKeyStorageStrategyTest {
                 .isThrownBy(() -> strategy.get("key"))
                 .withMessage("Private key is absent but required to get key material");
     }
+
+    @Test
+    public void testGetAll() {
+        List<String> paths = new ArrayList<>();
+        List<KeyMaterial> keyMaterials = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            paths.add(folder.resolve("test" + i).toAbsolutePath().toString());
+            keyMaterials.add(AesCtrCipher.generateKeyMaterial());
+            keyStore.put(paths.get(i), keyMaterials.get(i));
+        }
+        paths.add(path);
+
+        KeyMaterialBatch batch = keyStore.getAll(paths);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(batch.getKeyMaterials()).containsEntry(paths.get(i), keyMaterials.get(i));
+        }
+        assertThat(batch.getKeyMaterials()).hasSize(10);
+        assertThat(batch.getFailures()).containsOnlyKeys(path);
+        assertThat(batch.getFailures().get(path)).hasCauseInstanceOf(FileNotFoundException.class);
+    }
 }
@@ -30,6 +30,7 @@ import java.nio.file.Files;
 import java.security.KeyPair;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
@@ -188,6 +189,104 @@ public final class StandaloneEncryptedFileSystemTest {
         assertThat(readData(dstPath2)).isEqualTo(DATA_BYTES);
     }
 
+    @Test
+    public void testKeyCache_disabledByDefault() {
+        assertThat(((StandaloneEncryptedFileSystem) efs).getKeyCacheStats()).isEmpty();
+    }
+
+    @Test
+    public void testKeyCache_reopenServedFromCache() throws IOException {
+        conf.setBoolean(StandaloneEncryptedFileSystem.KEY_CACHE_ENABLED_CONF, true);
+        StandaloneEncryptedFileSystem cachingEfs =
+                (StandaloneEncryptedFileSystem) FileSystem.newInstance(EFS_URI, conf);
+
+        Path path1 = new Path(folder.resolve("cached.bin").toAbsolutePath().toString());
+        try (OutputStream os = cachingEfs.create(path1)) {
+            os.write(DATA_BYTES);
+        }
+        rawFs.delete(keyMaterialPath(path1), false);
+
+        // Key material stored by create is served without reading the deleted key material file
+        assertThat(ByteStreams.toByteArray(cachingEfs.open(path1))).isEqualTo(DATA_BYTES);
+        assertThat(ByteStreams.toByteArray(cachingEfs.open(path1))).isEqualTo(DATA_BYTES);
+        assertThat(cachingEfs.getKeyCacheStats().get().getHits()).isEqualTo(2);
+        assertThat(cachingEfs.getKeyCacheStats().get().getMisses()).isZero();
+    }
+
+    @Test
+    public void testKeyCache_recursiveRenameInvalidates() throws IOException {
+        conf.setBoolean(StandaloneEncryptedFileSystem.KEY_CACHE_ENABLED_CONF, true);
+        efs = FileSystem.newInstance(EFS_URI, conf);
+
+        File rootFolder = folder.resolve("root").toFile();
+        File otherFolder = folder.resolve("other").toFile();
+        Path rootPath = new Path(rootFolder.getAbsolutePath());
+        Path otherPath = new Path(otherFolder.getAbsolutePath());
+
+        Path path1 = writeData(rootFolder);
+        writeData(otherFolder);
+
+        // Replace the files of the root folder by those of the other folder, which use different key materials
+        efs.rename(rootPath, new Path(folder.resolve("dest").toAbsolutePath().toString()));
+        efs.rename(otherPath, rootPath);
+
+        assertThat(readData(path1)).isEqualTo(DATA_BYTES);
+    }
+
+    @Test
+    public void testKeyPrefetch_listedFilesServedFromCache() throws IOException, InterruptedException {
+        File rootFolder = folder.resolve("prefetch").toFile();
+        Path path1 = writeData(rootFolder);
+        try (OutputStream os = efs.create(new Path(rootFolder.getAbsolutePath(), "other.bin"))) {
+            os.write(DATA_BYTES);
+        }
+
+        conf.setBoolean(StandaloneEncryptedFileSystem.KEY_PREFETCH_ENABLED_CONF, true);
+        StandaloneEncryptedFileSystem prefetchingEfs =
+                (StandaloneEncryptedFileSystem) FileSystem.newInstance(EFS_URI, conf);
+        FileStatus[] statuses = prefetchingEfs.listStatus(new Path(rootFolder.getAbsolutePath()));
+        assertThat(statuses).hasSize(2);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (prefetchingEfs.getKeyCacheStats().get().getPrefetched() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(prefetchingEfs.getKeyCacheStats().get().getPrefetched()).isEqualTo(2);
+
+        // Opening a listed file no longer reads its key material file
+        rawFs.delete(keyMaterialPath(path1), false);
+        for (FileStatus status : statuses) {
+            assertThat(ByteStreams.toByteArray(prefetchingEfs.open(status.getPath())))
+                    .isEqualTo(DATA_BYTES);
+        }
+        assertThat(prefetchingEfs.getKeyCacheStats().get().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void testKeyPrefetch_servedFromCacheThroughUnqualifiedPath() throws IOException, InterruptedException {
+        File rootFolder = folder.resolve("unqualified").toFile();
+        Path path1 = writeData(rootFolder);
+
+        conf.setBoolean(StandaloneEncryptedFileSystem.KEY_PREFETCH_ENABLED_CONF, true);
+        StandaloneEncryptedFileSystem prefetchingEfs =
+                (StandaloneEncryptedFileSystem) FileSystem.newInstance(EFS_URI, conf);
+        FileStatus[] statuses = prefetchingEfs.listStatus(new Path(rootFolder.getAbsolutePath()));
+        assertThat(statuses).hasSize(1);
+        assertThat(statuses[0].getPath()).isNotEqualTo(path1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (prefetchingEfs.getKeyCacheStats().get().getPrefetched() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(prefetchingEfs.getKeyCacheStats().get().getPrefetched()).isOne();
+
+        // Opening through the scheme-less path finds the key material prefetched under the listed path
+        rawFs.delete(keyMaterialPath(path1), false);
+        assertThat(ByteStreams.toByteArray(prefetchingEfs.open(path1))).isEqualTo(DATA_BYTES);
+        assertThat(prefetchingEfs.getKeyCacheStats().get().getHits()).isOne();
+        assertThat(prefetchingEfs.getKeyCacheStats().get().getMisses()).isZero();
+    }
+
     private byte[] readData(Path readPath) throws IOException {
         return ByteStreams.toByteArray(efs.open(readPath));
     }
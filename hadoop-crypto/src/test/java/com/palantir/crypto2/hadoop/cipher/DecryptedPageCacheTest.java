@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIoException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class DecryptedPageCacheTest {
+
+    private static final int PAGE_SIZE = 1024;
+    private static final int FILE_SIZE = 10 * PAGE_SIZE + 100;
+    private static final FileStatus FILE = new FileStatus(FILE_SIZE, false, 1, PAGE_SIZE, 1, new Path("/file"));
+
+    private final byte[] data = new byte[FILE_SIZE];
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void before() {
+        new Random(0).nextBytes(data);
+    }
+
+    @Test
+    public void testRead_cachesPages() throws IOException {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+        ByteBuffer dst = ByteBuffer.allocate(PAGE_SIZE);
+
+        assertThat(cache.read(FILE, 100, dst, this::load)).isEqualTo(PAGE_SIZE - 100);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 100, PAGE_SIZE - 100));
+        assertThat(cache.read(FILE, 0, dst.clear(), this::load)).isEqualTo(PAGE_SIZE);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 0, PAGE_SIZE));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats())
+                .isEqualTo(PageCacheStats.builder()
+                        .hits(1)
+                        .misses(1)
+                        .evictions(0)
+                        .pages(1)
+                        .build());
+    }
+
+    @Test
+    public void testRead_directStorage() throws IOException {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.DIRECT);
+        ByteBuffer dst = ByteBuffer.allocate(PAGE_SIZE);
+
+        assertThat(cache.read(FILE, 3 * PAGE_SIZE + 10, dst, this::load)).isEqualTo(PAGE_SIZE - 10);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 3 * PAGE_SIZE + 10, PAGE_SIZE - 10));
+    }
+
+    @Test
+    public void testRead_endOfFile() throws IOException {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+        ByteBuffer dst = ByteBuffer.allocate(PAGE_SIZE);
+
+        assertThat(cache.read(FILE, 10 * PAGE_SIZE + 50, dst, this::load)).isEqualTo(50);
+        assertThat(dst.flip()).isEqualTo(ByteBuffer.wrap(data, 10 * PAGE_SIZE + 50, 50));
+        assertThat(cache.read(FILE, FILE_SIZE, dst.clear(), this::load)).isEqualTo(-1);
+        assertThat(cache.read(FILE, 11 * PAGE_SIZE, dst.clear(), this::load)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testRead_evictsPagesBeyondMaxSize() throws IOException {
+        DecryptedPageCache cache = new DecryptedPageCache(2 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+
+        for (int page = 0; page < 10; page++) {
+            cache.read(FILE, (long) page * PAGE_SIZE, ByteBuffer.allocate(1), this::load);
+        }
+
+        PageCacheStats stats = cache.getStats();
+        assertThat(stats.getMisses()).isEqualTo(10);
+        assertThat(stats.getEvictions()).isEqualTo(8);
+        assertThat(stats.getPages()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRead_modifiedFileIsNotServedFromCache() throws IOException {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+        FileStatus modified = new FileStatus(FILE_SIZE, false, 1, PAGE_SIZE, 2, new Path("/file"));
+
+        cache.read(FILE, 0, ByteBuffer.allocate(1), this::load);
+        cache.read(modified, 0, ByteBuffer.allocate(1), this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testRead_propagatesLoadFailure() {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> cache.read(FILE, 0, ByteBuffer.allocate(1), (_offset, _page) -> {
+                    throw new IOException("failed");
+                }))
+                .withMessage("failed");
+    }
+
+    @Test
+    public void testRead_wrapsCheckedLoadFailure() {
+        DecryptedPageCache cache = new DecryptedPageCache(8 * PAGE_SIZE, PAGE_SIZE, DecryptedPageCache.Storage.HEAP);
+        Exception failure = new Exception("failed");
+
+        assertThatExceptionOfType(SafeIoException.class)
+                .isThrownBy(() -> cache.read(FILE, PAGE_SIZE, ByteBuffer.allocate(1), (_offset, _page) -> {
+                    throw DecryptedPageCacheTest.<RuntimeException>sneakyThrow(failure);
+                }))
+                .withCause(failure)
+                .satisfies(e -> assertThat(e.getArgs()).containsExactly(SafeArg.of("pageOffset", (long) PAGE_SIZE)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+
+    private int load(long offset, byte[] page) {
+        loads.incrementAndGet();
+        int length = (int) Math.min(page.length, Math.max(0, FILE_SIZE - offset));
+        if (length > 0) {
+            System.arraycopy(data, (int) offset, page, 0, length);
+        }
+        return length;
+    }
+}
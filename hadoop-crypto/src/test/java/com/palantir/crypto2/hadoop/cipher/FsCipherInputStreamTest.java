@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.crypto2.hadoop.cipher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public final class FsCipherInputStreamTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Test
+    public void testMergeRanges_mergesNearbyRanges() {
+        ReadRange first = ReadRange.of(0, 100);
+        ReadRange second = ReadRange.of(100, 100);
+        ReadRange third = ReadRange.of(200 + 4096, 100);
+
+        assertThat(FsCipherInputStream.mergeRanges(Arrays.asList(first, second, third)))
+                .containsExactly(Arrays.asList(first, second, third));
+    }
+
+    @Test
+    public void testMergeRanges_splitsDistantRanges() {
+        ReadRange first = ReadRange.of(0, 100);
+        ReadRange second = ReadRange.of(100 + 4097, 100);
+
+        assertThat(FsCipherInputStream.mergeRanges(Arrays.asList(first, second)))
+                .containsExactly(List.of(first), List.of(second));
+    }
+
+    @Test
+    public void testMergeRanges_limitsMergedSize() {
+        ReadRange first = ReadRange.of(0, MB / 2);
+        ReadRange second = ReadRange.of(MB / 2, MB / 2);
+        ReadRange third = ReadRange.of(MB, 1);
+        ReadRange large = ReadRange.of(2 * MB, 2 * MB);
+
+        assertThat(FsCipherInputStream.mergeRanges(Arrays.asList(first, second, third, large)))
+                .containsExactly(Arrays.asList(first, second), List.of(third), List.of(large));
+    }
+}
@@ -16,8 +16,10 @@
 
 package com.palantir.crypto2.hadoop.cipher;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -79,4 +81,21 @@ public final class FsCipherOutputStreamTest {
         scos.write(bytes);
         verify(cos).write(bytes);
     }
+
+    @Test
+    public void testClose_releasesCipher() throws IOException {
+        scos.close();
+        scos.close();
+        verify(cos).close();
+        verify(seekableCipher).release();
+    }
+
+    @Test
+    public void testWrite_failsAfterClose() throws IOException {
+        scos.close();
+        assertThatThrownBy(() -> scos.write(0)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> scos.write(bytes)).isInstanceOf(IOException.class);
+        verify(cos, never()).write(anyInt());
+        verify(cos, never()).write(bytes);
+    }
 }